@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2024  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2024, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -34,6 +34,9 @@ import com.aoapps.net.InetAddress;
 import com.aoapps.net.Port;
 import com.aoindustries.aoserv.client.account.User;
 import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Properties;
 
@@ -142,6 +145,13 @@ public final class AoservClientConfiguration {
     return s == null || s.length() == 0 ? AOPool.DEFAULT_MAX_CONNECTION_AGE : Long.parseLong(s);
   }
 
+  /**
+   * Determines if non-SSL requests share a single multiplexed connection.
+   */
+  static boolean getTcpConnectionMultiplexed() throws ConfigurationException {
+    return Boolean.parseBoolean(getProperty("aoserv.client.tcp.connection.multiplexed"));
+  }
+
   /**
    * Gets the SSL hostname to connect to.
    */
@@ -200,6 +210,13 @@ public final class AoservClientConfiguration {
     return s == null || s.length() == 0 ? AOPool.DEFAULT_MAX_CONNECTION_AGE : Long.parseLong(s);
   }
 
+  /**
+   * Determines if SSL requests share a single multiplexed connection.
+   */
+  static boolean getSslConnectionMultiplexed() throws ConfigurationException {
+    return Boolean.parseBoolean(getProperty("aoserv.client.ssl.connection.multiplexed"));
+  }
+
   /**
    * Gets the optional SSL truststore path.
    *
@@ -261,4 +278,25 @@ public final class AoservClientConfiguration {
       throw new ConfigurationException(e);
     }
   }
+
+  /**
+   * Gets the optional directory where cached tables are stored for warm startup.
+   * Leave this blank to not store tables on disk.
+   *
+   * @see  AoservConnector#setSnapshotDirectory(java.nio.file.Path)
+   */
+  static Path getSnapshotDirectory() throws ConfigurationException {
+    String snapshotDirectory = getProperty("aoserv.client.snapshot.directory");
+    if (
+        snapshotDirectory == null
+            || (snapshotDirectory = snapshotDirectory.trim()).isEmpty()
+    ) {
+      return null;
+    }
+    try {
+      return Paths.get(snapshotDirectory);
+    } catch (InvalidPathException e) {
+      throw new ConfigurationException(e);
+    }
+  }
 }
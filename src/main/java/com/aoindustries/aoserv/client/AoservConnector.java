@@ -29,9 +29,11 @@ import com.aoapps.hodgepodge.io.stream.StreamWritable;
 import com.aoapps.hodgepodge.io.stream.StreamableInput;
 import com.aoapps.hodgepodge.io.stream.StreamableOutput;
 import com.aoapps.hodgepodge.sort.ComparisonSortAlgorithm;
+import com.aoapps.hodgepodge.sort.JavaSort;
 import com.aoapps.hodgepodge.table.TableListener;
 import com.aoapps.lang.Throwables;
 import com.aoapps.lang.exception.ConfigurationException;
+import com.aoapps.lang.exception.WrappedException;
 import com.aoapps.lang.io.IoUtils;
 import com.aoapps.net.DomainLabel;
 import com.aoapps.net.DomainLabels;
@@ -59,15 +61,27 @@ import com.aoindustries.aoserv.client.sql.SqlComparator;
 import com.aoindustries.aoserv.client.sql.SqlOrderByExpression;
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -148,9 +162,27 @@ public abstract class AoservConnector implements SchemaParent {
 
   /**
    * One thread pool is shared by all instances.
+   * Uses virtual threads when {@linkplain ClientThreads#LIGHTWEIGHT lightweight threads} are enabled and supported.
    */
   // TODO: Use ao-concurrent per connector instance, stopping when connector is idle (when it stops cache listener due to inactivity)
-  static final ExecutorService executorService = Executors.newCachedThreadPool();
+  static final ExecutorService executorService = ClientThreads.newExecutorService();
+
+  /**
+   * Gets the executor for concurrent work on behalf of this connector, such as rendering many
+   * zone files in parallel.  This is currently the {@linkplain #executorService thread pool shared by all instances}.
+   */
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  /**
+   * Gets the scheduler for timed work on behalf of this connector, such as periodically sending buffered
+   * updates.  This is a single thread shared by all instances, so tasks must be short and should start any
+   * longer work on the {@linkplain #getExecutorService() executor}.
+   */
+  public ScheduledExecutorService getScheduler() {
+    return ClientThreads.getScheduler();
+  }
 
   /*private static final String[] profileTitles={
     "Method",
@@ -205,6 +237,13 @@ public abstract class AoservConnector implements SchemaParent {
 
   protected final String password;
 
+  /**
+   * The optional on-disk store of cached tables.
+   *
+   * @see  AoservConnector#setSnapshotDirectory(java.nio.file.Path)
+   */
+  private volatile TableSnapshotStore snapshotStore;
+
   private static class TestConnectLock {
     // Empty lock class to help heap profile
   }
@@ -691,6 +730,16 @@ public abstract class AoservConnector implements SchemaParent {
    */
   protected abstract AoservConnection getConnection(int maxConnections) throws InterruptedIOException, IOException;
 
+  /**
+   * Allocates a connection to the server for the given command.  Implementations may choose a
+   * different kind of connection for commands with large or streaming responses.
+   *
+   * @see  AoservConnector#getConnection(int)
+   */
+  protected AoservConnection getConnection(AoservProtocol.CommandId commandId, int maxConnections) throws InterruptedIOException, IOException {
+    return getConnection(maxConnections);
+  }
+
   /**
    * Gets the default <code>AoservConnector</code> as defined in the
    * <code>com/aoindustries/aoserv/client/aoserv-client.properties</code>
@@ -770,7 +819,8 @@ public abstract class AoservConnector implements SchemaParent {
               password,
               daemonServer,
               AoservClientConfiguration.getTcpConnectionPoolSize(),
-              AoservClientConfiguration.getTcpConnectionMaxAge()
+              AoservClientConfiguration.getTcpConnectionMaxAge(),
+              AoservClientConfiguration.getTcpConnectionMultiplexed()
           );
         } else if (SslConnector.SSL_PROTOCOL.equals(protocol)) {
           connector = SslConnector.getSslConnector(
@@ -783,6 +833,7 @@ public abstract class AoservConnector implements SchemaParent {
               daemonServer,
               AoservClientConfiguration.getSslConnectionPoolSize(),
               AoservClientConfiguration.getSslConnectionMaxAge(),
+              AoservClientConfiguration.getSslConnectionMultiplexed(),
               AoservClientConfiguration.getSslTruststorePath(),
               AoservClientConfiguration.getSslTruststorePassword()
           );
@@ -795,7 +846,10 @@ public abstract class AoservConnector implements SchemaParent {
         } else {
           throw new ConfigurationException("Unknown protocol in aoserv.client.protocols: " + protocol);
         }
-
+        Path snapshotDirectory = AoservClientConfiguration.getSnapshotDirectory();
+        if (snapshotDirectory != null) {
+          connector.setSnapshotDirectory(snapshotDirectory);
+        }
         return connector;
       } catch (ConfigurationException err) {
         Logger.getLogger(AoservConnector.class.getName()).log(Level.SEVERE, null, err);
@@ -907,6 +961,152 @@ public abstract class AoservConnector implements SchemaParent {
     return tables;
   }
 
+  /**
+   * The raw rows of one table returned by {@link AoservProtocol.CommandId#GET_TABLES}.
+   */
+  private static final class PrefetchedTable {
+
+    private final AoservTable<?, ?> table;
+    private final long version;
+    private final byte[] rows;
+
+    private PrefetchedTable(AoservTable<?, ?> table, long version, byte[] rows) {
+      this.table = table;
+      this.version = version;
+      this.rows = rows;
+    }
+  }
+
+  /**
+   * Loads all of the given tables that are not already loaded in a single round trip to the server.
+   * The rows of each table are parsed concurrently once the connection has been released, then
+   * installed into the table's cache.  Tables that do not cache their rows are ignored.
+   *
+   * <p>This may be used to warm the caches before rendering content that accesses many tables,
+   * which would otherwise each be loaded by a separate request upon first use.</p>
+   *
+   * @param  tableIds  the tables to load, duplicates are ignored
+   *
+   * @exception  IOException  if unable to access the server
+   * @exception  SQLException  if unable to access the database or data integrity
+   *                           checks fail
+   *
+   * @see  AoservProtocol.CommandId#GET_TABLES
+   */
+  public final void prefetch(Table.TableId ... tableIds) throws IOException, SQLException {
+    // The invalidation count of each table to load, in request order
+    final Map<Integer, Long> invalidations = new LinkedHashMap<>();
+    for (Table.TableId tableId : tableIds) {
+      Integer ordinal = tableId.ordinal();
+      if (!invalidations.containsKey(ordinal)) {
+        long invalidation = getTable(ordinal).beginPrefetch();
+        if (invalidation != -1) {
+          invalidations.put(ordinal, invalidation);
+        }
+      }
+    }
+    if (invalidations.isEmpty()) {
+      return;
+    }
+    List<AoservTable<?, ?>> loading = new ArrayList<>(invalidations.size());
+    for (Integer ordinal : invalidations.keySet()) {
+      loading.add(getTable(ordinal));
+    }
+    if (!isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT)) {
+      // Server does not support GET_TABLES, load each table separately
+      for (AoservTable<?, ?> table : loading) {
+        table.getRows();
+      }
+      return;
+    }
+    long subscription = beginCacheLoad(loading);
+    try {
+      awaitCacheSubscription(loading.get(loading.size() - 1), subscription);
+      if (!isCacheSubscribed(subscription)) {
+        // An invalidation could be missed, leave the tables to be loaded on use
+        return;
+      }
+      final long loaded = System.currentTimeMillis();
+      List<PrefetchedTable> prefetched = requestResult(
+          true,
+          AoservProtocol.CommandId.GET_TABLES,
+          new ResultRequest<List<PrefetchedTable>>() {
+            private final List<PrefetchedTable> result = new ArrayList<>(invalidations.size());
+
+            @Override
+            public void writeRequest(StreamableOutput out) throws IOException {
+              out.writeCompressedInt(invalidations.size());
+              for (Integer ordinal : invalidations.keySet()) {
+                out.writeCompressedInt(ordinal);
+              }
+            }
+
+            @Override
+            public void readResponse(StreamableInput in) throws IOException, SQLException {
+              // Remove anything that was added during a previous attempt
+              result.clear();
+              int code;
+              while ((code = in.readByte()) == AoservProtocol.NEXT) {
+                int ordinal = in.readCompressedInt();
+                if (!invalidations.containsKey(ordinal)) {
+                  throw new IOException("Unexpected table ID: " + ordinal);
+                }
+                long version = in.readLong();
+                byte[] rows = new byte[in.readCompressedInt()];
+                in.readFully(rows);
+                result.add(new PrefetchedTable(getTable(ordinal), version, rows));
+              }
+              AoservProtocol.checkResult(code, in);
+            }
+
+            @Override
+            public List<PrefetchedTable> afterRelease() {
+              return result;
+            }
+          }
+      );
+      // Parse all but the last table in the background, the last in the current thread
+      int size = prefetched.size();
+      List<Future<?>> futures = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        PrefetchedTable table = prefetched.get(i);
+        long invalidation = invalidations.get(table.table.getTableId().ordinal());
+        if (i == size - 1) {
+          table.table.loadPrefetched(table.rows, loaded, table.version, invalidation);
+        } else {
+          futures.add(executorService.submit(() -> {
+            table.table.loadPrefetched(table.rows, loaded, table.version, invalidation);
+            return null;
+          }));
+        }
+      }
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+          }
+          throw Throwables.wrap(cause, IOException.class, IOException::new);
+        } catch (InterruptedException e) {
+          // Restore the interrupted status
+          Thread.currentThread().interrupt();
+          InterruptedIOException ioErr = new InterruptedIOException();
+          ioErr.initCause(e);
+          throw ioErr;
+        }
+      }
+    } finally {
+      for (AoservTable<?, ?> table : loading) {
+        endCacheLoad(table);
+      }
+    }
+  }
+
   /**
    * Gets the {@link Administrator} who is logged in using
    * this <code>AoservConnector</code>.  Each username and password pair
@@ -1127,6 +1327,20 @@ public abstract class AoservConnector implements SchemaParent {
     }
   }
 
+  /**
+   * Writes a parameter that may be {@code null}, preceded by whether it is present.
+   *
+   * @see  AoservConnector#writeParams(java.lang.Object[], com.aoapps.hodgepodge.io.stream.StreamableOutput)
+   */
+  static void writeNullableParam(Object param, StreamableOutput out) throws IOException {
+    if (param == null) {
+      out.writeBoolean(false);
+    } else {
+      out.writeBoolean(true);
+      writeParams(new Object[]{param}, out);
+    }
+  }
+
   /**
    * This is the preferred mechanism for providing custom requests that have a return value.
    *
@@ -1163,7 +1377,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             resultRequest.writeRequest(out);
@@ -1201,7 +1415,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1246,7 +1460,7 @@ public abstract class AoservConnector implements SchemaParent {
       try {
         boolean result;
         IntList invalidateList;
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1293,7 +1507,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1338,7 +1552,7 @@ public abstract class AoservConnector implements SchemaParent {
       try {
         int result;
         IntList invalidateList;
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1385,7 +1599,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1428,7 +1642,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1473,7 +1687,7 @@ public abstract class AoservConnector implements SchemaParent {
       try {
         short result;
         IntList invalidateList;
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1520,7 +1734,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1566,7 +1780,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1613,7 +1827,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1721,17 +1935,29 @@ public abstract class AoservConnector implements SchemaParent {
     void afterRelease();
   }
 
-  @SuppressWarnings("SleepWhileInLoop")
   public final void requestUpdate(
       boolean allowRetry,
       AoservProtocol.CommandId commandId,
       UpdateRequest updateRequest
+  ) throws IOException, SQLException {
+    requestUpdate(() -> allowRetry, commandId, updateRequest);
+  }
+
+  /**
+   * Performs an update request, deciding after each failure whether the request may be retried.
+   *
+   * @param  allowRetry  called after a failure, the request is retried only while this returns {@code true}
+   */
+  @SuppressWarnings("SleepWhileInLoop")
+  final void requestUpdate(
+      BooleanSupplier allowRetry,
+      AoservProtocol.CommandId commandId,
+      UpdateRequest updateRequest
   ) throws IOException, SQLException {
     int attempt = 1;
-    int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             updateRequest.writeRequest(out);
@@ -1745,7 +1971,12 @@ public abstract class AoservConnector implements SchemaParent {
         updateRequest.afterRelease();
         return;
       } catch (Error | RuntimeException | IOException | SQLException err) {
-        if (Thread.currentThread().isInterrupted() || attempt >= attempts || isImmediateFail(err)) {
+        if (
+            Thread.currentThread().isInterrupted()
+                || attempt >= RETRY_ATTEMPTS
+                || isImmediateFail(err)
+                || !allowRetry.getAsBoolean()
+        ) {
           throw err;
         }
       }
@@ -1770,7 +2001,7 @@ public abstract class AoservConnector implements SchemaParent {
     int attempts = allowRetry ? RETRY_ATTEMPTS : 1;
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1813,7 +2044,7 @@ public abstract class AoservConnector implements SchemaParent {
     while (!Thread.currentThread().isInterrupted()) {
       try {
         IntList invalidateList;
-        try (AoservConnection connection = getConnection(1)) {
+        try (AoservConnection connection = getConnection(commandId, 1)) {
           try {
             StreamableOutput out = connection.getRequestOut(commandId);
             writeParams(params, out);
@@ -1853,6 +2084,153 @@ public abstract class AoservConnector implements SchemaParent {
     throw new InterruptedIOException();
   }
 
+  /**
+   * A single attempt of a request performed by {@link AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)}.
+   * Any retries are performed by the asynchronous API, so each attempt should not retry itself.
+   */
+  @FunctionalInterface
+  public static interface RequestAttempt<T> {
+    /**
+     * Performs one attempt of the request.
+     */
+    T call() throws IOException, SQLException;
+  }
+
+  /**
+   * Performs a request asynchronously, with the same retry behavior as the blocking requests.
+   * Each attempt is performed by the {@linkplain #getExecutorService() shared executor}, while the delays between
+   * attempts are scheduled without holding any thread.
+   *
+   * <p>This is a convenience wrapper over the blocking requests, not non-blocking I/O: each attempt holds one thread
+   * of the executor until its response is read.  That is a platform thread per concurrent call, unless
+   * {@linkplain ClientThreads#LIGHTWEIGHT lightweight threads} are enabled and supported, in which case it is a
+   * virtual thread.  Callers fanning out many requests should limit how many are outstanding at once.</p>
+   *
+   * <p>Any existing blocking method may be called asynchronously this way, such as
+   * {@code conn.requestAsync(false, server::getLoadAvgReport)}.  Since such methods already
+   * retry internally, they are best called with <code>allowRetry</code> of {@code false}.</p>
+   *
+   * @return  a future completed with the result or exceptionally with the failure of the last attempt.
+   *          Cancelling the future prevents any further attempts.
+   */
+  public final <T> CompletableFuture<T> requestAsync(boolean allowRetry, RequestAttempt<T> attempt) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    requestAsync(executorService, 1, allowRetry ? RETRY_ATTEMPTS : 1, attempt, future);
+    return future;
+  }
+
+  @SuppressWarnings({"UseSpecificCatch", "TooBroadCatch"})
+  private static <T> void requestAsync(Executor executor, int attemptNum, int attempts, RequestAttempt<T> attempt, CompletableFuture<T> future) {
+    try {
+      executor.execute(() -> {
+        if (future.isDone()) {
+          // Cancelled
+          return;
+        }
+        try {
+          future.complete(attempt.call());
+        } catch (Error | RuntimeException | IOException | SQLException err) {
+          if (attemptNum >= attempts || isImmediateFail(err)) {
+            future.completeExceptionally(err);
+          } else {
+            requestAsync(
+                CompletableFuture.delayedExecutor(retryAttemptDelays[attemptNum - 1], TimeUnit.MILLISECONDS, executorService),
+                attemptNum + 1,
+                attempts,
+                attempt,
+                future
+            );
+          }
+        } catch (Throwable t) {
+          future.completeExceptionally(t);
+        }
+      });
+    } catch (Throwable t) {
+      future.completeExceptionally(t);
+    }
+  }
+
+  /**
+   * @see  AoservConnector#requestResult(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, com.aoindustries.aoserv.client.AoservConnector.ResultRequest)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final <T> CompletableFuture<T> requestResultAsync(
+      boolean allowRetry,
+      AoservProtocol.CommandId commandId,
+      ResultRequest<T> resultRequest
+  ) {
+    return requestAsync(allowRetry, () -> requestResult(false, commandId, resultRequest));
+  }
+
+  /**
+   * @see  AoservConnector#requestBooleanQuery(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<Boolean> requestBooleanQueryAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return requestAsync(allowRetry, () -> requestBooleanQuery(false, commandId, params));
+  }
+
+  /**
+   * @see  AoservConnector#requestIntQuery(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<Integer> requestIntQueryAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return requestAsync(allowRetry, () -> requestIntQuery(false, commandId, params));
+  }
+
+  /**
+   * @see  AoservConnector#requestLongQuery(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<Long> requestLongQueryAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return requestAsync(allowRetry, () -> requestLongQuery(false, commandId, params));
+  }
+
+  /**
+   * @see  AoservConnector#requestStringQuery(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<String> requestStringQueryAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return requestAsync(allowRetry, () -> requestStringQuery(false, commandId, params));
+  }
+
+  /**
+   * @see  AoservConnector#requestUpdate(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, com.aoindustries.aoserv.client.AoservConnector.UpdateRequest)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<Void> requestUpdateAsync(
+      boolean allowRetry,
+      AoservProtocol.CommandId commandId,
+      UpdateRequest updateRequest
+  ) {
+    return requestAsync(allowRetry, () -> {
+      requestUpdate(false, commandId, updateRequest);
+      return null;
+    });
+  }
+
+  /**
+   * @see  AoservConnector#requestUpdate(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<Void> requestUpdateAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return requestAsync(allowRetry, () -> {
+      requestUpdate(false, commandId, params);
+      return null;
+    });
+  }
+
+  /**
+   * @see  AoservConnector#requestUpdateInvalidating(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public final CompletableFuture<Void> requestUpdateInvalidatingAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return requestAsync(allowRetry, () -> {
+      requestUpdateInvalidating(false, commandId, params);
+      return null;
+    });
+  }
+
   public abstract AoservConnector switchUsers(User.Name username) throws IOException;
 
   public final void tablesUpdated(IntList invalidateList) {
@@ -1919,10 +2297,151 @@ public abstract class AoservConnector implements SchemaParent {
    * Is notified when a table listener is being added.
    */
   @SuppressWarnings("NoopMethodInAbstractClass")
-  void addingTableListener() {
+  void addingTableListener(AoservTable<?, ?> table) {
+    // Do nothing
+  }
+
+  /**
+   * Is notified before a cached table is loaded, so that connectors may begin receiving
+   * invalidations for the table before its rows are requested.  This does not wait for the server;
+   * the rows should be requested only after {@link AoservConnector#awaitCacheSubscription(com.aoindustries.aoserv.client.AoservTable, long)}.
+   * Must be followed by a call to {@link AoservConnector#endCacheLoad(com.aoindustries.aoserv.client.AoservTable)}.
+   *
+   * @return  the subscription that must be acknowledged by the server before the rows are requested
+   */
+  long beginCacheLoad(AoservTable<?, ?> table) {
+    return -1;
+  }
+
+  /**
+   * Is notified before a set of cached tables are loaded together.  This is equivalent to
+   * {@link AoservConnector#beginCacheLoad(com.aoindustries.aoserv.client.AoservTable)} for each table,
+   * but connectors may subscribe to all the tables at once.
+   * Must be followed by a call to {@link AoservConnector#endCacheLoad(com.aoindustries.aoserv.client.AoservTable)}
+   * for each table.
+   *
+   * @return  the subscription that must be acknowledged by the server before the rows of any of the tables are requested
+   */
+  long beginCacheLoad(Collection<? extends AoservTable<?, ?>> tables) {
+    long subscription = -1;
+    for (AoservTable<?, ?> table : tables) {
+      subscription = Math.max(subscription, beginCacheLoad(table));
+    }
+    return subscription;
+  }
+
+  /**
+   * Waits for the server to acknowledge the subscription returned by
+   * {@link AoservConnector#beginCacheLoad(com.aoindustries.aoserv.client.AoservTable)}.
+   * This should not be called while holding any lock used by other threads to access the table.
+   * Upon timeout, this returns without the subscription acknowledged.
+   *
+   * @see  AoservConnector#isCacheSubscribed(long)
+   */
+  @SuppressWarnings("NoopMethodInAbstractClass")
+  void awaitCacheSubscription(AoservTable<?, ?> table, long subscription) throws InterruptedIOException {
     // Do nothing
   }
 
+  /**
+   * Determines if the server has acknowledged the given subscription, and thus no invalidation can have been
+   * missed by rows requested after this returned {@code true}.
+   *
+   * @see  AoservConnector#beginCacheLoad(com.aoindustries.aoserv.client.AoservTable)
+   */
+  boolean isCacheSubscribed(long subscription) {
+    return true;
+  }
+
+  /**
+   * Is notified when a cached table has been loaded before its subscription was acknowledged.
+   * The rows are used without waiting again, but an invalidation may have been missed during the load,
+   * so connectors should clear the cache of the table once the subscription is acknowledged.
+   *
+   * @see  AoservConnector#isCacheSubscribed(long)
+   */
+  @SuppressWarnings("NoopMethodInAbstractClass")
+  void revalidateOnCacheSubscribed(AoservTable<?, ?> table, long subscription) {
+    // Do nothing
+  }
+
+  /**
+   * Is notified after a cached table load has completed or failed.
+   *
+   * @see  AoservConnector#beginCacheLoad(com.aoindustries.aoserv.client.AoservTable)
+   */
+  @SuppressWarnings("NoopMethodInAbstractClass")
+  void endCacheLoad(AoservTable<?, ?> table) {
+    // Do nothing
+  }
+
+  /**
+   * Stores cached tables on disk, so that a new process may reuse them after verifying with the server
+   * that they have not changed.  Each connector uses its own subdirectory, since the rows
+   * visible depend on the protocol, server, and user.
+   *
+   * <p>The files contain account data and should be in a directory only accessible by the current user.</p>
+   *
+   * @param  directory  the directory to store tables in or {@code null} to not store tables
+   */
+  public final void setSnapshotDirectory(Path directory) {
+    if (directory == null) {
+      snapshotStore = null;
+    } else {
+      Path connectorDirectory = directory.resolve(
+          URLEncoder.encode(
+              getProtocol() + "-" + hostname + "-" + port.getPort() + "-" + connectAs,
+              StandardCharsets.UTF_8
+          )
+      );
+      TableSnapshotStore store = snapshotStore;
+      if (store == null || !store.getDirectory().equals(connectorDirectory)) {
+        snapshotStore = new TableSnapshotStore(this, connectorDirectory);
+      }
+    }
+  }
+
+  /**
+   * Gets the on-disk store of cached tables.
+   *
+   * @return  the store or {@code null} when tables are not stored
+   *
+   * @see  AoservConnector#setSnapshotDirectory(java.nio.file.Path)
+   */
+  TableSnapshotStore getSnapshotStore() {
+    return snapshotStore;
+  }
+
+  /**
+   * Gets the maximum number of requests that should concurrently hold a connection for a whole bulk
+   * transfer, such as a database dump, without starving other requests of connections.
+   *
+   * @return  the limit or {@link Integer#MAX_VALUE} when not limited
+   *
+   * @see  AoservConnector#getConnection(com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, int)
+   */
+  int getMaxBulkConnections() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Gets the protocol version used with the server.  This is {@link AoservProtocol.Version#CURRENT_VERSION}
+   * unless the server only supports an older version, in which case the commands added since that
+   * version must not be used.
+   *
+   * @see  AoservConnector#isProtocolSupported(com.aoindustries.aoserv.client.schema.AoservProtocol.Version)
+   */
+  public AoservProtocol.Version getProtocolVersion() throws IOException {
+    return AoservProtocol.Version.CURRENT_VERSION;
+  }
+
+  /**
+   * Determines if the server supports the commands added in the given protocol version.
+   */
+  final boolean isProtocolSupported(AoservProtocol.Version version) throws IOException {
+    return getProtocolVersion().compareTo(version) >= 0;
+  }
+
   /**
    * Gets some entropy from the master server, returns the number of bytes actually obtained.
    */
@@ -2007,7 +2526,16 @@ public abstract class AoservConnector implements SchemaParent {
       T[] list,
       SqlOrderByExpression... orderBy
   ) {
-    sortAlgorithm.sort(list, new SqlComparator<>(this, orderBy));
+    if (sortAlgorithm instanceof JavaSort) {
+      // Evaluate the sort expressions once per row
+      try {
+        SqlComparator.sort(this, list, orderBy);
+      } catch (IOException | SQLException err) {
+        throw new WrappedException(err);
+      }
+    } else {
+      sortAlgorithm.sort(list, new SqlComparator<>(this, orderBy));
+    }
   }
 
   public <K, T extends AoservObject<K, T>> void sort(
@@ -2015,6 +2543,15 @@ public abstract class AoservConnector implements SchemaParent {
       List<T> list,
       SqlOrderByExpression... orderBy
   ) {
-    sortAlgorithm.sort(list, new SqlComparator<>(this, orderBy));
+    if (sortAlgorithm instanceof JavaSort) {
+      // Evaluate the sort expressions once per row
+      try {
+        SqlComparator.sort(this, list, orderBy);
+      } catch (IOException | SQLException err) {
+        throw new WrappedException(err);
+      }
+    } else {
+      sortAlgorithm.sort(list, new SqlComparator<>(this, orderBy));
+    }
   }
 }
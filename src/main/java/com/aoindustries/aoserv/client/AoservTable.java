@@ -31,13 +31,17 @@ import com.aoapps.hodgepodge.sort.JavaSort;
 import com.aoapps.hodgepodge.table.TableListener;
 import com.aoapps.lang.Throwables;
 import com.aoapps.lang.exception.WrappedException;
+import com.aoapps.lang.io.function.IOConsumerE;
 import com.aoapps.sql.SQLUtility;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
 import com.aoindustries.aoserv.client.schema.Column;
+import com.aoindustries.aoserv.client.schema.ForeignKey;
 import com.aoindustries.aoserv.client.schema.Table;
 import com.aoindustries.aoserv.client.schema.Type;
 import com.aoindustries.aoserv.client.sql.Parser;
+import com.aoindustries.aoserv.client.sql.SqlComparator;
 import com.aoindustries.aoserv.client.sql.SqlOrderByExpression;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Reader;
@@ -48,10 +52,14 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -286,7 +294,7 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
       tableListeners.add(new TableListenerEntry(listener, batchTime));
     }
     synchronized (eventLock) {
-      if (batchTime > 0 && thread == null) {
+      if (batchTime > 0 && thread == null && !ClientThreads.LIGHTWEIGHT) {
         (thread = new TableEventThread()).start();
         // System.out.println("DEBUG: Started TableEventThread: "+thread.getName());
       }
@@ -294,7 +302,7 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
       eventLock.notifyAll();
     }
 
-    connector.addingTableListener();
+    connector.addingTableListener(this);
   }
 
   public final void addTableLoadListener(TableLoadListener listener, Object param) {
@@ -379,19 +387,45 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
    */
   protected abstract OrderBy[] getDefaultOrderBy();
 
+  /**
+   * The parsed default sorting, along with the table schema it was parsed for.
+   */
+  private static final class DefaultOrderByCache {
+
+    private final Table tableSchema;
+    private final OrderBy[] orderBys;
+    private final SqlOrderByExpression[] exprs;
+
+    private DefaultOrderByCache(Table tableSchema, OrderBy[] orderBys, SqlOrderByExpression[] exprs) {
+      this.tableSchema = tableSchema;
+      this.orderBys = orderBys;
+      this.exprs = exprs;
+    }
+  }
+
+  /**
+   * The parsed default sorting, reused until the table schema is reloaded.
+   */
+  private volatile DefaultOrderByCache defaultOrderByCache;
+
   // TODO: Make AoservObject Comparable like in AOServ 2.0, and let them sort themselves out
   public final SqlOrderByExpression[] getDefaultOrderBySqlExpressions() throws SQLException, IOException {
     OrderBy[] orderBys = getDefaultOrderBy();
     if (orderBys == null) {
       return null;
     }
-    int len = orderBys.length;
-    SqlOrderByExpression[] exprs = new SqlOrderByExpression[len];
-    for (int c = 0; c < len; c++) {
-      OrderBy orderBy = orderBys[c];
-      exprs[c] = new SqlOrderByExpression(Parser.parseSqlExpression(connector, getTableSchema(), orderBy.getExpression()), orderBy.getOrder());
+    Table tableSchema = getTableSchema();
+    DefaultOrderByCache cache = defaultOrderByCache;
+    if (cache == null || cache.tableSchema != tableSchema || cache.orderBys != orderBys) {
+      int len = orderBys.length;
+      SqlOrderByExpression[] exprs = new SqlOrderByExpression[len];
+      for (int c = 0; c < len; c++) {
+        OrderBy orderBy = orderBys[c];
+        exprs[c] = new SqlOrderByExpression(Parser.parseSqlExpression(connector, tableSchema, orderBy.getExpression()), orderBy.getOrder());
+      }
+      defaultOrderByCache = cache = new DefaultOrderByCache(tableSchema, orderBys, exprs);
     }
-    return exprs;
+    return cache.exprs.clone();
   }
 
   @SuppressWarnings({"UseSpecificCatch", "TooBroadCatch"})
@@ -655,6 +689,198 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
     return list;
   }
 
+  /**
+   * Gets the objects asynchronously.
+   *
+   * @see  AoservTable#getObjects(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  protected CompletableFuture<List<V>> getObjectsAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return connector.requestAsync(allowRetry, () -> getObjects(false, commandId, params));
+  }
+
+  /**
+   * Gets the objects asynchronously, without progress.
+   *
+   * @see  AoservTable#getObjectsNoProgress(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  protected CompletableFuture<List<V>> getObjectsNoProgressAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return connector.requestAsync(allowRetry, () -> getObjectsNoProgress(false, commandId, params));
+  }
+
+  /**
+   * Gets a single object asynchronously, completing with {@code null} when not found.
+   *
+   * @see  AoservTable#getObject(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, java.lang.Object...)
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  protected CompletableFuture<V> getObjectAsync(boolean allowRetry, AoservProtocol.CommandId commandId, Object... params) {
+    return connector.requestAsync(allowRetry, () -> getObject(false, commandId, params));
+  }
+
+  /**
+   * Gets the list of all accessible rows asynchronously.
+   *
+   * @see  AoservTable#getRows()
+   * @see  AoservConnector#requestAsync(boolean, com.aoindustries.aoserv.client.AoservConnector.RequestAttempt)
+   */
+  public CompletableFuture<List<V>> getRowsAsync() {
+    return connector.requestAsync(false, this::getRows);
+  }
+
+  /**
+   * Reads one row, following its {@link AoservProtocol#NEXT} code.
+   */
+  private V readRow(StreamableInput in) throws IOException {
+    V obj = getNewObject();
+    obj.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    if (obj instanceof SingleTableObject) {
+      @SuppressWarnings("unchecked")
+      SingleTableObject<K, V> sto = (SingleTableObject) obj;
+      sto.setTable(this);
+    }
+    return obj;
+  }
+
+  /**
+   * Prepares this table to receive rows from {@link AoservConnector#prefetch(com.aoindustries.aoserv.client.schema.Table.TableId...)}.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation returns {@code -1}.  Tables that cache their rows should return their
+   * current invalidation count while not loaded.</p>
+   *
+   * @return  the value to pass to {@link AoservTable#setPrefetched(java.util.List, long, long, long)}
+   *          or {@code -1} when the table should not be prefetched
+   */
+  long beginPrefetch() {
+    return -1;
+  }
+
+  /**
+   * Installs rows obtained by {@link AoservConnector#prefetch(com.aoindustries.aoserv.client.schema.Table.TableId...)}.
+   * The rows must be ignored when the table has been invalidated since {@link AoservTable#beginPrefetch()}.
+   *
+   * @param  rows          the unmodifiable, sorted rows
+   * @param  loaded        the time the request was started
+   * @param  version       the server-provided version of the table
+   * @param  invalidation  the value returned by {@link AoservTable#beginPrefetch()}
+   */
+  @SuppressWarnings("NoopMethodInAbstractClass")
+  void setPrefetched(List<V> rows, long loaded, long version, long invalidation) throws IOException, SQLException {
+    // Do nothing
+  }
+
+  /**
+   * Parses the rows of this table, as sent for one table by {@link AoservProtocol.CommandId#GET_TABLES},
+   * then installs them with {@link AoservTable#setPrefetched(java.util.List, long, long, long)}.
+   * This is performed after the connection is released, possibly concurrently with other tables.
+   */
+  final void loadPrefetched(byte[] rows, long loaded, long version, long invalidation) throws IOException, SQLException {
+    setPrefetched(parseRows(rows), loaded, version, invalidation);
+  }
+
+  /**
+   * Parses the rows of this table, as sent for one table by {@link AoservProtocol.CommandId#GET_TABLES}.
+   *
+   * @return  the unmodifiable, sorted rows
+   */
+  private List<V> parseRows(byte[] rows) throws IOException, SQLException {
+    List<V> list = new ArrayList<>();
+    try (StreamableInput in = new StreamableInput(new ByteArrayInputStream(rows))) {
+      int code;
+      while ((code = in.readByte()) == AoservProtocol.NEXT) {
+        list.add(readRow(in));
+      }
+      AoservProtocol.checkResult(code, in);
+    }
+    sortIfNeeded(list);
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * The rows of a table along with the server-provided version of the table they were loaded at.
+   */
+  static final class VersionedRows<V> {
+
+    final long version;
+
+    /**
+     * The unmodifiable, sorted rows.
+     */
+    final List<V> rows;
+
+    private VersionedRows(long version, List<V> rows) {
+      this.version = version;
+      this.rows = rows;
+    }
+  }
+
+  /**
+   * The unparsed rows of a table along with its version.
+   */
+  private static final class RawRows {
+
+    private final long version;
+    private final byte[] rows;
+
+    private RawRows(long version, byte[] rows) {
+      this.version = version;
+      this.rows = rows;
+    }
+  }
+
+  /**
+   * Gets all the rows of this table along with the version of the table, in the same response
+   * through {@link AoservProtocol.CommandId#GET_TABLES}.  The server must
+   * {@linkplain AoservConnector#isProtocolSupported(com.aoindustries.aoserv.client.schema.AoservProtocol.Version) support}
+   * {@link AoservProtocol.Version#VERSION_1_92_2_5_SNAPSHOT}.
+   */
+  final VersionedRows<V> getVersionedRows() throws IOException, SQLException {
+    final int ordinal = getTableId().ordinal();
+    RawRows raw = connector.requestResult(
+        true,
+        AoservProtocol.CommandId.GET_TABLES,
+        new AoservConnector.ResultRequest<RawRows>() {
+          private RawRows result;
+
+          @Override
+          public void writeRequest(StreamableOutput out) throws IOException {
+            out.writeCompressedInt(1);
+            out.writeCompressedInt(ordinal);
+          }
+
+          @Override
+          public void readResponse(StreamableInput in) throws IOException, SQLException {
+            result = null;
+            int code = in.readByte();
+            if (code == AoservProtocol.NEXT) {
+              int tableId = in.readCompressedInt();
+              if (tableId != ordinal) {
+                throw new IOException("Unexpected table ID: " + tableId);
+              }
+              long version = in.readLong();
+              byte[] rows = new byte[in.readCompressedInt()];
+              in.readFully(rows);
+              result = new RawRows(version, rows);
+              code = in.readByte();
+            }
+            AoservProtocol.checkResult(code, in);
+            if (result == null) {
+              throw new IOException("Table not returned: " + getTableId());
+            }
+          }
+
+          @Override
+          public RawRows afterRelease() {
+            return result;
+          }
+        }
+    );
+    // Parse after the connection is released
+    return new VersionedRows<>(raw.version, parseRows(raw.rows));
+  }
+
   protected void getObjectsNoProgress(boolean allowRetry, final List<V> list, final AoservProtocol.CommandId commandId, final Object... params) throws IOException, SQLException {
     getObjects(allowRetry, false, list, commandId, params);
   }
@@ -690,7 +916,13 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
     // Get the details for the sorting
     SqlOrderByExpression[] orderBy = getDefaultOrderBySqlExpressions();
     if (orderBy != null) {
-      connector.sort(getSortAlgorithm(), list, orderBy);
+      ComparisonSortAlgorithm<Object> sortAlgorithm = getSortAlgorithm();
+      if (sortAlgorithm instanceof JavaSort) {
+        // Evaluate the sort expressions once per row
+        SqlComparator.sort(connector, list, orderBy);
+      } else {
+        connector.sort(sortAlgorithm, list, orderBy);
+      }
     }
   }
 
@@ -756,6 +988,163 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
    */
   public abstract List<V> getRowsCopy() throws IOException, SQLException;
 
+  /**
+   * Performs the given action for every row, as each row is read from the server.  The rows
+   * are not all held in memory and are not sorted; they are processed in the order sent by the server.
+   * This is intended for aggregating or exporting large tables.
+   *
+   * <p>The connection to the server is held while the rows are processed, so the action should not block.
+   * The request is retried only until the first row has been given to the action, so no row is processed twice.
+   * A failure after that point, including any thrown by the action, is not retried.</p>
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation streams the rows of {@link AoservProtocol.CommandId#GET_TABLE}.
+   * Tables that hold their rows locally perform the action on their sorted rows instead.</p>
+   *
+   * @see  AoservTable#getRows()
+   */
+  public void forEachRow(final IOConsumerE<? super V, SQLException> action) throws IOException, SQLException {
+    final boolean[] delivered = {false};
+    connector.requestUpdate(
+        () -> !delivered[0],
+        AoservProtocol.CommandId.GET_TABLE,
+        new AoservConnector.UpdateRequest() {
+          @Override
+          public void writeRequest(StreamableOutput out) throws IOException {
+            // No progress
+            out.writeBoolean(false);
+            out.writeCompressedInt(getTableId().ordinal());
+          }
+
+          @Override
+          public void readResponse(StreamableInput in) throws IOException, SQLException {
+            int code;
+            while ((code = in.readByte()) == AoservProtocol.NEXT) {
+              V row = readRow(in);
+              delivered[0] = true;
+              action.accept(row);
+            }
+            AoservProtocol.checkResult(code, in);
+          }
+
+          @Override
+          public void afterRelease() {
+            // Do nothing
+          }
+        }
+    );
+  }
+
+  /**
+   * Gets one page of rows, without transferring the rows of other pages.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation requests the page from the server.  Tables that hold their rows locally
+   * find the page in their rows instead, as does this implementation when the server does not support
+   * {@link AoservProtocol.CommandId#GET_TABLE_PAGE}.</p>
+   *
+   * @see  AoservProtocol.CommandId#GET_TABLE_PAGE
+   */
+  public RowPage<V> getPage(final PageRequest request) throws IOException, SQLException {
+    if (!connector.isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT)) {
+      return getPage(getRows(), request);
+    }
+    return connector.requestResult(
+        true,
+        AoservProtocol.CommandId.GET_TABLE_PAGE,
+        new AoservConnector.ResultRequest<RowPage<V>>() {
+          private List<V> result;
+
+          @Override
+          public void writeRequest(StreamableOutput out) throws IOException {
+            out.writeCompressedInt(getTableId().ordinal());
+            request.write(out, AoservProtocol.Version.CURRENT_VERSION);
+          }
+
+          @Override
+          public void readResponse(StreamableInput in) throws IOException, SQLException {
+            List<V> list = new ArrayList<>();
+            int code;
+            while ((code = in.readByte()) == AoservProtocol.NEXT) {
+              list.add(readRow(in));
+            }
+            AoservProtocol.checkResult(code, in);
+            result = list;
+          }
+
+          @Override
+          public RowPage<V> afterRelease() {
+            return new RowPage<>(request, Collections.unmodifiableList(result));
+          }
+        }
+    );
+  }
+
+  /**
+   * Finds one page in the given rows locally, keeping only the rows of the page while searching.
+   *
+   * @see  AoservTable#getPage(com.aoindustries.aoserv.client.PageRequest)
+   */
+  static <V extends AoservObject<?, ?>> RowPage<V> getPage(List<V> rows, PageRequest request) {
+    int limit = request.getLimit();
+    // The last row of the page is at the head
+    PriorityQueue<V> page = new PriorityQueue<>(Math.min(limit, rows.size()) + 1, (row1, row2) -> request.compare(row2, row1));
+    for (V row : rows) {
+      if (request.matches(row)) {
+        page.add(row);
+        if (page.size() > limit) {
+          page.remove();
+        }
+      }
+    }
+    List<V> list = new ArrayList<>(page);
+    list.sort(request::compare);
+    return new RowPage<>(request, Collections.unmodifiableList(list));
+  }
+
+  /**
+   * Gets a modifiable list of the rows matching all of the given filters.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation sends the filters to the server, so only the matching rows
+   * are transferred.  Tables that hold their rows locally filter them without contacting the server.
+   * When the server does not support {@link AoservProtocol.CommandId#GET_TABLE_FILTERED}, all the rows
+   * are filtered locally.</p>
+   *
+   * @param  filters  the filters, all of which must match
+   *
+   * @see  AoservProtocol.CommandId#GET_TABLE_FILTERED
+   */
+  public List<V> getFilteredRows(ColumnFilter ... filters) throws IOException, SQLException {
+    if (!connector.isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT)) {
+      return filterRows(getRows(), filters);
+    }
+    Object[] params = new Object[2 + filters.length];
+    params[0] = getTableId();
+    params[1] = filters.length;
+    System.arraycopy(filters, 0, params, 2, filters.length);
+    return getObjects(true, AoservProtocol.CommandId.GET_TABLE_FILTERED, params);
+  }
+
+  /**
+   * Filters the given rows locally.
+   *
+   * @see  AoservTable#getFilteredRows(com.aoindustries.aoserv.client.ColumnFilter...)
+   */
+  static <V extends AoservObject<?, ?>> List<V> filterRows(List<V> rows, ColumnFilter ... filters) {
+    List<V> matches = new ArrayList<>();
+    ROWS:
+    for (V row : rows) {
+      for (ColumnFilter filter : filters) {
+        if (!filter.matches(row)) {
+          continue ROWS;
+        }
+      }
+      matches.add(row);
+    }
+    return matches;
+  }
+
   /**
    * Gets the unique identifier for this table.  Each
    * table has a unique identifier, as defined in
@@ -791,10 +1180,19 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
    *
    * @exception UnsupportedOperationException if not supported by the specific table implementation
    */
-  public final List<V> getIndexedRows(int col, int value) throws IOException, SQLException {
+  public List<V> getIndexedRows(int col, int value) throws IOException, SQLException {
     return getIndexedRows(col, Integer.valueOf(value));
   }
 
+  /**
+   * Gets the rows in a more efficient, indexed manner.
+   *
+   * @exception UnsupportedOperationException if not supported by the specific table implementation
+   */
+  public List<V> getIndexedRows(int col, long value) throws IOException, SQLException {
+    return getIndexedRows(col, Long.valueOf(value));
+  }
+
   /**
    * Gets the rows in a more efficient, indexed manner.
    *
@@ -807,12 +1205,60 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
     throw new UnsupportedOperationException("getIndexedRows now supported by table implementation");
   }
 
-  // TODO: Why do these exist as final?  Seems they should not exist at all since there's no way to implement primitive optimizations in subclasses
+  /**
+   * Gets the rows of another table that reference the given row of this table, through any of the
+   * {@link ForeignKey foreign keys} declared in the schema.  Each foreign key is looked-up in the index of
+   * the referencing column, which is built when first needed and discarded when the referencing table is
+   * reloaded, instead of scanning the referencing table.  Tables without indexes are filtered by the server.
+   *
+   * <p>When the schema declares no foreign key from the referencing table to this table, such as with the schema of
+   * an older server, this falls back to all the rows of the referencing table.  Callers must still check that each
+   * row references the given row.</p>
+   *
+   * @return  the referencing rows, each only once, by foreign key then in the order of the referencing table
+   */
+  public <RK, R extends AoservObject<RK, R>> List<R> getReferencingRows(V row, AoservTable<RK, R> referencingTable) throws IOException, SQLException {
+    String referencingTableName = referencingTable.getTableName();
+    // Only cached and global tables have indexes
+    boolean indexed = referencingTable instanceof CachedTable || referencingTable instanceof GlobalTable;
+    boolean foundKey = false;
+    Set<R> referencing = null;
+    for (Column column : getTableSchema().getSchemaColumns(connector)) {
+      List<ForeignKey> referencedBy = column.getReferencedBy(connector);
+      if (!referencedBy.isEmpty()) {
+        Object value = row.getColumn(column.getIndex());
+        for (ForeignKey key : referencedBy) {
+          Column keyColumn = key.getColumn(connector);
+          if (keyColumn.getTable_name().equals(referencingTableName)) {
+            foundKey = true;
+            if (value != null) {
+              List<R> rows;
+              if (indexed) {
+                rows = referencingTable.getIndexedRows(keyColumn.getIndex(), value);
+              } else {
+                rows = referencingTable.getFilteredRows(ColumnFilter.equalTo(keyColumn.getIndex(), value));
+              }
+              if (!rows.isEmpty()) {
+                if (referencing == null) {
+                  referencing = new LinkedHashSet<>();
+                }
+                referencing.addAll(rows);
+              }
+            }
+          }
+        }
+      }
+    }
+    if (!foundKey) {
+      return referencingTable.getRows();
+    }
+    return referencing == null ? Collections.emptyList() : new ArrayList<>(referencing);
+  }
+
   public final V getUniqueRow(int col, int value) throws IOException, SQLException {
     return getUniqueRowImpl(col, value);
   }
 
-  // TODO: Why do these exist as final?  Seems they should not exist at all since there's no way to implement primitive optimizations in subclasses
   public final V getUniqueRow(int col, long value) throws IOException, SQLException {
     return getUniqueRowImpl(col, value);
   }
@@ -826,7 +1272,7 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
 
   // TODO: Why do these exist as final?  Seems they should not exist at all since there's no way to implement primitive optimizations in subclasses
   public final V getUniqueRow(int col, short value) throws IOException, SQLException {
-    return getUniqueRowImpl(col, value);
+    return getUniqueRowImpl(col, Short.valueOf(value));
   }
 
   /**
@@ -837,6 +1283,32 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
    */
   protected abstract V getUniqueRowImpl(int col, Object value) throws IOException, SQLException;
 
+  /**
+   * Gets a row given a unique {@code int} column value.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation boxes the value and calls {@link AoservTable#getUniqueRowImpl(int, java.lang.Object)}.
+   * Tables that hash by primitive key should override this to avoid boxing.</p>
+   *
+   * @param col  the column index to search
+   */
+  protected V getUniqueRowImpl(int col, int value) throws IOException, SQLException {
+    return getUniqueRowImpl(col, Integer.valueOf(value));
+  }
+
+  /**
+   * Gets a row given a unique {@code long} column value.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation boxes the value and calls {@link AoservTable#getUniqueRowImpl(int, java.lang.Object)}.
+   * Tables that hash by primitive key should override this to avoid boxing.</p>
+   *
+   * @param col  the column index to search
+   */
+  protected V getUniqueRowImpl(int col, long value) throws IOException, SQLException {
+    return getUniqueRowImpl(col, Long.valueOf(value));
+  }
+
   public boolean handleCommand(String[] rawArgs, String[] args, Reader in, TerminalWriter out, TerminalWriter err, boolean isInteractive) throws IOException, SQLException {
     return false;
   }
@@ -1054,7 +1526,11 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
           TableListenerEntry entry = tableListenersSnapshot.get(c);
           if (entry.delay > 0 && entry.delayStart == -1) {
             entry.delayStart = System.currentTimeMillis();
-            modified = true;
+            if (ClientThreads.LIGHTWEIGHT) {
+              ClientThreads.getScheduler().schedule(() -> batchedTableUpdated(entry), entry.delay, TimeUnit.MILLISECONDS);
+            } else {
+              modified = true;
+            }
           }
         }
         if (modified) {
@@ -1064,6 +1540,45 @@ public abstract class AoservTable<K, V extends AoservObject<K, V>> implements It
     }
   }
 
+  /**
+   * Notifies a batched listener once its delay has passed.  Used in place of
+   * {@link TableEventThread} when {@linkplain ClientThreads#LIGHTWEIGHT lightweight threads} are enabled.
+   */
+  private void batchedTableUpdated(TableListenerEntry entry) {
+    synchronized (eventLock) {
+      if (entry.delayStart == -1) {
+        return;
+      }
+      entry.delayStart = -1;
+    }
+    boolean registered;
+    synchronized (tableListenersLock) {
+      registered = tableListeners != null && tableListeners.contains(entry);
+    }
+    if (registered) {
+      // Run in a different thread to avoid deadlock and increase concurrency responding to table update events.
+      AoservConnector.executorService.submit(() -> entry.listener.tableUpdated(AoservTable.this));
+    }
+  }
+
+  /**
+   * Checks if this table has at least one batched listener, which requires either a
+   * {@link TableEventThread} or, when {@linkplain ClientThreads#LIGHTWEIGHT lightweight threads}
+   * are enabled, the shared scheduler.
+   */
+  final boolean hasBatchedTableListener() {
+    synchronized (tableListenersLock) {
+      if (tableListeners != null) {
+        for (TableListenerEntry entry : tableListeners) {
+          if (entry.delay > 0) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
   @Override
   public final String toString() {
     try {
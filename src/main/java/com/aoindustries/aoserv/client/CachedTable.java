@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -23,17 +23,18 @@
 
 package com.aoindustries.aoserv.client;
 
-import com.aoapps.collections.AoCollections;
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoapps.lang.io.function.IOConsumerE;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A <code>CachedTable</code> stores all of the
@@ -43,84 +44,150 @@ import java.util.Map;
  * the caches are then invalidated.  Once invalidated,
  * the data is reloaded upon next use.
  *
+ * <p>The rows are held in an immutable {@link TableSnapshot}, so lookups on a loaded table
+ * never block.  Only a thread that finds the table not loaded will wait, and concurrent
+ * threads waiting on the same load share its result.</p>
+ *
+ * <p>Tables that {@linkplain CachedTable#isDeltaRefreshEnabled() enable incremental refreshes}
+ * keep their rows across invalidations.  Upon next use, only the rows inserted, updated,
+ * or deleted since the last load are requested and merged into the existing rows.  The unique and
+ * index hashes are built again, on next use or {@linkplain CachedTable#isEagerIndexingEnabled() as loaded}.
+ * A full reload is still performed when the server is unable to provide the changes, such as when too
+ * many rows have changed.</p>
+ *
+ * <p>Tables may also {@linkplain CachedTable#addCompositeIndex(int...) declare indexes over several columns},
+ * so that lookups by multiple values are a single hash probe.</p>
+ *
+ * <p>When the connector has an {@linkplain AoservConnector#setSnapshotDirectory(java.nio.file.Path) on-disk store},
+ * the first load uses the stored rows when the server reports the table version is unchanged.
+ * Tables that enable incremental refreshes request only the rows changed since the stored version.</p>
+ *
  * @author  AO Industries, Inc.
  */
 public abstract class CachedTable<K, V extends CachedObject<K, V>> extends AoservTable<K, V> {
 
   /**
-   * The last time that the data was loaded, or
-   * <code>-1</code> if not yet loaded.
+   * The minimum number of changed rows that will be accepted as an incremental refresh.
+   * Larger tables accept up to one quarter of their rows, beyond which a full reload is
+   * not significantly more expensive.
+   */
+  private static final int MIN_DELTA_ROWS = 100;
+
+  /**
+   * The number of times this table has been invalidated.  A snapshot is current only
+   * while this matches the count captured when its load started.
+   */
+  private final AtomicLong invalidations = new AtomicLong();
+
+  /**
+   * The most recently loaded snapshot or {@code null} when not loaded.
+   * For tables that {@linkplain CachedTable#isDeltaRefreshEnabled() enable incremental refreshes},
+   * the stale snapshot is kept as the basis for the next refresh.
    */
-  private long lastLoaded = -1;
+  private volatile TableSnapshot<V> snapshot;
+
+  private static class LoadLock {
+    // Empty lock class to help heap profile
+  }
 
   /**
-   * The internal objects are stored in <code>HashMaps</code>
-   * based on unique columns.
+   * Only held while loading, so that concurrent misses share one load.
    */
-  private List<Map<Object, V>> columnHashes;
-  private BitSet columnsHashed;
+  private final LoadLock loadLock = new LoadLock();
 
   /**
-   * The internal objects are stored in <code>HashMaps</code> of <code>CachedObject[]</code>
-   * based on indexed columns.  Each of the contained {@code List<T>} are unmodifiable.
+   * Set once the {@linkplain AoservConnector#getSnapshotStore() on-disk store} has been checked
+   * for the first load.  All accesses are synchronized on {@link #loadLock}.
    */
-  private List<Map<Object, List<V>>> indexHashes;
-  private BitSet indexesHashed;
+  private boolean storeChecked;
+
+  /**
+   * An index over several columns, declared by a table with {@link CachedTable#addCompositeIndex(int...)}.
+   * The index is built for each snapshot on first use, and each lookup is a single hash probe
+   * that does not allocate a tuple for the key.
+   */
+  protected static final class CompositeIndex {
+
+    private final CachedTable<?, ?> table;
+
+    /**
+     * The sequence of this index within its table.
+     */
+    final int id;
+
+    private final int[] columns;
+
+    private CompositeIndex(CachedTable<?, ?> table, int id, int[] columns) {
+      this.table = table;
+      this.id = id;
+      this.columns = columns;
+    }
+  }
 
   /**
-   * The internal objects are stored in an unmodifiable list
-   * for access to the entire table.
+   * The number of composite indexes declared.  All accesses are synchronized on {@link #compositeIndexLock}.
    */
-  private List<V> tableData;
+  private int compositeIndexCount;
+
+  private static class CompositeIndexLock {
+    // Empty lock class to help heap profile
+  }
+
+  private final CompositeIndexLock compositeIndexLock = new CompositeIndexLock();
 
   protected CachedTable(AoservConnector connector, Class<V> clazz) {
     super(connector, clazz);
   }
 
+  /**
+   * Declares an index over two or three columns, typically as a field of the table.
+   * Lookups on the returned index are performed with
+   * {@link CachedTable#getIndexedRows(com.aoindustries.aoserv.client.CachedTable.CompositeIndex, java.lang.Object, java.lang.Object)}
+   * or {@link CachedTable#getIndexedRows(com.aoindustries.aoserv.client.CachedTable.CompositeIndex, java.lang.Object, java.lang.Object, java.lang.Object)}.
+   */
+  protected final CompositeIndex addCompositeIndex(int ... columns) {
+    if (columns.length < 2 || columns.length > 3) {
+      throw new IllegalArgumentException("Composite indexes must have two or three columns: " + columns.length);
+    }
+    synchronized (compositeIndexLock) {
+      return new CompositeIndex(this, compositeIndexCount++, columns.clone());
+    }
+  }
+
+  private CompositeHash<V> getCompositeHash(CompositeIndex index) throws IOException, SQLException {
+    if (index.table != this) {
+      throw new IllegalArgumentException("Index is from a different table: " + index.table.getTableId());
+    }
+    return getSnapshot().getCompositeHash(index.id, index.columns);
+  }
+
+  /**
+   * Gets the unmodifiable list of rows having the given values in the two columns of the index.
+   */
+  protected final List<V> getIndexedRows(CompositeIndex index, Object value1, Object value2) throws IOException, SQLException {
+    return getCompositeHash(index).get(value1, value2);
+  }
+
+  /**
+   * Gets the unmodifiable list of rows having the given values in the three columns of the index.
+   */
+  protected final List<V> getIndexedRows(CompositeIndex index, Object value1, Object value2, Object value3) throws IOException, SQLException {
+    return getCompositeHash(index).get(value1, value2, value3);
+  }
+
   @Override
   public List<V> getIndexedRows(int col, Object value) throws IOException, SQLException {
-    synchronized (this) {
-      validateCache();
-      int minLength = col + 1;
-      if (indexHashes == null) {
-        indexHashes = new ArrayList<>(minLength);
-        indexesHashed = new BitSet(minLength);
-      }
-      while (indexHashes.size() < minLength) {
-        indexHashes.add(null);
-      }
-      Map<Object, List<V>> map = indexHashes.get(col);
-      if (map == null) {
-        indexHashes.set(col, map = new HashMap<>());
-      }
-      if (!indexesHashed.get(col)) {
-        // Build the modifiable lists in a temporary Map
-        Map<Object, List<V>> modifiableIndexes = new HashMap<>();
-        for (V obj : tableData) {
-          Object cvalue = obj.getColumn(col);
-          List<V> list = modifiableIndexes.get(cvalue);
-          if (list == null) {
-            modifiableIndexes.put(cvalue, list = new ArrayList<>());
-          }
-          list.add(obj);
-        }
-        // Wrap each of the newly-created indexes to be unmodifiable
-        map.clear();
-        Iterator<Object> keys = modifiableIndexes.keySet().iterator();
-        while (keys.hasNext()) {
-          Object key = keys.next();
-          List<V> list = modifiableIndexes.get(key);
-          map.put(key, Collections.unmodifiableList(list));
-        }
-        indexesHashed.set(col);
-      }
-      // Conversion to array is delayed so that indexed but unused parts save the step.
-      List<V> list = map.get(value);
-      if (list == null) {
-        return Collections.emptyList();
-      }
-      return list;
-    }
+    return getSnapshot().getIndexedRows(col, value);
+  }
+
+  @Override
+  public List<V> getIndexedRows(int col, int value) throws IOException, SQLException {
+    return getSnapshot().getIndexedRows(col, value);
+  }
+
+  @Override
+  public List<V> getIndexedRows(int col, long value) throws IOException, SQLException {
+    return getSnapshot().getIndexedRows(col, value);
   }
 
   @Override
@@ -128,55 +195,25 @@ public abstract class CachedTable<K, V extends CachedObject<K, V>> extends Aoser
     if (value == null) {
       return null;
     }
-    synchronized (this) {
-      validateCache();
-      int minLength = col + 1;
-      if (columnHashes == null) {
-        columnHashes = new ArrayList<>(minLength);
-        columnsHashed = new BitSet(minLength);
-      }
-      while (columnHashes.size() < minLength) {
-        columnHashes.add(null);
-      }
-      Map<Object, V> map = columnHashes.get(col);
-      if (!columnsHashed.get(col)) {
-        List<V> table = tableData;
-        int size = table.size();
-        // Allow 25% growth before rehash
-        if (map == null) {
-          columnHashes.set(col, map = AoCollections.newHashMap((size * 5) >> 2));
-        } else {
-          map.clear();
-        }
-        for (int c = 0; c < size; c++) {
-          V row = table.get(c);
-          Object cvalue = row.getColumn(col);
-          if (cvalue != null) {
-            Object old = map.put(cvalue, row);
-            if (old != null) {
-              throw new SQLException(
-                  "Duplicate unique entry for table #" + getTableId() + " (" + getTableName()
-                      + "), column " + col + ": " + cvalue
-              );
-            }
-          }
-        }
-        columnsHashed.set(col);
-      }
-      return map.get(value);
-    }
+    return getSnapshot().getUniqueRow(this, col, value);
+  }
+
+  @Override
+  protected final V getUniqueRowImpl(int col, int value) throws IOException, SQLException {
+    return getSnapshot().getUniqueRow(this, col, value);
+  }
+
+  @Override
+  protected final V getUniqueRowImpl(int col, long value) throws IOException, SQLException {
+    return getSnapshot().getUniqueRow(this, col, value);
   }
 
   /**
    * Gets the complete list of objects in the table.
    */
   @Override
-  @SuppressWarnings("ReturnOfCollectionOrArrayField") // Returning unmodifiable
   public List<V> getRows() throws IOException, SQLException {
-    synchronized (this) {
-      validateCache();
-      return tableData;
-    }
+    return getSnapshot().rows;
   }
 
   @Override
@@ -184,102 +221,314 @@ public abstract class CachedTable<K, V extends CachedObject<K, V>> extends Aoser
     return new ArrayList<>(getRows());
   }
 
+  /**
+   * Performs the action on the cached rows, in order.
+   */
+  @Override
+  public void forEachRow(IOConsumerE<? super V, SQLException> action) throws IOException, SQLException {
+    for (V row : getRows()) {
+      action.accept(row);
+    }
+  }
+
+  /**
+   * Finds the page in the cached rows when loaded, otherwise requests only the page from the server.
+   */
+  @Override
+  public RowPage<V> getPage(PageRequest request) throws IOException, SQLException {
+    if (isLoaded()) {
+      return getPage(getRows(), request);
+    }
+    return super.getPage(request);
+  }
+
+  /**
+   * Filters the cached rows locally.
+   */
+  @Override
+  public List<V> getFilteredRows(ColumnFilter ... filters) throws IOException, SQLException {
+    return filterRows(getRows(), filters);
+  }
+
   /**
    * Determines if the contents are currently hashed in a hashmap.
    */
   boolean isHashed(int uniqueColumn) {
-    return
-        columnsHashed != null
-            && columnsHashed.get(uniqueColumn);
+    TableSnapshot<V> s = snapshot;
+    return s != null && s.isHashed(uniqueColumn);
   }
 
   /**
    * Determines if the contents of this column are indexed.
    */
   boolean isIndexed(int uniqueColumn) {
-    return
-        indexesHashed != null
-            && indexesHashed.get(uniqueColumn);
+    TableSnapshot<V> s = snapshot;
+    return s != null && s.isIndexed(uniqueColumn);
   }
 
   @Override
   public final boolean isLoaded() {
-    return lastLoaded != -1;
+    TableSnapshot<V> s = snapshot;
+    return s != null && s.invalidation == invalidations.get();
+  }
+
+  /**
+   * Enables incremental refreshes of this table.  When enabled, the rows are kept after the
+   * cache is cleared, and the next access only requests the rows changed since the last load.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation returns {@code false}.  Large tables that are frequently
+   * invalidated by small changes should override this to return {@code true}.</p>
+   *
+   * @see  AoservProtocol.CommandId#GET_TABLE_DELTA
+   */
+  protected boolean isDeltaRefreshEnabled() {
+    return false;
+  }
+
+  /**
+   * Builds the unique and index hashes of this table as it is loaded, in parallel, so that they are
+   * ready before the rows are used.  Unique columns are hashed and columns that reference
+   * other tables are indexed, as declared in the schema.  When disabled, each hash is built
+   * on first use.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation returns {@code false}.  Tables that are frequently searched
+   * immediately after being invalidated should override this to return {@code true}.
+   * This must not be enabled on the schema tables used to find the columns.</p>
+   *
+   * @see  com.aoindustries.aoserv.client.schema.Column#isUnique()
+   * @see  com.aoindustries.aoserv.client.schema.Column#getReferences(com.aoindustries.aoserv.client.AoservConnector)
+   */
+  protected boolean isEagerIndexingEnabled() {
+    return false;
   }
 
   /**
    * Clears the cache, freeing up memory.  The data will be reloaded upon
    * next use.
+   *
+   * <p>When {@linkplain CachedTable#isDeltaRefreshEnabled() incremental refreshes are enabled},
+   * the rows are retained until the next use, where they are brought up-to-date.</p>
    */
   @Override
   public void clearCache() {
     super.clearCache();
-    synchronized (this) {
-      lastLoaded = -1;
-      if (columnHashes != null) {
-        int len = columnHashes.size();
-        for (int c = 0; c < len; c++) {
-          Map<Object, V> map = columnHashes.get(c);
-          if (map != null) {
-            map.clear();
-          }
+    invalidations.incrementAndGet();
+    TableSnapshot<V> s = snapshot;
+    if (s != null && (s.version == -1 || !isDeltaRefreshEnabled())) {
+      snapshot = null;
+    }
+  }
+
+  /**
+   * Determines if the given snapshot may still be used.
+   */
+  private boolean isCurrent(TableSnapshot<V> s, long currentTime) {
+    return
+        s.invalidation == invalidations.get()
+            // If the system time was reset to previous time
+            && currentTime >= s.loaded;
+  }
+
+  @Override
+  final long beginPrefetch() {
+    TableSnapshot<V> s = snapshot;
+    if (s != null && isCurrent(s, System.currentTimeMillis())) {
+      return -1;
+    }
+    return invalidations.get();
+  }
+
+  @Override
+  final void setPrefetched(List<V> rows, long loaded, long version, long invalidation) throws IOException, SQLException {
+    synchronized (loadLock) {
+      TableSnapshot<V> s = snapshot;
+      if (
+          invalidations.get() == invalidation
+              && (s == null || !isCurrent(s, System.currentTimeMillis()))
+      ) {
+        storeChecked = true;
+        TableSnapshotStore store = connector.getSnapshotStore();
+        if (store != null) {
+          store.write(this, version, rows);
         }
-      }
-      if (columnsHashed != null) {
-        columnsHashed.clear();
-      }
-      if (indexHashes != null) {
-        int len = indexHashes.size();
-        for (int c = 0; c < len; c++) {
-          Map<Object, List<V>> map = indexHashes.get(c);
-          if (map != null) {
-            map.clear();
-          }
+        TableSnapshot<V> newSnapshot = new TableSnapshot<>(rows, loaded, version, invalidation);
+        if (isEagerIndexingEnabled()) {
+          newSnapshot.buildDeclaredHashes(this);
         }
-      }
-      if (indexesHashed != null) {
-        indexesHashed.clear();
+        snapshot = newSnapshot;
       }
     }
   }
 
   /**
-   * Reloads the cache if the cache time has expired.  All accesses are already synchronized.
+   * Gets the current snapshot, loading the table when not loaded or invalidated.
+   * This does not block when the table is already loaded.
    */
-  private void validateCache() throws IOException, SQLException {
-    long currentTime = System.currentTimeMillis();
-    if (
-        // If cache never loaded
-        lastLoaded == -1
-            // If the system time was reset to previous time
-            || currentTime < lastLoaded
-    ) {
-      tableData = Collections.unmodifiableList(getObjects(true, AoservProtocol.CommandId.GET_TABLE, getTableId()));
-      lastLoaded = currentTime;
-      if (columnHashes != null) {
-        int len = columnHashes.size();
-        for (int c = 0; c < len; c++) {
-          Map<Object, V> map = columnHashes.get(c);
-          if (map != null) {
-            map.clear();
+  private TableSnapshot<V> getSnapshot() throws IOException, SQLException {
+    TableSnapshot<V> s = snapshot;
+    if (s != null && isCurrent(s, System.currentTimeMillis())) {
+      return s;
+    }
+    long subscription = connector.beginCacheLoad(this);
+    try {
+      // Wait before locking, so other threads using the table are not blocked by a new subscription
+      connector.awaitCacheSubscription(this, subscription);
+      synchronized (loadLock) {
+        // Another thread may have completed the load while waiting
+        s = snapshot;
+        long currentTime = System.currentTimeMillis();
+        if (s != null && isCurrent(s, currentTime)) {
+          return s;
+        }
+        // Invalidations during the load will cause it to be reloaded on next use
+        long invalidation = invalidations.get();
+        // An invalidation may be missed when the subscription is still not acknowledged
+        boolean subscribed = connector.isCacheSubscribed(subscription);
+        // Table versions require protocol support from the server
+        boolean versioned = connector.isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT);
+        boolean deltaRefresh = versioned && isDeltaRefreshEnabled();
+        TableSnapshotStore store = versioned ? connector.getSnapshotStore() : null;
+        TableSnapshot<V> newSnapshot = null;
+        if (s == null && store != null && !storeChecked) {
+          storeChecked = true;
+          TableSnapshotStore.StoredTable<V> stored = store.read(this);
+          if (stored != null) {
+            TableSnapshot<V> storedSnapshot = new TableSnapshot<>(stored.rows, currentTime, stored.version, invalidation);
+            if (deltaRefresh) {
+              // Bring the stored rows up-to-date below
+              s = storedSnapshot;
+            } else if (connector.requestLongQuery(true, AoservProtocol.CommandId.GET_TABLE_VERSION, getTableId()) == stored.version) {
+              newSnapshot = storedSnapshot;
+              s = storedSnapshot;
+            }
           }
         }
+        if (
+            newSnapshot == null
+                && s != null
+                && s.version != -1
+                && deltaRefresh
+                && currentTime >= s.loaded
+        ) {
+          newSnapshot = refreshDelta(s, currentTime, invalidation);
+        }
+        if (newSnapshot == null) {
+          if (deltaRefresh || store != null) {
+            // The version is returned in the same response as the rows
+            VersionedRows<V> versionedRows = getVersionedRows();
+            newSnapshot = new TableSnapshot<>(versionedRows.rows, currentTime, versionedRows.version, invalidation);
+          } else {
+            newSnapshot = new TableSnapshot<>(
+                Collections.unmodifiableList(getObjects(true, AoservProtocol.CommandId.GET_TABLE, getTableId())),
+                currentTime,
+                -1,
+                invalidation
+            );
+          }
+        }
+        if (
+            store != null
+                && newSnapshot.version != -1
+                && (s == null || newSnapshot.version != s.version)
+        ) {
+          store.write(this, newSnapshot.version, newSnapshot.rows);
+        }
+        if (isEagerIndexingEnabled()) {
+          newSnapshot.buildDeclaredHashes(this);
+        }
+        snapshot = newSnapshot;
+        if (!subscribed) {
+          connector.revalidateOnCacheSubscribed(this, subscription);
+        }
+        return newSnapshot;
       }
-      if (columnsHashed != null) {
-        columnsHashed.clear();
-      }
-      if (indexHashes != null) {
-        int len = indexHashes.size();
-        for (int c = 0; c < len; c++) {
-          Map<Object, List<V>> map = indexHashes.get(c);
-          if (map != null) {
-            map.clear();
+    } finally {
+      connector.endCacheLoad(this);
+    }
+  }
+
+  /**
+   * Brings the table up-to-date by requesting only the rows changed since the given snapshot, then
+   * creating a new snapshot with the changed rows merged.  The unique and index hashes are kept only
+   * when nothing has changed.  All accesses are synchronized on {@link #loadLock}.
+   *
+   * @return  the new snapshot or {@code null} when a full reload is required
+   */
+  private TableSnapshot<V> refreshDelta(TableSnapshot<V> old, long currentTime, long invalidation) throws IOException, SQLException {
+    final long fromVersion = old.version;
+    final int maxRows = Math.max(MIN_DELTA_ROWS, old.rows.size() >> 2);
+    // Deleted rows are mapped to null, later changes to the same row replace earlier
+    final Map<K, V> changes = new LinkedHashMap<>();
+    Long newVersion = connector.requestResult(
+        true,
+        AoservProtocol.CommandId.GET_TABLE_DELTA,
+        new AoservConnector.ResultRequest<>() {
+          private Long result;
+
+          @Override
+          public void writeRequest(StreamableOutput out) throws IOException {
+            out.writeCompressedInt(getTableId().ordinal());
+            out.writeLong(fromVersion);
+            out.writeCompressedInt(maxRows);
+          }
+
+          @Override
+          public void readResponse(StreamableInput in) throws IOException, SQLException {
+            // Remove anything that was added during a previous attempt
+            changes.clear();
+            int code = in.readByte();
+            if (code == AoservProtocol.NEXT) {
+              long version = in.readLong();
+              while ((code = in.readByte()) == AoservProtocol.NEXT) {
+                boolean isDelete = in.readBoolean();
+                V obj = getNewObject();
+                obj.read(in, AoservProtocol.Version.CURRENT_VERSION);
+                obj.setTable(CachedTable.this);
+                changes.put(obj.getKey(), isDelete ? null : obj);
+              }
+              AoservProtocol.checkResult(code, in);
+              result = version;
+            } else if (code == AoservProtocol.DONE) {
+              // Changes no longer available or too many changes
+              result = null;
+            } else {
+              AoservProtocol.checkResult(code, in);
+              throw new IOException("Unexpected response code: " + code);
+            }
+          }
+
+          @Override
+          public Long afterRelease() {
+            return result;
           }
         }
+    );
+    if (newVersion == null) {
+      return null;
+    }
+    if (changes.isEmpty()) {
+      TableSnapshot<V> newSnapshot = new TableSnapshot<>(old.rows, currentTime, newVersion, invalidation);
+      // Nothing changed, all hashes remain valid
+      newSnapshot.copyHashes(old);
+      return newSnapshot;
+    }
+    // Merge by primary key, keeping unchanged rows in place
+    List<V> oldData = old.rows;
+    List<V> newData = new ArrayList<>(oldData.size() + changes.size());
+    for (V row : oldData) {
+      if (!changes.containsKey(row.getKey())) {
+        newData.add(row);
       }
-      if (indexesHashed != null) {
-        indexesHashed.clear();
+    }
+    for (V row : changes.values()) {
+      if (row != null) {
+        newData.add(row);
       }
     }
+    sortIfNeeded(newData);
+    // The hashes are built again, since patching a copy of each costs as much as building it
+    return new TableSnapshot<>(Collections.unmodifiableList(newData), currentTime, newVersion, invalidation);
   }
 }
@@ -0,0 +1,115 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * Streams a dump into a {@link FileChannel}, notifying a {@link ProgressListener} of the bytes written.
+ * This is used for servers that do not support {@link ResumableDump}, so the transfer is neither resumed after
+ * a dropped connection nor verified by checksum.
+ *
+ * <p>Progress is reported as the bytes are written when the server provides the dump size.  Otherwise, such as
+ * for gzipped dumps, progress is only reported once {@linkplain #complete() complete}.</p>
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class ChannelStreamHandler implements StreamHandler {
+
+  private final AoservTable<?, ?> table;
+  private final OutputStream out;
+  private final ProgressListener progressListener;
+  private final int progressScale;
+
+  private long dumpSize = -1;
+  private long written;
+  private int lastProgress = -1;
+
+  /**
+   * @param  table             the table of the database being dumped, provided to the progress listener
+   * @param  channel           the dump is written starting at the current position of this channel.
+   *                           The channel is neither forced nor closed.
+   * @param  progressListener  the optional listener notified of the bytes written
+   */
+  public ChannelStreamHandler(AoservTable<?, ?> table, FileChannel channel, ProgressListener progressListener) {
+    this.table = table;
+    this.progressListener = progressListener;
+    this.progressScale = progressListener == null ? 0 : progressListener.getScale();
+    OutputStream channelOut = Channels.newOutputStream(channel);
+    this.out = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        channelOut.write(b);
+        written++;
+        updateProgress();
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        channelOut.write(b, off, len);
+        written += len;
+        updateProgress();
+      }
+    };
+  }
+
+  @Override
+  public void onDumpSize(long dumpSize) {
+    this.dumpSize = dumpSize;
+    updateProgress();
+  }
+
+  @Override
+  public OutputStream getOut() {
+    return out;
+  }
+
+  private void updateProgress() {
+    if (progressListener != null && dumpSize != -1) {
+      int progress = dumpSize == 0 ? progressScale : (int) (Math.min(written, dumpSize) * progressScale / dumpSize);
+      if (progress != lastProgress) {
+        progressListener.onProgressChanged(table, lastProgress = progress, progressScale);
+      }
+    }
+  }
+
+  /**
+   * Reports the transfer complete once the dump has been successfully written.
+   */
+  public void complete() {
+    if (progressListener != null && lastProgress != progressScale) {
+      progressListener.onProgressChanged(table, lastProgress = progressScale, progressScale);
+    }
+  }
+
+  /**
+   * Gets the number of bytes written.
+   */
+  public long getWritten() {
+    return written;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Creates the background threads used by the client.
+ *
+ * <p>By default, each table with batched listeners has its own {@code TableEventThread}, and all other
+ * background work uses platform threads.  When the system property
+ * <code>{@value #LIGHTWEIGHT_THREADS_PROPERTY}</code> is <code>"true"</code>, batched table events
+ * are instead scheduled on a single shared scheduler thread, and virtual threads are used for listener
+ * dispatch, the cache monitor, and multiplexed connection readers when supported by the Java runtime
+ * (Java 21+).</p>
+ *
+ * @author  AO Industries, Inc.
+ */
+final class ClientThreads {
+
+  /** Make no instances. */
+  private ClientThreads() {
+    throw new AssertionError();
+  }
+
+  /**
+   * The system property that enables lightweight threads.
+   */
+  static final String LIGHTWEIGHT_THREADS_PROPERTY = "com.aoindustries.aoserv.client.lightweightThreads";
+
+  private static final Logger logger = Logger.getLogger(ClientThreads.class.getName());
+
+  /**
+   * Is the lightweight mode enabled.
+   */
+  static final boolean LIGHTWEIGHT = Boolean.getBoolean(LIGHTWEIGHT_THREADS_PROPERTY);
+
+  /**
+   * The factory for virtual threads or {@code null} when not enabled or not supported.
+   */
+  private static final ThreadFactory virtualThreadFactory;
+
+  /**
+   * The executor for virtual threads or {@code null} when not enabled or not supported.
+   */
+  private static final ExecutorService virtualThreadExecutor;
+
+  static {
+    ThreadFactory factory = null;
+    ExecutorService executor = null;
+    if (LIGHTWEIGHT) {
+      try {
+        // Reflection since compiled for older Java versions
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        logger.log(Level.INFO, "Virtual threads not supported, using platform threads", e);
+        factory = null;
+        executor = null;
+      }
+    }
+    virtualThreadFactory = factory;
+    virtualThreadExecutor = executor;
+  }
+
+  /**
+   * The number of threads currently running as virtual threads.
+   */
+  private static final AtomicInteger virtualThreads = new AtomicInteger();
+
+  /**
+   * Determines if virtual threads are in use.
+   */
+  static boolean isVirtual() {
+    return virtualThreadFactory != null;
+  }
+
+  /**
+   * Creates the executor for short-lived tasks, such as listener dispatch.
+   */
+  static ExecutorService newExecutorService() {
+    if (virtualThreadExecutor != null) {
+      return virtualThreadExecutor;
+    }
+    return Executors.newCachedThreadPool();
+  }
+
+  /**
+   * Creates a new, unstarted, daemon thread.  This is a virtual thread when enabled and supported.
+   */
+  static Thread newThread(String name, Runnable task) {
+    Thread thread;
+    if (virtualThreadFactory != null) {
+      thread = virtualThreadFactory.newThread(() -> {
+        virtualThreads.incrementAndGet();
+        try {
+          task.run();
+        } finally {
+          virtualThreads.decrementAndGet();
+        }
+      });
+      thread.setName(name);
+    } else {
+      thread = new Thread(task, name);
+      thread.setDaemon(true);
+    }
+    return thread;
+  }
+
+  private static class SchedulerHolder {
+    private static final ScheduledThreadPoolExecutor scheduler;
+
+    static {
+      scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+        Thread thread;
+        if (virtualThreadFactory != null) {
+          thread = virtualThreadFactory.newThread(task);
+        } else {
+          thread = new Thread(task);
+          thread.setDaemon(true);
+        }
+        thread.setName("AoservConnector - Scheduler");
+        return thread;
+      });
+      scheduler.setRemoveOnCancelPolicy(true);
+    }
+  }
+
+  /**
+   * Gets the single, shared scheduler for timed tasks, such as batched table events in lightweight mode.
+   * Its thread is a virtual thread when enabled and supported.  Tasks must be short, starting any longer
+   * work on an {@linkplain #newExecutorService() executor}.
+   */
+  static ScheduledExecutorService getScheduler() {
+    return SchedulerHolder.scheduler;
+  }
+
+  /**
+   * Gets the number of threads created by {@link #newThread(java.lang.String, java.lang.Runnable)} that are currently
+   * running as virtual threads instead of platform threads.
+   */
+  static int getVirtualThreadCount() {
+    return virtualThreads.get();
+  }
+
+  private static class StackSizeHolder {
+    private static final long threadStackSize;
+
+    static {
+      long size = -1;
+      try {
+        // Through the platform MBean server since com.sun.management is not part of Java SE
+        CompositeData option = (CompositeData) ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=HotSpotDiagnostic"),
+            "getVMOption",
+            new Object[]{"ThreadStackSize"},
+            new String[]{String.class.getName()}
+        );
+        // HotSpot reports ThreadStackSize in kibibytes, including any set by -Xss
+        long kib = Long.parseLong((String) option.get("value"));
+        if (kib > 0) {
+          size = kib * 1024;
+        }
+      } catch (Exception e) {
+        logger.log(Level.FINE, "Unable to measure thread stack size", e);
+      }
+      threadStackSize = size;
+    }
+  }
+
+  /**
+   * Gets the stack size reserved for each platform thread, as configured in the running JVM
+   * (<code>-Xss</code> or <code>-XX:ThreadStackSize</code>, otherwise the platform default).
+   *
+   * @return  the size in bytes or {@code -1} when it cannot be measured, such as on non-HotSpot JVMs
+   */
+  static long getThreadStackSize() {
+    return StackSizeHolder.threadStackSize;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A condition on the value of one column, sent with a request so that only the matching rows
+ * are returned by the server.  Values are written in the same format as other request parameters,
+ * and are interpreted by the server according to the type of the column.
+ *
+ * @see  AoservTable#getFilteredRows(com.aoindustries.aoserv.client.ColumnFilter...)
+ * @see  AoservProtocol.CommandId#GET_TABLE_FILTERED
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class ColumnFilter implements AoservWritable {
+
+  /**
+   * The comparison performed.
+   */
+  public enum Operator {
+    /**
+     * Matches when the column equals the value, or is {@code null} when the value is {@code null}.
+     */
+    EQUAL,
+
+    /**
+     * Matches when the column is not {@code null}, is greater than or equal to the minimum,
+     * and is less than the maximum.  A {@code null} bound is unbounded.
+     */
+    RANGE
+  }
+
+  /**
+   * Matches rows where the column equals the given value.
+   *
+   * @param  value  when {@code null}, matches rows where the column is {@code null}
+   */
+  public static ColumnFilter equalTo(int column, Object value) {
+    return new ColumnFilter(column, Operator.EQUAL, value, null);
+  }
+
+  /**
+   * Matches rows where the column is within the given range.
+   * The column must be of a {@link Comparable} type.
+   *
+   * @param  min  the inclusive minimum or {@code null} for no minimum
+   * @param  max  the exclusive maximum or {@code null} for no maximum
+   */
+  public static ColumnFilter range(int column, Object min, Object max) {
+    return new ColumnFilter(column, Operator.RANGE, min, max);
+  }
+
+  private final int column;
+  private final Operator operator;
+  private final Object value;
+  private final Object max;
+
+  private ColumnFilter(int column, Operator operator, Object value, Object max) {
+    if (column < 0) {
+      throw new IllegalArgumentException("column < 0: " + column);
+    }
+    this.column = column;
+    this.operator = operator;
+    this.value = value;
+    this.max = max;
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  public Operator getOperator() {
+    return operator;
+  }
+
+  /**
+   * Gets the value for {@link Operator#EQUAL} or the minimum for {@link Operator#RANGE}.
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * Gets the maximum for {@link Operator#RANGE}.
+   */
+  public Object getMax() {
+    return max;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object columnValue, Object bound) {
+    return ((Comparable<Object>) columnValue).compareTo(bound);
+  }
+
+  /**
+   * Determines if the given row matches this filter.  This is used to filter rows
+   * already available locally.
+   */
+  public boolean matches(AoservObject<?, ?> row) {
+    Object columnValue = row.getColumn(column);
+    switch (operator) {
+      case EQUAL:
+        return Objects.equals(columnValue, value);
+      case RANGE:
+        return
+            columnValue != null
+                && (value == null || compare(columnValue, value) >= 0)
+                && (max == null || compare(columnValue, max) < 0);
+      default:
+        throw new AssertionError("Unexpected operator: " + operator);
+    }
+  }
+
+  @Override
+  public void write(StreamableOutput out, AoservProtocol.Version protocolVersion) throws IOException {
+    out.writeCompressedInt(column);
+    out.writeEnum(operator);
+    AoservConnector.writeNullableParam(value, out);
+    if (operator == Operator.RANGE) {
+      AoservConnector.writeNullableParam(max, out);
+    }
+  }
+
+  @Override
+  public String toString() {
+    switch (operator) {
+      case EQUAL:
+        return "column " + column + " = " + value;
+      case RANGE:
+        return "column " + column + " in [" + value + ", " + max + ')';
+      default:
+        throw new AssertionError("Unexpected operator: " + operator);
+    }
+  }
+}
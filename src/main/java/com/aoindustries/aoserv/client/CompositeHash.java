@@ -0,0 +1,186 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.collections.AoCollections;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An open-addressing index hash from the values of several columns to the unmodifiable list of
+ * rows having those values, used for the composite indexes of cached tables.
+ * The key values of each entry are stored inline in a single array, so lookups neither create a
+ * tuple nor allocate, and no entry object is created per row.  Keys may contain {@code null} values.
+ *
+ * <p>This is populated once, when built, then only read, so it must be safely published.</p>
+ *
+ * @see  TableSnapshot
+ * @see  CachedTable.CompositeIndex
+ *
+ * @author  AO Industries, Inc.
+ */
+final class CompositeHash<V extends AoservObject<?, ?>> {
+
+  /**
+   * The maximum capacity, a power of two.
+   */
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final int width;
+
+  /**
+   * The hash code of the key in each slot.
+   */
+  private final int[] hashes;
+
+  /**
+   * The key values of each slot, {@link #width} values per slot.
+   */
+  private final Object[] keys;
+
+  /**
+   * The rows for each slot, {@code null} for an empty slot.
+   */
+  private final List<?>[] values;
+
+  private final int mask;
+
+  /**
+   * Builds the index of the given rows by the given columns, maintaining the order of the rows.
+   */
+  CompositeHash(List<V> rows, int[] columns) {
+    width = columns.length;
+    int size = rows.size();
+    int capacity = 2;
+    while (capacity < MAX_CAPACITY && capacity < (size << 1)) {
+      capacity <<= 1;
+    }
+    if (size >= capacity) {
+      throw new IllegalArgumentException("Too many rows: " + size);
+    }
+    hashes = new int[capacity];
+    keys = new Object[capacity * width];
+    values = new List<?>[capacity];
+    mask = capacity - 1;
+    Object[] rowKey = new Object[width];
+    for (V row : rows) {
+      int hash = 1;
+      for (int c = 0; c < width; c++) {
+        Object cvalue = row.getColumn(columns[c]);
+        rowKey[c] = cvalue;
+        hash = 31 * hash + Objects.hashCode(cvalue);
+      }
+      int i = slot(hash);
+      List<?> list;
+      while ((list = values[i]) != null && !(hashes[i] == hash && matches(i, rowKey))) {
+        i = (i + 1) & mask;
+      }
+      if (list == null) {
+        hashes[i] = hash;
+        System.arraycopy(rowKey, 0, keys, i * width, width);
+        values[i] = list = new ArrayList<V>();
+      }
+      @SuppressWarnings("unchecked")
+      List<V> rowList = (List<V>) list;
+      rowList.add(row);
+    }
+    // Wrap each of the lists to be unmodifiable
+    for (int i = 0; i < capacity; i++) {
+      List<?> list = values[i];
+      if (list != null) {
+        values[i] = AoCollections.optimalUnmodifiableList(list);
+      }
+    }
+  }
+
+  private int slot(int hash) {
+    int h = hash * 0x9e3779b9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private boolean matches(int i, Object[] key) {
+    int offset = i * width;
+    for (int c = 0; c < width; c++) {
+      if (!Objects.equals(keys[offset + c], key[c])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<V> emptyIfNull(List<?> list) {
+    return list == null ? Collections.emptyList() : (List<V>) list;
+  }
+
+  /**
+   * Gets the unmodifiable list of rows for a two-column key.
+   */
+  List<V> get(Object value1, Object value2) {
+    if (width != 2) {
+      throw new IllegalArgumentException("Index has " + width + " columns, got 2 values");
+    }
+    int hash = 31 * (31 + Objects.hashCode(value1)) + Objects.hashCode(value2);
+    int i = slot(hash);
+    List<?> list;
+    while ((list = values[i]) != null) {
+      if (hashes[i] == hash) {
+        int offset = i << 1;
+        if (Objects.equals(keys[offset], value1) && Objects.equals(keys[offset + 1], value2)) {
+          break;
+        }
+      }
+      i = (i + 1) & mask;
+    }
+    return emptyIfNull(list);
+  }
+
+  /**
+   * Gets the unmodifiable list of rows for a three-column key.
+   */
+  List<V> get(Object value1, Object value2, Object value3) {
+    if (width != 3) {
+      throw new IllegalArgumentException("Index has " + width + " columns, got 3 values");
+    }
+    int hash = 31 * (31 * (31 + Objects.hashCode(value1)) + Objects.hashCode(value2)) + Objects.hashCode(value3);
+    int i = slot(hash);
+    List<?> list;
+    while ((list = values[i]) != null) {
+      if (hashes[i] == hash) {
+        int offset = i * 3;
+        if (
+            Objects.equals(keys[offset], value1)
+                && Objects.equals(keys[offset + 1], value2)
+                && Objects.equals(keys[offset + 2], value3)
+        ) {
+          break;
+        }
+      }
+      i = (i + 1) & mask;
+    }
+    return emptyIfNull(list);
+  }
+}
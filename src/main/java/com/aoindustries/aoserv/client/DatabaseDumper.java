@@ -0,0 +1,479 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.lang.Throwables;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Dumps many databases concurrently, each into its own file or {@link Sink}, limiting both the total number of
+ * concurrent dumps and the number of concurrent dumps per server.
+ *
+ * <p>Each dump holds a dedicated connection for its whole transfer, taken from the connection pool
+ * even when the connector is multiplexed.  The number of concurrent dumps on each connector is
+ * therefore also limited to leave a pooled connection free for other requests.  Dumps are started in
+ * the order added, skipping over databases whose server or connector is already at its limit, and are
+ * {@linkplain ResumableDump resumable} after a dropped connection.  A failed dump does not stop the
+ * others; its partially written file is deleted (or its sink {@linkplain Sink#discard() discarded}) and its error
+ * is returned in the {@link Result}.</p>
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class DatabaseDumper {
+
+  /**
+   * Where the dump of one database is written.
+   */
+  @FunctionalInterface
+  public static interface Sink {
+
+    /**
+     * Opens the channel to dump into.  This is called once, when the dump is started.
+     * The dump is written starting at the current position of the channel, which is closed once the dump has
+     * completed or failed.
+     */
+    FileChannel open() throws IOException;
+
+    /**
+     * Discards the partially written dump after a failure, so it cannot be mistaken for a complete dump.
+     * Does nothing by default.
+     */
+    default void discard() throws IOException {
+      // Do nothing
+    }
+  }
+
+  /**
+   * Writes into a file, replacing any existing file, and deletes the file on failure.
+   */
+  private static final class FileSink implements Sink {
+
+    private final Path file;
+
+    private FileSink(Path file) {
+      this.file = file;
+    }
+
+    @Override
+    public FileChannel open() throws IOException {
+      return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public void discard() throws IOException {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  /**
+   * Dumps one database into the given channel.
+   */
+  @FunctionalInterface
+  private static interface DumpAction {
+    void dump(FileChannel channel) throws IOException, SQLException;
+  }
+
+  private static final class Job {
+
+    private final AoservObject<?, ?> database;
+    private final AoservConnector connector;
+    private final int linuxServer;
+    private final Path file;
+    private final Sink sink;
+    private final DumpAction action;
+
+    private Job(AoservObject<?, ?> database, AoservConnector connector, int linuxServer, Path file, Sink sink, DumpAction action) {
+      this.database = database;
+      this.connector = connector;
+      this.linuxServer = linuxServer;
+      this.file = file;
+      this.sink = sink;
+      this.action = action;
+    }
+  }
+
+  /**
+   * The outcome of dumping one database.
+   */
+  public static final class Outcome {
+
+    private final AoservObject<?, ?> database;
+    private final Path file;
+    private final long bytes;
+    private final long nanos;
+    private final Throwable error;
+
+    private Outcome(AoservObject<?, ?> database, Path file, long bytes, long nanos, Throwable error) {
+      this.database = database;
+      this.file = file;
+      this.bytes = bytes;
+      this.nanos = nanos;
+      this.error = error;
+    }
+
+    /**
+     * Gets the {@link com.aoindustries.aoserv.client.mysql.Database}
+     * or {@link com.aoindustries.aoserv.client.postgresql.Database}.
+     */
+    public AoservObject<?, ?> getDatabase() {
+      return database;
+    }
+
+    /**
+     * Gets the file dumped into, which has been deleted on failure.
+     *
+     * @return  the file or {@code null} when dumped into a {@link Sink}
+     */
+    public Path getFile() {
+      return file;
+    }
+
+    /**
+     * Gets the number of bytes written, which is zero on failure.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Gets the time spent dumping, in nanoseconds.
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    /**
+     * Gets the error that caused the dump to fail.
+     *
+     * @return  the error or {@code null} when successful
+     */
+    public Throwable getError() {
+      return error;
+    }
+  }
+
+  /**
+   * The aggregated outcome of all dumps.
+   */
+  public static final class Result {
+
+    private final List<Outcome> outcomes;
+    private final long elapsedNanos;
+    private final long bytes;
+    private final int failureCount;
+
+    private Result(List<Outcome> outcomes, long elapsedNanos) {
+      this.outcomes = outcomes;
+      this.elapsedNanos = elapsedNanos;
+      long totalBytes = 0;
+      int failures = 0;
+      for (Outcome outcome : outcomes) {
+        totalBytes += outcome.bytes;
+        if (outcome.error != null) {
+          failures++;
+        }
+      }
+      this.bytes = totalBytes;
+      this.failureCount = failures;
+    }
+
+    /**
+     * Gets the unmodifiable outcome of each dump, in the order added.
+     */
+    @SuppressWarnings("ReturnOfCollectionOrArrayField") // Returning unmodifiable
+    public List<Outcome> getOutcomes() {
+      return outcomes;
+    }
+
+    /**
+     * Gets the outcomes that failed, in the order added.
+     */
+    public List<Outcome> getFailures() {
+      List<Outcome> failures = new ArrayList<>(failureCount);
+      for (Outcome outcome : outcomes) {
+        if (outcome.error != null) {
+          failures.add(outcome);
+        }
+      }
+      return failures;
+    }
+
+    public int getSuccessCount() {
+      return outcomes.size() - failureCount;
+    }
+
+    public int getFailureCount() {
+      return failureCount;
+    }
+
+    /**
+     * Gets the total number of bytes written by all dumps.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Gets the time from starting the first dump until the last dump completed, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /**
+     * Gets the aggregate throughput of all dumps.
+     */
+    public double getBytesPerSecond() {
+      return elapsedNanos == 0 ? 0 : bytes * 1000000000.0 / elapsedNanos;
+    }
+  }
+
+  private static class Lock {
+    // Empty lock class to help heap profile
+  }
+
+  private final int maxConcurrent;
+  private final int maxPerServer;
+  private final boolean gzip;
+  private final List<Job> jobs = new ArrayList<>();
+
+  /**
+   * @param  maxConcurrent  the maximum number of concurrent dumps, further limited on each connector to leave a
+   *                        pooled connection free for other requests
+   * @param  maxPerServer   the maximum number of concurrent dumps from any one server
+   */
+  public DatabaseDumper(int maxConcurrent, int maxPerServer, boolean gzip) {
+    if (maxConcurrent <= 0) {
+      throw new IllegalArgumentException("maxConcurrent <= 0: " + maxConcurrent);
+    }
+    if (maxPerServer <= 0) {
+      throw new IllegalArgumentException("maxPerServer <= 0: " + maxPerServer);
+    }
+    this.maxConcurrent = maxConcurrent;
+    this.maxPerServer = maxPerServer;
+    this.gzip = gzip;
+  }
+
+  /**
+   * Adds a MySQL database to be dumped into the given file, replacing any existing file.
+   */
+  public DatabaseDumper add(com.aoindustries.aoserv.client.mysql.Database database, Path file) throws IOException, SQLException {
+    return add(database, file, new FileSink(file));
+  }
+
+  /**
+   * Adds a MySQL database to be dumped into the given sink.
+   */
+  public DatabaseDumper add(com.aoindustries.aoserv.client.mysql.Database database, Sink sink) throws IOException, SQLException {
+    return add(database, null, sink);
+  }
+
+  private DatabaseDumper add(com.aoindustries.aoserv.client.mysql.Database database, Path file, Sink sink) throws IOException, SQLException {
+    jobs.add(new Job(
+        database,
+        database.getTable().getConnector(),
+        database.getMysqlServer().getLinuxServer().getPkey(),
+        file,
+        sink,
+        channel -> database.dump(gzip, channel, null)
+    ));
+    return this;
+  }
+
+  /**
+   * Adds a PostgreSQL database to be dumped into the given file, replacing any existing file.
+   */
+  public DatabaseDumper add(com.aoindustries.aoserv.client.postgresql.Database database, Path file) throws IOException, SQLException {
+    return add(database, file, new FileSink(file));
+  }
+
+  /**
+   * Adds a PostgreSQL database to be dumped into the given sink.
+   */
+  public DatabaseDumper add(com.aoindustries.aoserv.client.postgresql.Database database, Sink sink) throws IOException, SQLException {
+    return add(database, null, sink);
+  }
+
+  private DatabaseDumper add(com.aoindustries.aoserv.client.postgresql.Database database, Path file, Sink sink) throws IOException, SQLException {
+    jobs.add(new Job(
+        database,
+        database.getTable().getConnector(),
+        database.getPostgresServer().getLinuxServer().getPkey(),
+        file,
+        sink,
+        channel -> database.dump(gzip, channel, null)
+    ));
+    return this;
+  }
+
+  /**
+   * Dumps all added databases, waiting until every dump has completed or failed.
+   *
+   * @throws  InterruptedIOException  when interrupted, after which any dumps in progress are cancelled
+   */
+  public Result dump() throws IOException {
+    final Lock lock = new Lock();
+    // Pending jobs by index, in the order added
+    final Map<Integer, Job> pending = new LinkedHashMap<>();
+    for (int i = 0; i < jobs.size(); i++) {
+      pending.put(i, jobs.get(i));
+    }
+    final Map<Integer, Integer> runningByServer = new HashMap<>();
+    final Map<AoservConnector, Integer> runningByConnector = new IdentityHashMap<>();
+    final Map<AoservConnector, Integer> maxByConnector = new IdentityHashMap<>();
+    long connectorsMax = 0;
+    for (Job job : jobs) {
+      if (!maxByConnector.containsKey(job.connector)) {
+        int max = job.connector.getMaxBulkConnections();
+        maxByConnector.put(job.connector, max);
+        connectorsMax += max;
+      }
+    }
+    final Outcome[] outcomes = new Outcome[jobs.size()];
+    long startNanos = System.nanoTime();
+    int workers = (int) Math.min(Math.min(maxConcurrent, jobs.size()), connectorsMax);
+    List<Future<Void>> futures = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      futures.add(AoservConnector.executorService.submit(() -> {
+        while (true) {
+          // Find the next job whose server is not at its limit
+          int index = -1;
+          Job job = null;
+          synchronized (lock) {
+            while (job == null) {
+              if (pending.isEmpty()) {
+                return null;
+              }
+              Iterator<Map.Entry<Integer, Job>> iter = pending.entrySet().iterator();
+              while (iter.hasNext()) {
+                Map.Entry<Integer, Job> entry = iter.next();
+                Job candidate = entry.getValue();
+                int running = runningByServer.getOrDefault(candidate.linuxServer, 0);
+                int connectorRunning = runningByConnector.getOrDefault(candidate.connector, 0);
+                if (running < maxPerServer && connectorRunning < maxByConnector.get(candidate.connector)) {
+                  iter.remove();
+                  runningByServer.put(candidate.linuxServer, running + 1);
+                  runningByConnector.put(candidate.connector, connectorRunning + 1);
+                  index = entry.getKey();
+                  job = candidate;
+                  break;
+                }
+              }
+              if (job == null) {
+                lock.wait();
+              }
+            }
+          }
+          try {
+            outcomes[index] = dump(job);
+          } finally {
+            synchronized (lock) {
+              runningByServer.merge(job.linuxServer, -1, Integer::sum);
+              runningByConnector.merge(job.connector, -1, Integer::sum);
+              lock.notifyAll();
+            }
+          }
+        }
+      }));
+    }
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof InterruptedException) {
+        InterruptedIOException ioErr = new InterruptedIOException();
+        ioErr.initCause(cause);
+        throw ioErr;
+      }
+      throw Throwables.wrap(cause, IOException.class, IOException::new);
+    } catch (InterruptedException e) {
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+      // Restore the interrupted status
+      Thread.currentThread().interrupt();
+      InterruptedIOException ioErr = new InterruptedIOException();
+      ioErr.initCause(e);
+      throw ioErr;
+    }
+    List<Outcome> list = new ArrayList<>(outcomes.length);
+    Collections.addAll(list, outcomes);
+    return new Result(Collections.unmodifiableList(list), System.nanoTime() - startNanos);
+  }
+
+  private static Outcome dump(Job job) throws InterruptedIOException {
+    long startNanos = System.nanoTime();
+    try {
+      long bytes;
+      try (FileChannel channel = job.sink.open()) {
+        long startPosition = channel.position();
+        job.action.dump(channel);
+        bytes = channel.position() - startPosition;
+      }
+      return new Outcome(job.database, job.file, bytes, System.nanoTime() - startNanos, null);
+    } catch (InterruptedIOException e) {
+      discardPartial(job.sink, e);
+      throw e;
+    } catch (IOException | SQLException | RuntimeException e) {
+      discardPartial(job.sink, e);
+      return new Outcome(job.database, job.file, 0, System.nanoTime() - startNanos, e);
+    }
+  }
+
+  /**
+   * Discards the partially written dump of a failed dump so it cannot be mistaken for a complete dump.
+   * A failure to discard is added as suppressed to the error of the dump.
+   */
+  private static void discardPartial(Sink sink, Throwable error) {
+    try {
+      sink.discard();
+    } catch (IOException | RuntimeException e) {
+      error.addSuppressed(e);
+    }
+  }
+}
@@ -27,6 +27,7 @@ import com.aoapps.hodgepodge.io.FileList;
 import com.aoapps.hodgepodge.io.FileListObjectFactory;
 import com.aoapps.hodgepodge.sort.ComparisonSortAlgorithm;
 import com.aoapps.hodgepodge.sort.FastQSort;
+import com.aoapps.lang.io.function.IOConsumerE;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
 import com.aoindustries.aoserv.client.schema.Column;
 import com.aoindustries.aoserv.client.schema.Table;
@@ -128,7 +129,13 @@ public abstract class FilesystemCachedTable<K, V extends FilesystemCachedObject<
           getRecordLength(),
           this
       );
-      getObjects(true, newTableList, AoservProtocol.CommandId.GET_TABLE, getTableId());
+      long subscription = connector.beginCacheLoad(this);
+      try {
+        connector.awaitCacheSubscription(this, subscription);
+        getObjects(true, newTableList, AoservProtocol.CommandId.GET_TABLE, getTableId());
+      } finally {
+        connector.endCacheLoad(this);
+      }
       tableList = newTableList;
       unmodifiableTableList = Collections.unmodifiableList(tableList);
       lastLoaded = currentTime;
@@ -157,6 +164,16 @@ public abstract class FilesystemCachedTable<K, V extends FilesystemCachedObject<
     }
   }
 
+  /**
+   * Performs the action on the rows cached on the filesystem, in order.
+   */
+  @Override
+  public void forEachRow(IOConsumerE<? super V, SQLException> action) throws IOException, SQLException {
+    for (V row : getRows()) {
+      action.accept(row);
+    }
+  }
+
   @Override
   public List<V> getRowsCopy() throws IOException, SQLException {
     synchronized (this) {
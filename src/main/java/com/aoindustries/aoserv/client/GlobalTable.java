@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -23,25 +23,29 @@
 
 package com.aoindustries.aoserv.client;
 
-import com.aoapps.collections.AoCollections;
+import com.aoapps.lang.io.function.IOConsumerE;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
 import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A <code>GlobalTable</code> is shared between all users.
  * The data is cached so that subsequent lookups need not
  * access the server.
  *
+ * <p>The rows are held in an immutable {@link TableSnapshot}, so lookups on a loaded table
+ * never block.  Only a thread that finds the table not loaded will wait, and concurrent
+ * threads waiting on the same load share its result.</p>
+ *
+ * <p>When the connector has an {@linkplain AoservConnector#setSnapshotDirectory(java.nio.file.Path) on-disk store},
+ * the first load uses the stored rows when the server reports the table version is unchanged.</p>
+ *
  * @author  AO Industries, Inc.
  */
 public abstract class GlobalTable<K, V extends GlobalObject<K, V>> extends AoservTable<K, V> {
@@ -50,6 +54,7 @@ public abstract class GlobalTable<K, V extends GlobalObject<K, V>> extends Aoser
 
   /**
    * Each table has its own lock because we were getting deadlocks with one lock on GlobalTable.class.
+   * Only held while loading, so that concurrent misses share one load.
    */
   private static class Lock {
     // Empty lock class to help heap profile
@@ -64,59 +69,21 @@ public abstract class GlobalTable<K, V extends GlobalObject<K, V>> extends Aoser
   }
 
   /**
-   * The last time that the data was loaded, or
-   * <code>-1</code> if not yet loaded.
-   */
-  private static final long[] lastLoadeds = new long[numTables];
-
-  static {
-    Arrays.fill(lastLoadeds, -1);
-  }
-
-  /**
-   * The internal objects are stored in a <code>HashMap</code>
-   * based on the server and then the table ID, and then the
-   * column number.
+   * The number of times each table has been invalidated.  A snapshot is current only
+   * while this matches the count captured when its load started.
    */
-  @SuppressWarnings("rawtypes")
-  private static final List<List<Map<Object, GlobalObject>>> tableHashes = new ArrayList<>(numTables);
-
-  static {
-    for (int c = 0; c < numTables; c++) {
-      tableHashes.add(null);
-    }
-  }
-
-  private static final BitSet[] hashLoadeds = new BitSet[numTables];
+  private static final AtomicLongArray invalidations = new AtomicLongArray(numTables);
 
   /**
-   * The internal indexes are stored in a <code>HashMap</code>
-   * based on the server and then the table ID, and then the
-   * column number.  Each element of the <code>HashMap</code> is
-   * a <code>ArrayList</code> or <code>AoservObject[]</code>.
-   * All of the {@code List<GlobalObject>} stored here are unmodifiable.
+   * The most recently loaded snapshot of each table, or <code>null</code> if not loaded.
    */
-  private static final List<List<Map<Object, List<GlobalObject<?, ?>>>>> indexHashes = new ArrayList<>(numTables);
-
-  static {
-    for (int c = 0; c < numTables; c++) {
-      indexHashes.add(null);
-    }
-  }
-
-  private static final BitSet[] indexLoadeds = new BitSet[numTables];
+  private static final AtomicReferenceArray<TableSnapshot<?>> snapshots = new AtomicReferenceArray<>(numTables);
 
   /**
-   * The internal objects are stored in this list.  Each of the contained
-   * {@code List<GlobalObject>} is unmodifiable.
+   * Set once the {@linkplain AoservConnector#getSnapshotStore() on-disk store} has been checked
+   * for the first load of each table.  All accesses are synchronized on the table's lock.
    */
-  private static final List<List<GlobalObject<?, ?>>> tableObjs = new ArrayList<>(numTables);
-
-  static {
-    for (int c = 0; c < numTables; c++) {
-      tableObjs.add(null);
-    }
-  }
+  private static final boolean[] storeChecked = new boolean[numTables];
 
   protected GlobalTable(AoservConnector connector, Class<V> clazz) {
     super(connector, clazz);
@@ -126,78 +93,45 @@ public abstract class GlobalTable<K, V extends GlobalObject<K, V>> extends Aoser
    * Gets the number of accessible rows in the table or <code>-1</code> if the
    * table is not yet loaded.
    */
-  @SuppressWarnings("NestedSynchronizedStatement")
   public final int getGlobalRowCount() {
-    int ordinal = getTableId().ordinal();
-    List<GlobalObject<?, ?>> objs;
-    synchronized (locks[ordinal]) {
-      synchronized (tableObjs) {
-        objs = tableObjs.get(ordinal);
-      }
-    }
-    if (objs != null) {
-      return objs.size();
+    TableSnapshot<?> s = snapshots.get(getTableId().ordinal());
+    if (s != null) {
+      return s.rows.size();
     }
     return -1;
   }
 
+  /**
+   * Builds the unique and index hashes of this table as it is loaded, in parallel, so that they are
+   * ready before the rows are used.  Unique columns are hashed and columns that reference
+   * other tables are indexed, as declared in the schema.  When disabled, each hash is built
+   * on first use.
+   *
+   * <p><b>Implementation Note:</b><br>
+   * This default implementation returns {@code false}.  Tables that are frequently searched
+   * immediately after being invalidated should override this to return {@code true}.
+   * This must not be enabled on the schema tables used to find the columns.</p>
+   *
+   * @see  com.aoindustries.aoserv.client.schema.Column#isUnique()
+   * @see  com.aoindustries.aoserv.client.schema.Column#getReferences(com.aoindustries.aoserv.client.AoservConnector)
+   */
+  protected boolean isEagerIndexingEnabled() {
+    return false;
+  }
+
   @Override
   public final List<V> getIndexedRows(int col, Object value) throws IOException, SQLException {
-    Table.TableId tableId = getTableId();
-    int ordinal = tableId.ordinal();
-    synchronized (locks[ordinal]) {
-      validateCache();
-
-      BitSet tableLoadeds = indexLoadeds[ordinal];
-      if (tableLoadeds == null) {
-        indexLoadeds[ordinal] = tableLoadeds = new BitSet(col + 1);
-      }
-      final boolean isHashed = tableLoadeds.get(col);
+    return getSnapshot().getIndexedRows(col, value);
+  }
 
-      List<Map<Object, List<GlobalObject<?, ?>>>> tableValues;
-      synchronized (indexHashes) {
-        tableValues = indexHashes.get(ordinal);
-        if (tableValues == null) {
-          indexHashes.set(ordinal, tableValues = new ArrayList<>(col + 1));
-        }
-      }
-      while (tableValues.size() <= col) {
-        tableValues.add(null);
-      }
-      Map<Object, List<GlobalObject<?, ?>>> colIndexes = tableValues.get(col);
-      if (colIndexes == null) {
-        tableValues.set(col, colIndexes = new HashMap<>());
-      }
+  @Override
+  public final List<V> getIndexedRows(int col, int value) throws IOException, SQLException {
+    return getSnapshot().getIndexedRows(col, value);
+  }
 
-      if (!isHashed) {
-        // Build the modifiable lists in a temporary Map
-        Map<Object, List<GlobalObject<?, ?>>> modifiableIndexes = new HashMap<>();
-        for (GlobalObject<K, V> row : getRows()) {
-          Object cvalue = row.getColumn(col);
-          List<GlobalObject<?, ?>> list = modifiableIndexes.get(cvalue);
-          if (list == null) {
-            modifiableIndexes.put(cvalue, list = new ArrayList<>());
-          }
-          list.add(row);
-        }
-        // Wrap each of the newly-created indexes to be unmodifiable
-        colIndexes.clear();
-        Iterator<Object> keys = modifiableIndexes.keySet().iterator();
-        while (keys.hasNext()) {
-          Object key = keys.next();
-          List<GlobalObject<?, ?>> list = modifiableIndexes.get(key);
-          colIndexes.put(key, Collections.unmodifiableList(list));
-        }
-        tableLoadeds.set(col);
-      }
-      // This returns unmodifiable lists.
-      @SuppressWarnings("unchecked")
-      List<V> list = (List<V>) colIndexes.get(value);
-      if (list == null) {
-        return Collections.emptyList();
-      }
-      return list;
-    }
+  @Override
+  public final List<V> getIndexedRows(int col, long value) throws IOException, SQLException {
+    return getSnapshot().getIndexedRows(col, value);
   }
 
   @Override
@@ -205,151 +139,189 @@ public abstract class GlobalTable<K, V extends GlobalObject<K, V>> extends Aoser
     if (value == null) {
       return null;
     }
-    Table.TableId tableId = getTableId();
-    int ordinal = tableId.ordinal();
-    synchronized (locks[ordinal]) {
-      validateCache();
-
-      BitSet tableLoadeds = hashLoadeds[ordinal];
-      if (tableLoadeds == null) {
-        hashLoadeds[ordinal] = tableLoadeds = new BitSet(col + 1);
-      }
-      final boolean isHashed = tableLoadeds.get(col);
+    return getSnapshot().getUniqueRow(this, col, value);
+  }
 
-      List<V> table = getRows();
-      int size = table.size();
+  @Override
+  protected final V getUniqueRowImpl(int col, int value) throws SQLException, IOException {
+    return getSnapshot().getUniqueRow(this, col, value);
+  }
 
-      final List<Map<Object, V>> tableValues;
-      synchronized (tableHashes) {
-        @SuppressWarnings("unchecked")
-        List<Map<Object, V>> existing = (List) tableHashes.get(ordinal);
-        if (existing != null) {
-          tableValues = existing;
-        } else {
-          tableValues = new ArrayList<>(col + 1);
-          @SuppressWarnings({"unchecked", "rawtypes"})
-          List<Map<Object, GlobalObject>> toCache = (List) tableValues;
-          tableHashes.set(ordinal, toCache);
-        }
-      }
-      while (tableValues.size() <= col) {
-        tableValues.add(null);
-      }
-      Map<Object, V> colValues = tableValues.get(col);
-      // Allow 25% growth before rehash
-      if (colValues == null) {
-        tableValues.set(col, colValues = AoCollections.newHashMap((size * 5) >> 2));
-      }
+  @Override
+  protected final V getUniqueRowImpl(int col, long value) throws SQLException, IOException {
+    return getSnapshot().getUniqueRow(this, col, value);
+  }
 
-      if (!isHashed) {
-        colValues.clear();
-        for (int c = 0; c < size; c++) {
-          V row = table.get(c);
-          Object cvalue = row.getColumn(col);
-          if (cvalue != null) {
-            V old = colValues.put(cvalue, row);
-            if (old != null) {
-              throw new SQLException(
-                  "Duplicate pkey entry for table " + getTableId() + " (" + getTableName() + "), column #"
-                      + col + ": " + cvalue
-              );
-            }
-          }
-        }
+  @Override
+  public List<V> getRows() throws IOException, SQLException {
+    return getSnapshot().rows;
+  }
 
-        tableLoadeds.set(col);
-      }
+  @Override
+  public List<V> getRowsCopy() throws IOException, SQLException {
+    return new ArrayList<>(getRows());
+  }
 
-      return colValues.get(value);
+  /**
+   * Performs the action on the cached rows, in order.
+   */
+  @Override
+  public void forEachRow(IOConsumerE<? super V, SQLException> action) throws IOException, SQLException {
+    for (V row : getRows()) {
+      action.accept(row);
     }
   }
 
+  /**
+   * Finds the page in the cached rows when loaded, otherwise requests only the page from the server.
+   */
   @Override
-  public List<V> getRows() throws IOException, SQLException {
-    Table.TableId tableId = getTableId();
-    int ordinal = tableId.ordinal();
-    // We synchronize here to make sure tableObjs is not cleared between validateCache and get, but only on a per-table ID basis
-    synchronized (locks[ordinal]) {
-      validateCache();
-      synchronized (tableObjs) {
-        @SuppressWarnings("unchecked")
-        List<V> objs = (List) tableObjs.get(ordinal);
-        return objs;
-      }
+  public RowPage<V> getPage(PageRequest request) throws IOException, SQLException {
+    if (isLoaded()) {
+      return getPage(getRows(), request);
     }
+    return super.getPage(request);
   }
 
+  /**
+   * Filters the cached rows locally.
+   */
   @Override
-  public List<V> getRowsCopy() throws IOException, SQLException {
-    return new ArrayList<>(getRows());
+  public final List<V> getFilteredRows(ColumnFilter ... filters) throws IOException, SQLException {
+    return filterRows(getRows(), filters);
   }
 
   /**
    * Determines if the contents are currently hashed in a hashmap.
    */
   boolean isHashed(int column) {
-    int ordinal = getTableId().ordinal();
-    synchronized (locks[ordinal]) {
-      BitSet table = hashLoadeds[ordinal];
-      return table != null && table.get(column);
-    }
+    TableSnapshot<?> s = snapshots.get(getTableId().ordinal());
+    return s != null && s.isHashed(column);
   }
 
   /**
    * Determines if the contents are currently indexed.
    */
   boolean isIndexed(int column) {
-    int ordinal = getTableId().ordinal();
-    synchronized (locks[ordinal]) {
-      BitSet table = indexLoadeds[ordinal];
-      return table != null && table.get(column);
-    }
+    TableSnapshot<?> s = snapshots.get(getTableId().ordinal());
+    return s != null && s.isIndexed(column);
   }
 
   @Override
   public final boolean isLoaded() {
-    Table.TableId tableId = getTableId();
-    int ordinal = tableId.ordinal();
-    synchronized (locks[ordinal]) {
-      return lastLoadeds[ordinal] != -1;
-    }
+    int ordinal = getTableId().ordinal();
+    TableSnapshot<?> s = snapshots.get(ordinal);
+    return s != null && s.invalidation == invalidations.get(ordinal);
   }
 
   @Override
   public void clearCache() {
     super.clearCache();
-    Table.TableId tableId = getTableId();
-    int ordinal = tableId.ordinal();
+    int ordinal = getTableId().ordinal();
+    invalidations.incrementAndGet(ordinal);
+    snapshots.set(ordinal, null);
+  }
+
+  @Override
+  final long beginPrefetch() {
+    return isLoaded() ? -1 : invalidations.get(getTableId().ordinal());
+  }
+
+  @Override
+  final void setPrefetched(List<V> rows, long loaded, long version, long invalidation) throws IOException, SQLException {
+    int ordinal = getTableId().ordinal();
     synchronized (locks[ordinal]) {
-      lastLoadeds[ordinal] = -1;
+      TableSnapshot<?> s = snapshots.get(ordinal);
+      if (
+          invalidations.get(ordinal) == invalidation
+              && (s == null || s.invalidation != invalidation)
+      ) {
+        storeChecked[ordinal] = true;
+        TableSnapshotStore store = connector.getSnapshotStore();
+        if (store != null) {
+          store.write(this, version, rows);
+        }
+        TableSnapshot<V> newSnapshot = new TableSnapshot<>(rows, loaded, version, invalidation);
+        if (isEagerIndexingEnabled()) {
+          newSnapshot.buildDeclaredHashes(this);
+        }
+        snapshots.set(ordinal, newSnapshot);
+      }
     }
   }
 
   /**
-   * Reloads the cache if the cache time has expired.
+   * Gets the current snapshot, loading the table when not loaded or invalidated.
+   * This does not block when the table is already loaded.
    */
-  @SuppressWarnings({"unchecked"})
-  private void validateCache() throws IOException, SQLException {
-    Table.TableId tableId = getTableId();
-    int ordinal = tableId.ordinal();
-    synchronized (locks[ordinal]) {
-      long currentTime = System.currentTimeMillis();
-      long lastLoaded = lastLoadeds[ordinal];
-      if (lastLoaded == -1) {
-        List<GlobalObject<?, ?>> list = (List) getObjects(true, AoservProtocol.CommandId.GET_TABLE, ordinal);
-        synchronized (tableObjs) {
-          tableObjs.set(ordinal, Collections.unmodifiableList(list));
+  @SuppressWarnings("unchecked")
+  private TableSnapshot<V> getSnapshot() throws IOException, SQLException {
+    int ordinal = getTableId().ordinal();
+    TableSnapshot<V> s = (TableSnapshot<V>) snapshots.get(ordinal);
+    if (s != null && s.invalidation == invalidations.get(ordinal)) {
+      return s;
+    }
+    long subscription = connector.beginCacheLoad(this);
+    try {
+      // Wait before locking, so other threads using the table are not blocked by a new subscription
+      connector.awaitCacheSubscription(this, subscription);
+      synchronized (locks[ordinal]) {
+        // Another thread may have completed the load while waiting
+        s = (TableSnapshot<V>) snapshots.get(ordinal);
+        if (s != null && s.invalidation == invalidations.get(ordinal)) {
+          return s;
+        }
+        // Invalidations during the load will cause it to be reloaded on next use
+        long invalidation = invalidations.get(ordinal);
+        // An invalidation may be missed when the subscription is still not acknowledged
+        boolean subscribed = connector.isCacheSubscribed(subscription);
+        long currentTime = System.currentTimeMillis();
+        // Table versions require protocol support from the server
+        TableSnapshotStore store = connector.isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT)
+            ? connector.getSnapshotStore()
+            : null;
+        if (store != null && !storeChecked[ordinal]) {
+          storeChecked[ordinal] = true;
+          TableSnapshotStore.StoredTable<V> stored = store.read(this);
+          if (
+              stored != null
+                  && connector.requestLongQuery(true, AoservProtocol.CommandId.GET_TABLE_VERSION, ordinal) == stored.version
+          ) {
+            s = new TableSnapshot<>(stored.rows, currentTime, stored.version, invalidation);
+            if (isEagerIndexingEnabled()) {
+              s.buildDeclaredHashes(this);
+            }
+            snapshots.set(ordinal, s);
+            if (!subscribed) {
+              connector.revalidateOnCacheSubscribed(this, subscription);
+            }
+            return s;
+          }
+        }
+        if (store != null) {
+          // The version is returned in the same response as the rows
+          VersionedRows<V> versionedRows = getVersionedRows();
+          s = new TableSnapshot<>(versionedRows.rows, currentTime, versionedRows.version, invalidation);
+          store.write(this, s.version, s.rows);
+        } else {
+          s = new TableSnapshot<>(
+              Collections.unmodifiableList(getObjects(true, AoservProtocol.CommandId.GET_TABLE, ordinal)),
+              currentTime,
+              -1,
+              invalidation
+          );
         }
-        BitSet loaded = hashLoadeds[ordinal];
-        if (loaded != null) {
-          loaded.clear();
+        if (isEagerIndexingEnabled()) {
+          s.buildDeclaredHashes(this);
         }
-        BitSet indexed = indexLoadeds[ordinal];
-        if (indexed != null) {
-          indexed.clear();
+        snapshots.set(ordinal, s);
+        if (!subscribed) {
+          connector.revalidateOnCacheSubscribed(this, subscription);
         }
-        lastLoadeds[ordinal] = currentTime;
+        return s;
       }
+    } finally {
+      connector.endCacheLoad(this);
     }
   }
 }
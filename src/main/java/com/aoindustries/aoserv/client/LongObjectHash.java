@@ -0,0 +1,81 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+/**
+ * An open-addressing hash from primitive {@code long} keys to non-null values, used for the
+ * unique and index hashes of columns that contain only {@link Long} values.
+ * Lookups neither box the key nor allocate, and no entry object is created per row.
+ *
+ * @see  TableSnapshot
+ *
+ * @author  AO Industries, Inc.
+ */
+final class LongObjectHash<T> extends PrimitiveKeyHash<T> {
+
+  private final long[] keys;
+
+  /**
+   * Creates a hash for a fixed number of keys, sized to a load factor no greater than one half.
+   *
+   * @param  expectedSize  the maximum number of keys that will be added
+   */
+  LongObjectHash(int expectedSize) {
+    super(expectedSize);
+    keys = new long[values.length];
+  }
+
+  /**
+   * Finds the slot containing the given key or the empty slot where it would be added.
+   */
+  private int find(long key) {
+    long h = key * 0x9e3779b97f4a7c15L;
+    int i = (int) (h ^ (h >>> 32)) & mask;
+    while (values[i] != null && keys[i] != key) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /**
+   * Adds a value, returning any previous value for the key.
+   *
+   * @param  value  must not be {@code null}
+   */
+  T put(long key, T value) {
+    int i = find(key);
+    T existing = putAt(i, value);
+    keys[i] = key;
+    return existing;
+  }
+
+  /**
+   * Gets the value for the given key.
+   *
+   * @return  the value or {@code null} when not found
+   */
+  T get(long key) {
+    return valueAt(find(key));
+  }
+}
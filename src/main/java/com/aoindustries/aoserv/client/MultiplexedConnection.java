@@ -0,0 +1,282 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoapps.lang.Throwables;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A <code>MultiplexedConnection</code> is one request over a connection
+ * shared by a {@link SocketMultiplexer}.  The request is buffered and sent as
+ * frames, while the response is received as frames by the multiplexer.
+ *
+ * @see  SocketMultiplexer
+ *
+ * @author  AO Industries, Inc.
+ */
+final class MultiplexedConnection extends AoservConnection {
+
+  /**
+   * Marks the end of the response in the {@link #received} queue.
+   */
+  private static final byte[] END = new byte[0];
+
+  private final SocketMultiplexer multiplexer;
+
+  /**
+   * The frames received for the current request, ending with {@link #END}.  This is unbounded, since the
+   * one reader thread must never block on a slow request, so {@link TcpConnector} sends commands with large
+   * or streaming responses over dedicated connections instead.
+   */
+  private final BlockingQueue<byte[]> received = new LinkedBlockingQueue<>();
+
+  /**
+   * The cause of the multiplexer failing or {@code null} when not failed.
+   */
+  private volatile Throwable failedCause;
+
+  /**
+   * The sequence of the current request or <code>-1</code> when none.
+   */
+  private long seq = -1;
+
+  /**
+   * Set once the end of the response has been read.
+   */
+  private boolean responseEnded;
+
+  private StreamableInput responseIn;
+
+  MultiplexedConnection(TcpConnector connector, SocketMultiplexer multiplexer) {
+    super(connector);
+    this.multiplexer = multiplexer;
+  }
+
+  /**
+   * Buffers the request, sending a frame on each flush or when the buffer is full.
+   */
+  private class RequestOutputStream extends OutputStream {
+
+    private final long requestSeq;
+    private byte[] buff = new byte[4096];
+    private int count;
+
+    private RequestOutputStream(long requestSeq) {
+      this.requestSeq = requestSeq;
+    }
+
+    private void ensureCapacity() throws IOException {
+      if (count == buff.length) {
+        if (buff.length < SocketMultiplexer.MAX_FRAME_SIZE) {
+          buff = Arrays.copyOf(buff, Math.min(buff.length << 1, SocketMultiplexer.MAX_FRAME_SIZE));
+        } else {
+          flush();
+        }
+      }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      ensureCapacity();
+      buff[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      while (len > 0) {
+        ensureCapacity();
+        int blockLen = Math.min(len, buff.length - count);
+        System.arraycopy(b, off, buff, count, blockLen);
+        count += blockLen;
+        off += blockLen;
+        len -= blockLen;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (count > 0) {
+        multiplexer.writeFrame(requestSeq, buff, 0, count);
+        count = 0;
+      }
+    }
+  }
+
+  /**
+   * Reads the response from the frames received by the multiplexer.
+   */
+  private class ResponseInputStream extends InputStream {
+
+    private byte[] buff;
+    private int pos;
+
+    /**
+     * Makes sure data is available, blocking when needed.
+     *
+     * @return  {@code false} at the end of the response
+     */
+    private boolean ensureAvailable() throws IOException {
+      while (buff == null || pos >= buff.length) {
+        if (responseEnded) {
+          return false;
+        }
+        byte[] next;
+        try {
+          next = received.take();
+        } catch (InterruptedException e) {
+          // Restore the interrupted status
+          Thread.currentThread().interrupt();
+          InterruptedIOException ioErr = new InterruptedIOException();
+          ioErr.initCause(e);
+          throw ioErr;
+        }
+        if (next == END) {
+          responseEnded = true;
+          Throwable cause = failedCause;
+          if (cause != null) {
+            throw new IOException("Multiplexed connection closed", cause);
+          }
+          return false;
+        }
+        buff = next;
+        pos = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!ensureAvailable()) {
+        return -1;
+      }
+      return buff[pos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!ensureAvailable()) {
+        return -1;
+      }
+      int blockLen = Math.min(len, buff.length - pos);
+      System.arraycopy(buff, pos, b, off, blockLen);
+      pos += blockLen;
+      return blockLen;
+    }
+
+    @Override
+    public int available() {
+      return buff == null ? 0 : (buff.length - pos);
+    }
+  }
+
+  @Override
+  StreamableOutput getRequestOut(AoservProtocol.CommandId commandId) throws IOException {
+    if (seq != -1) {
+      throw new IllegalStateException("Only one request per multiplexed connection");
+    }
+    seq = multiplexer.register(this);
+    StreamableOutput out = new StreamableOutput(new RequestOutputStream(seq));
+    out.writeCompressedInt(commandId.ordinal());
+    return out;
+  }
+
+  @Override
+  StreamableInput getResponseIn() throws IOException {
+    if (responseIn == null) {
+      responseIn = new StreamableInput(new ResponseInputStream());
+    }
+    return responseIn;
+  }
+
+  /**
+   * Called by the multiplexer when a frame of the response has been received.
+   */
+  void receive(byte[] frame) {
+    received.add(frame);
+  }
+
+  /**
+   * Called by the multiplexer when the end of the response has been received.
+   */
+  void endResponse() {
+    received.add(END);
+  }
+
+  /**
+   * Called by the multiplexer when it has been closed.
+   */
+  void fail(Throwable cause) {
+    failedCause = cause;
+    received.add(END);
+  }
+
+  /**
+   * Stops receiving the response, cancelling the request on the server when the response was not fully read.
+   * The shared connection remains open.
+   */
+  @Override
+  @SuppressWarnings({"UseSpecificCatch", "TooBroadCatch"})
+  Throwable abort(Throwable t0) {
+    if (seq != -1) {
+      if (!responseEnded && failedCause == null) {
+        try {
+          multiplexer.cancel(seq);
+        } catch (Throwable t) {
+          t0 = Throwables.addSuppressed(t0, t);
+        }
+      } else {
+        multiplexer.unregister(seq);
+      }
+      seq = -1;
+    }
+    received.clear();
+    return t0;
+  }
+
+  /**
+   * Releases this connection once its request is complete.  Any remaining end of response
+   * from the server is discarded by the multiplexer.
+   *
+   * @see  TcpConnector#release(com.aoindustries.aoserv.client.AoservConnection)
+   */
+  void release() {
+    if (seq != -1) {
+      multiplexer.unregister(seq);
+      seq = -1;
+    }
+    received.clear();
+  }
+}
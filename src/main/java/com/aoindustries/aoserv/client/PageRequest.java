@@ -0,0 +1,189 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Requests one page of rows, ordered by a single column then by primary key.  Pages are found by
+ * key rather than by offset: each page starts after the sort value and key of the last row of the
+ * previous page, so rows inserted or deleted meanwhile do not shift the following pages.
+ *
+ * <p>Requests are immutable.  The request for the following page is obtained from
+ * {@link RowPage#getNext()}, and may be held as a continuation token.</p>
+ *
+ * <p>Ascending order places {@code null} values last, and descending order places them first.</p>
+ *
+ * @see  AoservTable#getPage(com.aoindustries.aoserv.client.PageRequest)
+ * @see  AoservProtocol.CommandId#GET_TABLE_PAGE
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class PageRequest implements AoservWritable {
+
+  /**
+   * Requests the first page.
+   *
+   * @param  sortColumn  the index of the column to sort by, which must be of a {@link Comparable} type
+   * @param  descending  {@code true} to request the largest values first, such as the newest rows
+   * @param  limit       the maximum number of rows per page
+   * @param  filters     the filters, all of which must match
+   */
+  public static PageRequest first(int sortColumn, boolean descending, int limit, ColumnFilter ... filters) {
+    return new PageRequest(sortColumn, descending, limit, filters.clone(), false, null, null);
+  }
+
+  private final int sortColumn;
+  private final boolean descending;
+  private final int limit;
+  private final ColumnFilter[] filters;
+  private final boolean hasStart;
+  private final Object startAfterValue;
+  private final Object startAfterKey;
+
+  private PageRequest(
+      int sortColumn,
+      boolean descending,
+      int limit,
+      ColumnFilter[] filters,
+      boolean hasStart,
+      Object startAfterValue,
+      Object startAfterKey
+  ) {
+    if (sortColumn < 0) {
+      throw new IllegalArgumentException("sortColumn < 0: " + sortColumn);
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("limit <= 0: " + limit);
+    }
+    this.sortColumn = sortColumn;
+    this.descending = descending;
+    this.limit = limit;
+    this.filters = filters;
+    this.hasStart = hasStart;
+    this.startAfterValue = startAfterValue;
+    this.startAfterKey = startAfterKey;
+  }
+
+  /**
+   * Requests the page starting after the row with the given sort value and primary key.
+   *
+   * @param  sortValue  the value of the sort column, which may be {@code null}
+   * @param  key        the primary key
+   */
+  public PageRequest startAfter(Object sortValue, Object key) {
+    if (key == null) {
+      throw new IllegalArgumentException("key is null");
+    }
+    return new PageRequest(sortColumn, descending, limit, filters, true, sortValue, key);
+  }
+
+  public int getSortColumn() {
+    return sortColumn;
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  public ColumnFilter[] getFilters() {
+    return filters.clone();
+  }
+
+  /**
+   * Compares values of the sort column or primary key, with {@code null} greater than any other value.
+   */
+  @SuppressWarnings("unchecked")
+  private static int compareValues(Object value1, Object value2) {
+    if (value1 == null) {
+      return value2 == null ? 0 : 1;
+    }
+    if (value2 == null) {
+      return -1;
+    }
+    return ((Comparable<Object>) value1).compareTo(value2);
+  }
+
+  private int compare(Object value1, Object key1, Object value2, Object key2) {
+    int diff = compareValues(value1, value2);
+    if (diff == 0) {
+      diff = compareValues(key1, key2);
+    }
+    return descending ? -diff : diff;
+  }
+
+  /**
+   * Compares rows in the order of the pages.
+   */
+  int compare(AoservObject<?, ?> row1, AoservObject<?, ?> row2) {
+    return compare(row1.getColumn(sortColumn), row1.getKey(), row2.getColumn(sortColumn), row2.getKey());
+  }
+
+  /**
+   * Determines if the given row belongs in the requested page or any following page.
+   */
+  boolean matches(AoservObject<?, ?> row) {
+    for (ColumnFilter filter : filters) {
+      if (!filter.matches(row)) {
+        return false;
+      }
+    }
+    return
+        !hasStart
+            || compare(row.getColumn(sortColumn), row.getKey(), startAfterValue, startAfterKey) > 0;
+  }
+
+  @Override
+  public void write(StreamableOutput out, AoservProtocol.Version protocolVersion) throws IOException {
+    out.writeCompressedInt(sortColumn);
+    out.writeBoolean(descending);
+    out.writeCompressedInt(limit);
+    out.writeCompressedInt(filters.length);
+    for (ColumnFilter filter : filters) {
+      filter.write(out, protocolVersion);
+    }
+    out.writeBoolean(hasStart);
+    if (hasStart) {
+      AoservConnector.writeNullableParam(startAfterValue, out);
+      AoservConnector.writeParams(new Object[]{startAfterKey}, out);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return
+        "sortColumn=" + sortColumn
+            + "&descending=" + descending
+            + "&limit=" + limit
+            + "&filters=" + Arrays.toString(filters)
+            + (hasStart ? "&startAfterValue=" + startAfterValue + "&startAfterKey=" + startAfterKey : "");
+  }
+}
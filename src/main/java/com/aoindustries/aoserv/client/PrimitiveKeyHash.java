@@ -0,0 +1,113 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+/**
+ * The storage and probing shared by the open-addressing hashes from primitive keys to non-null values.
+ * Each subclass holds its keys in a parallel primitive array and finds the slot of a key by linear probing,
+ * then gets or puts its value here.
+ *
+ * <p>This is populated by a single thread then only read, so it is not thread-safe and must be safely
+ * published.</p>
+ *
+ * @see  IntObjectHash
+ * @see  LongObjectHash
+ *
+ * @author  AO Industries, Inc.
+ */
+abstract class PrimitiveKeyHash<T> {
+
+  /**
+   * The maximum capacity, a power of two.
+   */
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  /**
+   * The value for each slot, {@code null} for an empty slot.
+   */
+  final Object[] values;
+
+  /**
+   * The capacity minus one, used to wrap slot numbers.
+   */
+  final int mask;
+
+  private int size;
+
+  /**
+   * Creates a hash for a fixed number of keys, sized to a load factor no greater than one half.
+   *
+   * @param  expectedSize  the maximum number of keys that will be added
+   */
+  PrimitiveKeyHash(int expectedSize) {
+    int capacity = 2;
+    while (capacity < MAX_CAPACITY && capacity < (expectedSize << 1)) {
+      capacity <<= 1;
+    }
+    if (expectedSize >= capacity) {
+      throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+    }
+    values = new Object[capacity];
+    mask = capacity - 1;
+  }
+
+  /**
+   * Gets the value in the given slot.
+   *
+   * @return  the value or {@code null} when the slot is empty
+   */
+  @SuppressWarnings("unchecked")
+  final T valueAt(int slot) {
+    return (T) values[slot];
+  }
+
+  /**
+   * Sets the value in the slot found for a key, returning the previous value.  The subclass stores the key
+   * in the same slot after this returns.
+   *
+   * @param  value  must not be {@code null}
+   */
+  final T putAt(int slot, T value) {
+    if (value == null) {
+      throw new IllegalArgumentException("value is null");
+    }
+    T existing = valueAt(slot);
+    if (existing == null) {
+      // Always leave one empty slot to end each probe
+      if (size == mask) {
+        throw new IllegalStateException("Hash is full");
+      }
+      size++;
+    }
+    values[slot] = value;
+    return existing;
+  }
+
+  /**
+   * Gets the number of keys.
+   */
+  final int size() {
+    return size;
+  }
+}
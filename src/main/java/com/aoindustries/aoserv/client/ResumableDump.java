@@ -0,0 +1,196 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.SQLException;
+import java.util.zip.CRC32;
+
+/**
+ * Transfers a dump directly into a {@link FileChannel}, resuming after a dropped connection.
+ *
+ * <p>The server holds each dump until it has been completely transferred, identified by a dump ID.
+ * When a connection fails, the request is retried by {@link AoservConnector#requestUpdate(boolean, com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId, com.aoindustries.aoserv.client.AoservConnector.UpdateRequest)},
+ * which requests the same dump starting at the number of bytes already written.  Should the server
+ * no longer have the dump, it starts a new dump from the beginning.</p>
+ *
+ * <p>A CRC-32 is maintained over the bytes as they are written, and compared with the checksum
+ * of the whole dump sent by the server once complete.</p>
+ *
+ * <p>A dump is only resumed by the retries of a single request within this process.  The dump ID and
+ * offset are not exposed, so a dump interrupted by the end of the process, or by the retries being exhausted,
+ * must be started again from the beginning.</p>
+ *
+ * <p>The protocol is:</p>
+ * <ol>
+ * <li>Request: the database ID, whether gzipped, the dump ID or {@code -1} for a new dump, and the offset.</li>
+ * <li>Response: {@link AoservProtocol#NEXT}, the dump ID, the dump size, and the offset the transfer
+ *     starts at, which is either the requested offset or zero for a new dump.</li>
+ * <li>The raw bytes of the dump from that offset to the dump size.</li>
+ * <li>{@link AoservProtocol#DONE} and the CRC-32 of the whole dump.</li>
+ * </ol>
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class ResumableDump implements AoservConnector.UpdateRequest {
+
+  /**
+   * The number of bytes read from the server and written to the channel at a time.
+   */
+  private static final int TRANSFER_BUFFER_SIZE = 1024 * 1024;
+
+  private final AoservTable<?, ?> table;
+  private final int pkey;
+  private final boolean gzip;
+  private final FileChannel channel;
+  private final long startPosition;
+
+  /**
+   * When the channel is initially positioned at its end, it is truncated to the end of the dump once complete.
+   * This removes any bytes left from a longer dump that was restarted.
+   */
+  private final boolean truncate;
+  private final ProgressListener progressListener;
+  private final int progressScale;
+
+  // The state below is retained between attempts
+  private final CRC32 crc = new CRC32();
+  private long dumpId = -1;
+  private long dumpSize = -1;
+  private long offset;
+  private int lastProgress = -1;
+
+  /**
+   * @param  table             the table of the database being dumped, provided to the progress listener
+   * @param  channel           the dump is written starting at the current position of this channel, which is
+   *                           advanced past the dump once complete.  When positioned at its end, the channel is
+   *                           truncated to the end of the dump.  The channel is neither forced nor closed.
+   * @param  progressListener  the optional listener notified of the bytes transferred
+   */
+  public ResumableDump(AoservTable<?, ?> table, int pkey, boolean gzip, FileChannel channel, ProgressListener progressListener) throws IOException {
+    this.table = table;
+    this.pkey = pkey;
+    this.gzip = gzip;
+    this.channel = channel;
+    this.startPosition = channel.position();
+    this.truncate = startPosition >= channel.size();
+    this.progressListener = progressListener;
+    this.progressScale = progressListener == null ? 0 : progressListener.getScale();
+  }
+
+  @Override
+  public void writeRequest(StreamableOutput out) throws IOException {
+    out.writeCompressedInt(pkey);
+    out.writeBoolean(gzip);
+    out.writeLong(dumpId);
+    out.writeLong(offset);
+  }
+
+  @Override
+  public void readResponse(StreamableInput in) throws IOException, SQLException {
+    int code = in.readByte();
+    if (code != AoservProtocol.NEXT) {
+      AoservProtocol.checkResult(code, in);
+      throw new IOException("Unexpected response code: " + code);
+    }
+    long newDumpId = in.readLong();
+    long newDumpSize = in.readLong();
+    if (newDumpSize < 0) {
+      throw new IOException("dumpSize < 0: " + newDumpSize);
+    }
+    long transferStart = in.readLong();
+    if (transferStart == 0) {
+      // New dump
+      crc.reset();
+      offset = 0;
+    } else if (newDumpId != dumpId || newDumpSize != dumpSize || transferStart != offset) {
+      throw new IOException("Unable to resume dump: dumpId=" + newDumpId + ", dumpSize=" + newDumpSize + ", transferStart=" + transferStart);
+    }
+    dumpId = newDumpId;
+    dumpSize = newDumpSize;
+    updateProgress();
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TRANSFER_BUFFER_SIZE, Math.max(dumpSize - offset, 1)));
+    byte[] buff = buffer.array();
+    while (offset < dumpSize) {
+      int len = (int) Math.min(buff.length, dumpSize - offset);
+      in.readFully(buff, 0, len);
+      buffer.clear().limit(len);
+      long position = startPosition + offset;
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      // Only counted once written, so a partial block is transferred again on resume
+      crc.update(buff, 0, len);
+      offset += len;
+      updateProgress();
+    }
+    code = in.readByte();
+    if (code != AoservProtocol.DONE) {
+      AoservProtocol.checkResult(code, in);
+      throw new IOException("Unexpected response code: " + code);
+    }
+    long expected = in.readLong();
+    long actual = crc.getValue();
+    if (actual != expected) {
+      // Start over on retry
+      dumpId = -1;
+      offset = 0;
+      crc.reset();
+      throw new IOException("Dump checksum mismatch: " + Long.toHexString(actual) + " != " + Long.toHexString(expected));
+    }
+    long endPosition = startPosition + dumpSize;
+    if (truncate && channel.size() > endPosition) {
+      channel.truncate(endPosition);
+    }
+    channel.position(endPosition);
+  }
+
+  private void updateProgress() {
+    if (progressListener != null) {
+      int progress = dumpSize == 0 ? progressScale : (int) (offset * progressScale / dumpSize);
+      if (progress != lastProgress) {
+        progressListener.onProgressChanged(table, lastProgress = progress, progressScale);
+      }
+    }
+  }
+
+  @Override
+  public void afterRelease() {
+    // Do nothing
+  }
+
+  /**
+   * Gets the size of the dump, once known.
+   *
+   * @return  the number of bytes or {@code -1} when not yet known
+   */
+  public long getDumpSize() {
+    return dumpSize;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import java.util.List;
+
+/**
+ * One page of rows returned for a {@link PageRequest}.
+ *
+ * @see  AoservTable#getPage(com.aoindustries.aoserv.client.PageRequest)
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class RowPage<V extends AoservObject<?, ?>> {
+
+  private final List<V> rows;
+  private final PageRequest next;
+
+  /**
+   * @param  rows  the unmodifiable rows, in page order
+   */
+  RowPage(PageRequest request, List<V> rows) {
+    this.rows = rows;
+    int size = rows.size();
+    if (size < request.getLimit()) {
+      next = null;
+    } else {
+      V last = rows.get(size - 1);
+      next = request.startAfter(last.getColumn(request.getSortColumn()), last.getKey());
+    }
+  }
+
+  /**
+   * Gets the unmodifiable rows of this page, in page order.
+   */
+  @SuppressWarnings("ReturnOfCollectionOrArrayField") // Returning unmodifiable
+  public List<V> getRows() {
+    return rows;
+  }
+
+  /**
+   * Gets the request for the following page.
+   *
+   * When this page is full, the following page may be empty.
+   *
+   * @return  the request or {@code null} when this is the last page
+   */
+  public PageRequest getNext() {
+    return next;
+  }
+}
@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2015, 2016, 2017, 2018, 2019, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2015, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -36,6 +36,7 @@ import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.sql.SQLException;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -80,8 +81,24 @@ public final class SocketConnection extends AoservConnection {
    */
   private final AtomicLong seq;
 
+  /**
+   * Thrown when the server refuses the connection, such as for an unsupported protocol version
+   * or failed authentication.
+   */
+  static final class RejectedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private RejectedException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * @param  protocolVersion  the protocol version to request
+   */
   @SuppressWarnings({"UseSpecificCatch", "TooBroadCatch"})
-  SocketConnection(TcpConnector connector) throws InterruptedIOException, IOException {
+  SocketConnection(TcpConnector connector, AoservProtocol.Version protocolVersion) throws InterruptedIOException, IOException {
     super(connector);
     socket = connector.getSocket();
     try {
@@ -89,7 +106,7 @@ public final class SocketConnection extends AoservConnection {
       out = new StreamableOutput(new BufferedOutputStream(socket.getOutputStream()));
       in = new StreamableInput(new BufferedInputStream(socket.getInputStream()));
 
-      out.writeUTF(AoservProtocol.Version.CURRENT_VERSION.getVersion());
+      out.writeUTF(protocolVersion.getVersion());
       out.writeNullUTF(Objects.toString(connector.daemonServer, null));
       out.writeUTF(connector.connectAs.toString());
       out.writeUTF(connector.authenticateAs.toString());
@@ -106,7 +123,7 @@ public final class SocketConnection extends AoservConnection {
             throw new InterruptedIOException();
           }
           if (!in.readBoolean()) {
-            throw new IOException(in.readUTF());
+            throw new RejectedException(in.readUTF());
           }
           connectorId = SecurityStreamables.readIdentifier(in);
           connector.id = connectorId;
@@ -123,7 +140,7 @@ public final class SocketConnection extends AoservConnection {
           throw new InterruptedIOException();
         }
         if (!in.readBoolean()) {
-          throw new IOException(in.readUTF());
+          throw new RejectedException(in.readUTF());
         }
       }
       final long startSeq = in.readLong();
@@ -176,6 +193,47 @@ public final class SocketConnection extends AoservConnection {
     return in;
   }
 
+  /**
+   * Switches this connection into multiplexed mode.  Once switched, all further
+   * communication must go through {@link SocketMultiplexer} using the raw streams
+   * and {@link SocketConnection#nextSeq()}.
+   *
+   * @see  AoservProtocol.CommandId#MULTIPLEX
+   */
+  void startMultiplexing() throws IOException, SQLException {
+    getRequestOut(AoservProtocol.CommandId.MULTIPLEX).flush();
+    StreamableInput responseIn = getResponseIn();
+    int code = responseIn.readByte();
+    if (code != AoservProtocol.DONE) {
+      AoservProtocol.checkResult(code, responseIn);
+      throw new IOException("Unexpected response code: " + code);
+    }
+  }
+
+  /**
+   * Allocates the next command sequence.
+   * Only used in multiplexed mode.
+   */
+  long nextSeq() {
+    return seq.getAndIncrement();
+  }
+
+  /**
+   * Gets the raw output stream, without any sequence written.
+   * Only used in multiplexed mode.
+   */
+  StreamableOutput getOut() {
+    return out;
+  }
+
+  /**
+   * Gets the raw input stream, without any sequence verified.
+   * Only used in multiplexed mode.
+   */
+  StreamableInput getIn() {
+    return in;
+  }
+
   /**
    * Determines if this connection has been closed.
    */
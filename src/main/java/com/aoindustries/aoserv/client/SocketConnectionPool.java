@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -75,7 +75,7 @@ final class SocketConnectionPool extends AOPool<SocketConnection, IOException, I
 
   @Override
   protected SocketConnection getConnectionObject() throws InterruptedIOException, IOException {
-    return new SocketConnection(connector);
+    return connector.newSocketConnection();
   }
 
   @Override
@@ -99,8 +99,12 @@ final class SocketConnectionPool extends AOPool<SocketConnection, IOException, I
       int totalHashed = 0;
       int totalIndexed = 0;
       int totalRows = 0;
+      int totalBatched = 0;
       for (AoservTable<?, ?> table : connector.getTables()) {
         totalLoaded++;
+        if (table.hasBatchedTableListener()) {
+          totalBatched++;
+        }
         if (table instanceof CachedTable<?, ?>) {
           totalCaches++;
           int columnCount = table.getTableSchema().getSchemaColumns(connector).size();
@@ -150,6 +154,41 @@ final class SocketConnectionPool extends AOPool<SocketConnection, IOException, I
           + "    <tr><td>Total Rows:</td><td>").append(Integer.toString(totalRows)).append("</td></tr>\n"
           + "  </tbody>\n"
           + "</table>\n");
+      // Show the thread statistics
+      int eventThreads;
+      int scheduledTables;
+      if (ClientThreads.LIGHTWEIGHT) {
+        eventThreads = 0;
+        scheduledTables = totalBatched;
+      } else {
+        eventThreads = totalBatched;
+        scheduledTables = 0;
+      }
+      // Each table on the shared scheduler and each virtual thread would otherwise be a platform thread
+      int virtualThreads = ClientThreads.getVirtualThreadCount();
+      long stackSize = ClientThreads.getThreadStackSize();
+      if (isXhtml) {
+        out.append("<br /><br />\n");
+      } else {
+        out.append("<br><br>\n");
+      }
+      out.append("<table class=\"ao-grid\">\n"
+          + "  <thead>\n"
+          + "    <tr><th colspan=\"2\"><span style=\"font-size:large\">AOServ Threads</span></th></tr>\n"
+          + "  </thead>\n"
+          + "  <tbody>\n"
+          + "    <tr><td>Lightweight Threads:</td><td>").append(Boolean.toString(ClientThreads.LIGHTWEIGHT)).append("</td></tr>\n"
+          + "    <tr><td>Virtual Threads:</td><td>").append(Boolean.toString(ClientThreads.isVirtual())).append("</td></tr>\n"
+          + "    <tr><td>Table Event Threads (this connector):</td><td>").append(Integer.toString(eventThreads)).append("</td></tr>\n"
+          + "    <tr><td>Tables on Shared Event Scheduler (this connector):</td><td>").append(Integer.toString(scheduledTables)).append("</td></tr>\n"
+          + "    <tr><td>Virtual Threads Running (all connectors):</td><td>").append(Integer.toString(virtualThreads)).append("</td></tr>\n"
+          + "    <tr><td>Platform Threads Avoided (this connector):</td><td>").append(Integer.toString(scheduledTables)).append("</td></tr>\n"
+          + "    <tr><td>Platform Threads Avoided (all connectors):</td><td>").append(Integer.toString(virtualThreads)).append("</td></tr>\n"
+          + "    <tr><td>Thread Stack Size:</td><td>").append(formatStackSize(stackSize, 1)).append("</td></tr>\n"
+          + "    <tr><td>Stack Memory Avoided (this connector):</td><td>").append(formatStackSize(stackSize, scheduledTables)).append("</td></tr>\n"
+          + "    <tr><td>Stack Memory Avoided (all connectors):</td><td>").append(formatStackSize(stackSize, virtualThreads)).append("</td></tr>\n"
+          + "  </tbody>\n"
+          + "</table>\n");
       if (isXhtml) {
         out.append("<br /><br />\n");
       } else {
@@ -182,6 +221,18 @@ final class SocketConnectionPool extends AOPool<SocketConnection, IOException, I
     }
   }
 
+  /**
+   * Formats the stack memory reserved by the given number of platform threads.
+   *
+   * @param  stackSize  the stack size per thread in bytes or {@code -1} when unknown
+   */
+  private static String formatStackSize(long stackSize, int threads) {
+    if (stackSize == -1) {
+      return "unknown";
+    }
+    return Long.toString(stackSize * threads / 1024) + " KiB";
+  }
+
   @Override
   protected void resetConnection(SocketConnection conn) {
     // Do nothing
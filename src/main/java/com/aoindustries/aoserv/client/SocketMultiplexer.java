@@ -0,0 +1,254 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoapps.lang.Throwables;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+
+/**
+ * A <code>SocketMultiplexer</code> shares a single {@link SocketConnection} between any number
+ * of concurrent requests.  Each request is allocated its own {@link MultiplexedConnection}
+ * and command sequence, and all data in both directions is sent in frames tagged with that sequence.
+ *
+ * <p>Each frame is a sequence (<code>long</code>), a length (compressed <code>int</code>), and then
+ * the given number of bytes.  A length of <code>-1</code> from the server marks the end of the response for the
+ * sequence, while a length of <code>-1</code> from the client cancels the request.  Frames from the server
+ * for unknown sequences, such as for requests that have been cancelled, are discarded.</p>
+ *
+ * <p>A single reader thread demultiplexes the responses to the waiting connections.  Upon any error on the
+ * socket, all in-flight requests fail and the connector creates a new multiplexer on next use.</p>
+ *
+ * @see  TcpConnector
+ * @see  com.aoindustries.aoserv.client.schema.AoservProtocol.CommandId#MULTIPLEX
+ *
+ * @author  AO Industries, Inc.
+ */
+final class SocketMultiplexer {
+
+  /**
+   * The maximum number of bytes in a single frame.
+   */
+  static final int MAX_FRAME_SIZE = 65536;
+
+  private final TcpConnector connector;
+
+  /**
+   * The underlying connection, already switched to multiplexed mode.
+   */
+  private final SocketConnection conn;
+
+  /**
+   * The connections with a request currently in-flight, by sequence.
+   */
+  private final ConcurrentMap<Long, MultiplexedConnection> connections = new ConcurrentHashMap<>();
+
+  private static class WriteLock {
+    // Empty lock class to help heap profile
+  }
+
+  /**
+   * Held while writing each frame, so frames from different requests are never interleaved.
+   */
+  private final WriteLock writeLock = new WriteLock();
+
+  /**
+   * The cause of the multiplexer being closed or {@code null} while open.
+   */
+  private volatile Throwable closedCause;
+
+  /**
+   * Runs on a virtual thread when {@linkplain ClientThreads#LIGHTWEIGHT lightweight threads} are enabled and supported.
+   */
+  private class Reader implements Runnable {
+
+    @Override
+    @SuppressWarnings({"UseSpecificCatch", "TooBroadCatch"})
+    public void run() {
+      try {
+        StreamableInput in = conn.getIn();
+        while (!Thread.currentThread().isInterrupted()) {
+          long seq = in.readLong();
+          int len = in.readCompressedInt();
+          MultiplexedConnection connection = connections.get(seq);
+          if (len == -1) {
+            if (connection != null) {
+              connection.endResponse();
+            }
+          } else {
+            if (len < 0 || len > MAX_FRAME_SIZE) {
+              throw new IOException("Invalid frame length: " + len);
+            }
+            byte[] buff = new byte[len];
+            in.readFully(buff);
+            if (connection != null && len > 0) {
+              connection.receive(buff);
+            }
+          }
+        }
+        close(new InterruptedIOException());
+      } catch (Throwable t) {
+        close(t);
+      }
+    }
+  }
+
+  @SuppressWarnings({"UseSpecificCatch", "TooBroadCatch"})
+  SocketMultiplexer(TcpConnector connector) throws InterruptedIOException, IOException {
+    this.connector = connector;
+    conn = connector.newSocketConnection();
+    try {
+      conn.startMultiplexing();
+    } catch (Throwable t) {
+      throw Throwables.wrap(conn.abort(t), IOException.class, IOException::new);
+    }
+    ClientThreads.newThread("SocketMultiplexer - Reader", new Reader()).start();
+  }
+
+  /**
+   * Allocates a new connection for a single request.
+   */
+  MultiplexedConnection newConnection() throws IOException {
+    checkOpen();
+    return new MultiplexedConnection(connector, this);
+  }
+
+  /**
+   * Registers a connection for the responses of a new request.
+   *
+   * @return  the sequence allocated to the request
+   */
+  long register(MultiplexedConnection connection) throws IOException {
+    checkOpen();
+    long seq = conn.nextSeq();
+    connections.put(seq, connection);
+    // Fail immediately if closed while registering
+    Throwable cause = closedCause;
+    if (cause != null) {
+      connections.remove(seq);
+      throw new IOException("Multiplexed connection closed", cause);
+    }
+    return seq;
+  }
+
+  /**
+   * Stops delivering responses for the given sequence.
+   */
+  void unregister(long seq) {
+    connections.remove(seq);
+  }
+
+  /**
+   * Writes one frame of request data.
+   */
+  void writeFrame(long seq, byte[] buff, int off, int len) throws IOException {
+    synchronized (writeLock) {
+      checkOpen();
+      try {
+        StreamableOutput out = conn.getOut();
+        out.writeLong(seq);
+        out.writeCompressedInt(len);
+        out.write(buff, off, len);
+        out.flush();
+      } catch (Error | RuntimeException | IOException e) {
+        close(e);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Cancels the request for the given sequence.  The server will stop sending
+   * its response, and any frames already sent will be discarded.
+   */
+  void cancel(long seq) throws IOException {
+    connections.remove(seq);
+    synchronized (writeLock) {
+      checkOpen();
+      try {
+        StreamableOutput out = conn.getOut();
+        out.writeLong(seq);
+        out.writeCompressedInt(-1);
+        out.flush();
+      } catch (Error | RuntimeException | IOException e) {
+        close(e);
+        throw e;
+      }
+    }
+  }
+
+  private void checkOpen() throws IOException {
+    Throwable cause = closedCause;
+    if (cause != null) {
+      throw new IOException("Multiplexed connection closed", cause);
+    }
+  }
+
+  /**
+   * Closes the socket and fails all in-flight requests.
+   */
+  private void close(Throwable cause) {
+    synchronized (connections) {
+      if (closedCause != null) {
+        return;
+      }
+      closedCause = cause;
+    }
+    Throwable t0 = conn.abort(null);
+    if (t0 != null) {
+      connector.getLogger().log(
+          // Normal when the socket is already closed
+          (t0 instanceof SocketException)
+              ? Level.FINE
+              : Level.WARNING,
+          null,
+          t0
+      );
+    }
+    for (MultiplexedConnection connection : connections.values()) {
+      connection.fail(cause);
+    }
+    connections.clear();
+  }
+
+  /**
+   * Determines if this multiplexer has been closed.  A closed multiplexer is never reopened.
+   */
+  boolean isClosed() {
+    return closedCause != null;
+  }
+
+  /**
+   * Gets the number of requests currently in-flight.
+   */
+  int getInFlightCount() {
+    return connections.size();
+  }
+}
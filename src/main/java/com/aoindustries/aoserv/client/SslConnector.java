@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2012, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2001-2012, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -81,7 +81,24 @@ public class SslConnector extends TcpConnector {
       String trustStorePath,
       String trustStorePassword
   ) {
-    super(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer, poolSize, maxConnectionAge);
+    this(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer, poolSize, maxConnectionAge, false, trustStorePath, trustStorePassword);
+  }
+
+  protected SslConnector(
+      HostAddress hostname,
+      InetAddress localIp,
+      Port port,
+      User.Name connectAs,
+      User.Name authenticateAs,
+      String password,
+      DomainName daemonServer,
+      int poolSize,
+      long maxConnectionAge,
+      boolean multiplexed,
+      String trustStorePath,
+      String trustStorePassword
+  ) {
+    super(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer, poolSize, maxConnectionAge, multiplexed);
     if (
         (
             SslConnector.trustStorePath != null
@@ -148,6 +165,23 @@ public class SslConnector extends TcpConnector {
       long maxConnectionAge,
       String trustStorePath,
       String trustStorePassword
+  ) {
+    return getSslConnector(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer, poolSize, maxConnectionAge, false, trustStorePath, trustStorePassword);
+  }
+
+  public static synchronized SslConnector getSslConnector(
+      HostAddress hostname,
+      InetAddress localIp,
+      Port port,
+      User.Name connectAs,
+      User.Name authenticateAs,
+      String password,
+      DomainName daemonServer,
+      int poolSize,
+      long maxConnectionAge,
+      boolean multiplexed,
+      String trustStorePath,
+      String trustStorePassword
   ) {
     if (connectAs == null) {
       throw new IllegalArgumentException("connectAs is null");
@@ -183,6 +217,7 @@ public class SslConnector extends TcpConnector {
               && Objects.equals(daemonServer, connector.daemonServer)
               && connector.poolSize == poolSize
               && connector.maxConnectionAge == maxConnectionAge
+              && connector.multiplexed == multiplexed
               && Objects.equals(SslConnector.trustStorePath, trustStorePath)
               && Objects.equals(SslConnector.trustStorePassword, trustStorePassword)
       ) {
@@ -199,6 +234,7 @@ public class SslConnector extends TcpConnector {
         daemonServer,
         poolSize,
         maxConnectionAge,
+        multiplexed,
         trustStorePath,
         trustStorePassword
     );
@@ -226,6 +262,7 @@ public class SslConnector extends TcpConnector {
         daemonServer,
         poolSize,
         maxConnectionAge,
+        multiplexed,
         trustStorePath,
         trustStorePassword
     );
@@ -0,0 +1,537 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.collections.AoCollections;
+import com.aoapps.collections.IntArrayList;
+import com.aoapps.collections.IntList;
+import com.aoapps.lang.Throwables;
+import com.aoindustries.aoserv.client.schema.Column;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * An immutable snapshot of all the rows of a cached table.  The unique and
+ * index hashes are built lazily, once per column, and are published through
+ * volatile references.  Once a snapshot has been published, lookups never
+ * block; only the first lookup on each column of a new snapshot builds its hash.
+ *
+ * <p>Columns that contain only {@link Integer} or {@link Long} values are hashed by
+ * primitive key, so that lookups by {@code int} or {@code long} do not box the value
+ * and no entry object is created per row.</p>
+ *
+ * <p>Composite indexes, declared by the table over several columns, are also built lazily.</p>
+ *
+ * <p>A new snapshot is created for each load of the table.  Callers holding a
+ * previous snapshot may continue to use it safely.</p>
+ *
+ * @author  AO Industries, Inc.
+ */
+final class TableSnapshot<V extends AoservObject<?, ?>> {
+
+  private static final Object[] EMPTY = new Object[0];
+
+  /**
+   * The unmodifiable list of all rows.
+   */
+  final List<V> rows;
+
+  /**
+   * The time the snapshot was loaded.
+   */
+  final long loaded;
+
+  /**
+   * The server-provided version of the table, or <code>-1</code> when unknown.
+   */
+  final long version;
+
+  /**
+   * The count of cache invalidations at the time the load started.
+   * The snapshot is stale once the table has been invalidated since.
+   */
+  final long invalidation;
+
+  /**
+   * Coordinates the building of hashes so that concurrent first lookups share one build.
+   */
+  private static class BuildLock {
+    // Empty lock class to help heap profile
+  }
+
+  private final BuildLock buildLock = new BuildLock();
+
+  /**
+   * The unique hash per column, indexed by column.  Each is a {@code Map<Object, V>}, or an
+   * {@link IntObjectHash IntObjectHash&lt;V&gt;} or {@link LongObjectHash LongObjectHash&lt;V&gt;}
+   * for columns that contain only {@link Integer} or {@link Long} values.
+   * Replaced (never modified) while holding {@link #buildLock}.
+   */
+  private volatile Object[] uniqueHashes = EMPTY;
+
+  /**
+   * The index hash per column, indexed by column.  Each is a {@code Map<Object, List<V>>}, or an
+   * {@link IntObjectHash IntObjectHash&lt;List&lt;V&gt;&gt;} or {@link LongObjectHash LongObjectHash&lt;List&lt;V&gt;&gt;}
+   * for columns that contain only non-null {@link Integer} or {@link Long} values.
+   * Each of the contained {@code List<V>} are unmodifiable.
+   * Replaced (never modified) while holding {@link #buildLock}.
+   */
+  private volatile Object[] indexHashes = EMPTY;
+
+  /**
+   * The {@link CompositeHash} per composite index, indexed by {@link CachedTable.CompositeIndex#id}.
+   * Replaced (never modified) while holding {@link #buildLock}.
+   */
+  private volatile Object[] compositeHashes = EMPTY;
+
+  /**
+   * @param  rows  must be unmodifiable
+   */
+  TableSnapshot(List<V> rows, long loaded, long version, long invalidation) {
+    this.rows = rows;
+    this.loaded = loaded;
+    this.version = version;
+    this.invalidation = invalidation;
+  }
+
+  private static Object[] set(Object[] slots, int col, Object value) {
+    Object[] newSlots = Arrays.copyOf(slots, Math.max(slots.length, col + 1));
+    newSlots[col] = value;
+    return newSlots;
+  }
+
+  private static Object get(Object[] slots, int col) {
+    return col < slots.length ? slots[col] : null;
+  }
+
+  /**
+   * Shares all the unique and index hashes of a snapshot with the same rows.
+   */
+  void copyHashes(TableSnapshot<V> old) {
+    synchronized (buildLock) {
+      uniqueHashes = old.uniqueHashes;
+      indexHashes = old.indexHashes;
+      compositeHashes = old.compositeHashes;
+    }
+  }
+
+  /**
+   * Gets the value of the given column for every row.
+   */
+  private Object[] getColumnValues(int col) {
+    int size = rows.size();
+    Object[] cvalues = new Object[size];
+    for (int c = 0; c < size; c++) {
+      cvalues[c] = rows.get(c).getColumn(col);
+    }
+    return cvalues;
+  }
+
+  /**
+   * Builds the unique hash for the given column.  This does not install the hash.
+   *
+   * @param  table  the table, used for error reporting
+   */
+  private Object buildUniqueHash(AoservTable<?, ?> table, int col) throws IOException, SQLException {
+    Object hash;
+    int size = rows.size();
+    Object[] cvalues = getColumnValues(col);
+    boolean allInt = true;
+    boolean allLong = true;
+    for (Object cvalue : cvalues) {
+      if (cvalue != null) {
+        allInt &= cvalue instanceof Integer;
+        allLong &= cvalue instanceof Long;
+      }
+    }
+    Object old = null;
+    int c = 0;
+    if (allInt) {
+      IntObjectHash<V> intHash = new IntObjectHash<>(size);
+      for (; c < size && old == null; c++) {
+        Object cvalue = cvalues[c];
+        if (cvalue != null) {
+          old = intHash.put((Integer) cvalue, rows.get(c));
+        }
+      }
+      hash = intHash;
+    } else if (allLong) {
+      LongObjectHash<V> longHash = new LongObjectHash<>(size);
+      for (; c < size && old == null; c++) {
+        Object cvalue = cvalues[c];
+        if (cvalue != null) {
+          old = longHash.put((Long) cvalue, rows.get(c));
+        }
+      }
+      hash = longHash;
+    } else {
+      // Allow 25% growth before rehash
+      Map<Object, V> map = AoCollections.newHashMap((size * 5) >> 2);
+      for (; c < size && old == null; c++) {
+        Object cvalue = cvalues[c];
+        if (cvalue != null) {
+          old = map.put(cvalue, rows.get(c));
+        }
+      }
+      hash = map;
+    }
+    if (old != null) {
+      throw new SQLException(
+          "Duplicate unique entry for table #" + table.getTableId() + " (" + table.getTableName()
+              + "), column " + col + ": " + cvalues[c - 1]
+      );
+    }
+    return hash;
+  }
+
+  /**
+   * Gets the unique hash for the given column, building it on first use.
+   *
+   * @param  table  the table, used for error reporting
+   */
+  private Object getUniqueHash(AoservTable<?, ?> table, int col) throws IOException, SQLException {
+    Object hash = get(uniqueHashes, col);
+    if (hash == null) {
+      synchronized (buildLock) {
+        hash = get(uniqueHashes, col);
+        if (hash == null) {
+          hash = buildUniqueHash(table, col);
+          uniqueHashes = set(uniqueHashes, col, hash);
+        }
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Gets a row given a unique column value, building the hash for the column on first use.
+   *
+   * @param  table  the table, used for error reporting
+   */
+  @SuppressWarnings("unchecked")
+  V getUniqueRow(AoservTable<?, ?> table, int col, Object value) throws IOException, SQLException {
+    Object hash = getUniqueHash(table, col);
+    if (hash instanceof IntObjectHash) {
+      return value instanceof Integer ? ((IntObjectHash<V>) hash).get((Integer) value) : null;
+    }
+    if (hash instanceof LongObjectHash) {
+      return value instanceof Long ? ((LongObjectHash<V>) hash).get((Long) value) : null;
+    }
+    return ((Map<Object, V>) hash).get(value);
+  }
+
+  /**
+   * Gets a row given a unique {@code int} column value, without boxing when the column contains only
+   * {@link Integer} values.
+   *
+   * @see  TableSnapshot#getUniqueRow(com.aoindustries.aoserv.client.AoservTable, int, java.lang.Object)
+   */
+  @SuppressWarnings("unchecked")
+  V getUniqueRow(AoservTable<?, ?> table, int col, int value) throws IOException, SQLException {
+    Object hash = getUniqueHash(table, col);
+    if (hash instanceof IntObjectHash) {
+      return ((IntObjectHash<V>) hash).get(value);
+    }
+    if (hash instanceof LongObjectHash) {
+      return null;
+    }
+    return ((Map<Object, V>) hash).get(value);
+  }
+
+  /**
+   * Gets a row given a unique {@code long} column value, without boxing when the column contains only
+   * {@link Long} values.
+   *
+   * @see  TableSnapshot#getUniqueRow(com.aoindustries.aoserv.client.AoservTable, int, java.lang.Object)
+   */
+  @SuppressWarnings("unchecked")
+  V getUniqueRow(AoservTable<?, ?> table, int col, long value) throws IOException, SQLException {
+    Object hash = getUniqueHash(table, col);
+    if (hash instanceof LongObjectHash) {
+      return ((LongObjectHash<V>) hash).get(value);
+    }
+    if (hash instanceof IntObjectHash) {
+      return null;
+    }
+    return ((Map<Object, V>) hash).get(value);
+  }
+
+  /**
+   * Builds the index hash for the given column.  This does not install the hash.
+   */
+  private Object buildIndexHash(int col) {
+    Object hash;
+    // Build the modifiable lists in a temporary Map
+    int size = rows.size();
+    Object[] cvalues = getColumnValues(col);
+    boolean allInt = true;
+    boolean allLong = true;
+    Map<Object, List<V>> modifiableIndexes = new HashMap<>();
+    for (int c = 0; c < size; c++) {
+      Object cvalue = cvalues[c];
+      allInt &= cvalue instanceof Integer;
+      allLong &= cvalue instanceof Long;
+      List<V> list = modifiableIndexes.get(cvalue);
+      if (list == null) {
+        modifiableIndexes.put(cvalue, list = new ArrayList<>());
+      }
+      list.add(rows.get(c));
+    }
+    // Wrap each of the newly-created indexes to be unmodifiable
+    int numKeys = modifiableIndexes.size();
+    if (allInt) {
+      IntObjectHash<List<V>> intHash = new IntObjectHash<>(numKeys);
+      for (Map.Entry<Object, List<V>> entry : modifiableIndexes.entrySet()) {
+        intHash.put((Integer) entry.getKey(), AoCollections.optimalUnmodifiableList(entry.getValue()));
+      }
+      hash = intHash;
+    } else if (allLong) {
+      LongObjectHash<List<V>> longHash = new LongObjectHash<>(numKeys);
+      for (Map.Entry<Object, List<V>> entry : modifiableIndexes.entrySet()) {
+        longHash.put((Long) entry.getKey(), AoCollections.optimalUnmodifiableList(entry.getValue()));
+      }
+      hash = longHash;
+    } else {
+      Map<Object, List<V>> map = AoCollections.newHashMap(numKeys);
+      for (Map.Entry<Object, List<V>> entry : modifiableIndexes.entrySet()) {
+        map.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+      }
+      hash = map;
+    }
+    return hash;
+  }
+
+  /**
+   * Gets the index hash for the given column, building it on first use.
+   */
+  private Object getIndexHash(int col) {
+    Object hash = get(indexHashes, col);
+    if (hash == null) {
+      synchronized (buildLock) {
+        hash = get(indexHashes, col);
+        if (hash == null) {
+          hash = buildIndexHash(col);
+          indexHashes = set(indexHashes, col, hash);
+        }
+      }
+    }
+    return hash;
+  }
+
+  private static <V> List<V> emptyIfNull(List<V> list) {
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  /**
+   * Gets the unmodifiable list of rows for the given column value, building the index for
+   * the column on first use.
+   */
+  @SuppressWarnings("unchecked")
+  List<V> getIndexedRows(int col, Object value) {
+    Object hash = getIndexHash(col);
+    if (hash instanceof IntObjectHash) {
+      return value instanceof Integer ? emptyIfNull(((IntObjectHash<List<V>>) hash).get((Integer) value)) : Collections.emptyList();
+    }
+    if (hash instanceof LongObjectHash) {
+      return value instanceof Long ? emptyIfNull(((LongObjectHash<List<V>>) hash).get((Long) value)) : Collections.emptyList();
+    }
+    return emptyIfNull(((Map<Object, List<V>>) hash).get(value));
+  }
+
+  /**
+   * Gets the unmodifiable list of rows for the given {@code int} column value, without boxing
+   * when the column contains only {@link Integer} values.
+   *
+   * @see  TableSnapshot#getIndexedRows(int, java.lang.Object)
+   */
+  @SuppressWarnings("unchecked")
+  List<V> getIndexedRows(int col, int value) {
+    Object hash = getIndexHash(col);
+    if (hash instanceof IntObjectHash) {
+      return emptyIfNull(((IntObjectHash<List<V>>) hash).get(value));
+    }
+    if (hash instanceof LongObjectHash) {
+      return Collections.emptyList();
+    }
+    return emptyIfNull(((Map<Object, List<V>>) hash).get(value));
+  }
+
+  /**
+   * Gets the unmodifiable list of rows for the given {@code long} column value, without boxing
+   * when the column contains only {@link Long} values.
+   *
+   * @see  TableSnapshot#getIndexedRows(int, java.lang.Object)
+   */
+  @SuppressWarnings("unchecked")
+  List<V> getIndexedRows(int col, long value) {
+    Object hash = getIndexHash(col);
+    if (hash instanceof LongObjectHash) {
+      return emptyIfNull(((LongObjectHash<List<V>>) hash).get(value));
+    }
+    if (hash instanceof IntObjectHash) {
+      return Collections.emptyList();
+    }
+    return emptyIfNull(((Map<Object, List<V>>) hash).get(value));
+  }
+
+  /**
+   * Gets the composite hash for the given index, building it on first use.
+   */
+  @SuppressWarnings("unchecked")
+  CompositeHash<V> getCompositeHash(int id, int[] columns) {
+    Object hash = get(compositeHashes, id);
+    if (hash == null) {
+      synchronized (buildLock) {
+        hash = get(compositeHashes, id);
+        if (hash == null) {
+          hash = new CompositeHash<>(rows, columns);
+          compositeHashes = set(compositeHashes, id, hash);
+        }
+      }
+    }
+    return (CompositeHash<V>) hash;
+  }
+
+  /**
+   * Builds the hashes for the columns declared in the schema, in parallel, so they are ready
+   * before this snapshot is published.  Unique columns are hashed by value, and columns that
+   * reference another table are indexed.  Hashes already built are not rebuilt.
+   *
+   * @param  table  the table of this snapshot, which must not be one of the schema tables
+   *                used to find the columns
+   */
+  void buildDeclaredHashes(AoservTable<?, ?> table) throws IOException, SQLException {
+    List<Column> schemaColumns = table.getTableSchema().getSchemaColumns(table.connector);
+    int size = schemaColumns.size();
+    int[] columns = new int[size];
+    boolean[] unique = new boolean[size];
+    int count = 0;
+    for (Column column : schemaColumns) {
+      if (column.isUnique()) {
+        columns[count] = column.getIndex();
+        unique[count++] = true;
+      } else if (!column.getReferences(table.connector).isEmpty()) {
+        columns[count++] = column.getIndex();
+      }
+    }
+    buildHashes(table, Arrays.copyOf(columns, count), Arrays.copyOf(unique, count));
+  }
+
+  /**
+   * Builds the hashes for the given columns, in parallel.  Hashes already built are not rebuilt.
+   *
+   * @param  table    the table, used for error reporting
+   * @param  columns  the columns, in any order
+   * @param  unique   for each of the columns, {@code true} to hash the column by value
+   *                  or {@code false} to index it
+   */
+  void buildHashes(AoservTable<?, ?> table, int[] columns, boolean[] unique) throws IOException, SQLException {
+    final List<Callable<Object>> tasks = new ArrayList<>();
+    // The column and kind of hash of each task, in the order submitted
+    final IntList taskColumns = new IntArrayList();
+    final boolean[] taskUnique = new boolean[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      final int col = columns[i];
+      if (unique[i]) {
+        if (get(uniqueHashes, col) == null) {
+          taskUnique[tasks.size()] = true;
+          taskColumns.add(col);
+          tasks.add(() -> buildUniqueHash(table, col));
+        }
+      } else {
+        if (get(indexHashes, col) == null) {
+          taskColumns.add(col);
+          tasks.add(() -> buildIndexHash(col));
+        }
+      }
+    }
+    if (tasks.isEmpty()) {
+      return;
+    }
+    List<Object> hashes = new ArrayList<>(tasks.size());
+    try {
+      for (Future<Object> future : AoservConnector.executorService.invokeAll(tasks)) {
+        hashes.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw Throwables.wrap(cause, IOException.class, IOException::new);
+    } catch (InterruptedException e) {
+      // Restore the interrupted status
+      Thread.currentThread().interrupt();
+      InterruptedIOException ioErr = new InterruptedIOException();
+      ioErr.initCause(e);
+      throw ioErr;
+    }
+    synchronized (buildLock) {
+      Object[] newUniqueHashes = uniqueHashes;
+      Object[] newIndexHashes = indexHashes;
+      for (int t = 0, size = hashes.size(); t < size; t++) {
+        Object hash = hashes.get(t);
+        int col = taskColumns.getInt(t);
+        if (taskUnique[t]) {
+          if (get(newUniqueHashes, col) == null) {
+            newUniqueHashes = set(newUniqueHashes, col, hash);
+          }
+        } else {
+          if (get(newIndexHashes, col) == null) {
+            newIndexHashes = set(newIndexHashes, col, hash);
+          }
+        }
+      }
+      uniqueHashes = newUniqueHashes;
+      indexHashes = newIndexHashes;
+    }
+  }
+
+  /**
+   * Determines if the unique hash for the given column has been built.
+   */
+  boolean isHashed(int col) {
+    return get(uniqueHashes, col) != null;
+  }
+
+  /**
+   * Determines if the index for the given column has been built.
+   */
+  boolean isIndexed(int col) {
+    return get(indexHashes, col) != null;
+  }
+}
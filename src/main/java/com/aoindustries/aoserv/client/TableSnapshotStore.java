@@ -0,0 +1,212 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Stores the rows of cached tables on disk, so that a new JVM may use them immediately
+ * when the server reports the table has not changed since they were written.
+ *
+ * <p>Each table is stored in its own file, named by table ID, as written by
+ * {@link AoservObject#write(com.aoapps.hodgepodge.io.stream.StreamableOutput, com.aoindustries.aoserv.client.schema.AoservProtocol.Version)}.
+ * The file starts with the protocol version, table ID, table version, and row count, and ends
+ * with a CRC-32 of everything before it.  Files written by a different protocol version, or that fail
+ * their checksum, are ignored.</p>
+ *
+ * <p>Files are written in the background, through a temporary file that is then atomically moved into place.
+ * Only the most recent rows of a table are written when it is reloaded faster than it can be written.
+ * The files contain account data and are created readable only by the owner where supported.</p>
+ *
+ * @see  AoservConnector#setSnapshotDirectory(java.nio.file.Path)
+ *
+ * @author  AO Industries, Inc.
+ */
+final class TableSnapshotStore {
+
+  private static final String SUFFIX = ".snapshot";
+
+  /**
+   * The rows read from the store.
+   */
+  static final class StoredTable<V> {
+
+    /**
+     * The server-provided version of the table when the rows were loaded.
+     */
+    final long version;
+
+    /**
+     * The unmodifiable list of rows, in the order they were loaded.
+     */
+    final List<V> rows;
+
+    private StoredTable(long version, List<V> rows) {
+      this.version = version;
+      this.rows = rows;
+    }
+  }
+
+  private static final class PendingWrite {
+
+    private final AoservTable<?, ?> table;
+    private final long version;
+    private final List<? extends AoservObject<?, ?>> rows;
+
+    private PendingWrite(AoservTable<?, ?> table, long version, List<? extends AoservObject<?, ?>> rows) {
+      this.table = table;
+      this.version = version;
+      this.rows = rows;
+    }
+  }
+
+  private final AoservConnector connector;
+  private final Path directory;
+
+  /**
+   * The most recent rows waiting to be written, by table ID.
+   */
+  private final ConcurrentMap<Integer, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+
+  TableSnapshotStore(AoservConnector connector, Path directory) {
+    this.connector = connector;
+    this.directory = directory;
+  }
+
+  Path getDirectory() {
+    return directory;
+  }
+
+  private Path getFile(AoservTable<?, ?> table) {
+    return directory.resolve(table.getTableId().ordinal() + SUFFIX);
+  }
+
+  /**
+   * Reads the rows previously stored for the given table.
+   *
+   * @return  the stored rows or {@code null} when not stored or not usable
+   */
+  <K, V extends AoservObject<K, V>> StoredTable<V> read(AoservTable<K, V> table) {
+    Path file = getFile(table);
+    try {
+      CRC32 crc = new CRC32();
+      try (StreamableInput in = new StreamableInput(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), crc))) {
+        if (!AoservProtocol.Version.CURRENT_VERSION.getVersion().equals(in.readUTF())) {
+          return null;
+        }
+        if (in.readCompressedInt() != table.getTableId().ordinal()) {
+          return null;
+        }
+        long version = in.readLong();
+        int size = in.readCompressedInt();
+        List<V> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          V obj = table.getNewObject();
+          obj.read(in, AoservProtocol.Version.CURRENT_VERSION);
+          if (obj instanceof SingleTableObject) {
+            @SuppressWarnings("unchecked")
+            SingleTableObject<K, V> sto = (SingleTableObject) obj;
+            sto.setTable(table);
+          }
+          rows.add(obj);
+        }
+        long expected = crc.getValue();
+        if (in.readLong() != expected) {
+          connector.getLogger().log(Level.WARNING, "Ignoring table snapshot with checksum mismatch: {0}", file);
+          return null;
+        }
+        return new StoredTable<>(version, Collections.unmodifiableList(rows));
+      }
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      connector.getLogger().log(Level.WARNING, "Ignoring unreadable table snapshot: " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the rows for the given table in the background.
+   */
+  void write(AoservTable<?, ?> table, long version, List<? extends AoservObject<?, ?>> rows) {
+    Integer tableId = table.getTableId().ordinal();
+    if (pendingWrites.put(tableId, new PendingWrite(table, version, rows)) == null) {
+      AoservConnector.executorService.submit(() -> {
+        PendingWrite pending = pendingWrites.remove(tableId);
+        if (pending != null) {
+          try {
+            write(pending);
+          } catch (IOException | RuntimeException e) {
+            connector.getLogger().log(Level.WARNING, "Unable to write table snapshot: " + pending.table.getTableId(), e);
+          }
+        }
+      });
+    }
+  }
+
+  private void write(PendingWrite pending) throws IOException {
+    Files.createDirectories(directory);
+    Path file = getFile(pending.table);
+    Path tempFile = Files.createTempFile(directory, pending.table.getTableId().ordinal() + "-", ".tmp");
+    try {
+      CRC32 crc = new CRC32();
+      try (BufferedOutputStream bufferedOut = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+        StreamableOutput out = new StreamableOutput(new CheckedOutputStream(bufferedOut, crc));
+        out.writeUTF(AoservProtocol.Version.CURRENT_VERSION.getVersion());
+        out.writeCompressedInt(pending.table.getTableId().ordinal());
+        out.writeLong(pending.version);
+        out.writeCompressedInt(pending.rows.size());
+        for (AoservObject<?, ?> row : pending.rows) {
+          row.write(out, AoservProtocol.Version.CURRENT_VERSION);
+        }
+        out.flush();
+        // Write the checksum directly, outside the checksum itself
+        StreamableOutput crcOut = new StreamableOutput(bufferedOut);
+        crcOut.writeLong(crc.getValue());
+        crcOut.flush();
+      }
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+}
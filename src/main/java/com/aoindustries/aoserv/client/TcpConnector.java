@@ -37,6 +37,7 @@ import com.aoapps.net.HostAddress;
 import com.aoapps.net.Port;
 import com.aoindustries.aoserv.client.account.User;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import com.aoindustries.aoserv.client.schema.Table;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InterruptedIOException;
@@ -46,9 +47,15 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.logging.Level;
 import javax.swing.SwingUtilities;
 
@@ -75,7 +82,7 @@ public class TcpConnector extends AoservConnector {
 
   /**
    * Close cache monitor after 60 seconds of inactivity,
-   * when there is no non-global-cached data, such as after a call to
+   * when it is not subscribed to any tables, such as after a call to
    * {@link TcpConnector#clearCaches()}.
    *
    * <p>This helps support a more timely shutdown.
@@ -85,15 +92,30 @@ public class TcpConnector extends AoservConnector {
    * <p>The cache monitor is only shutdown when there are no registered
    * {@linkplain AoservTable#addTableListener(com.aoapps.hodgepodge.table.TableListener) table listeners}.</p>
    */
-  // TODO: Use this value, somehow, in a meaningful way.
-  // TODO: private static final long MAX_IDLE_LISTEN_CACHES_NOTHING_CACHED = 60L * 1000;
+  private static final long MAX_IDLE_LISTEN_CACHES_NOTHING_CACHED = 60L * 1000;
 
-  class CacheMonitor extends Thread {
+  /**
+   * The maximum time to wait for the server to acknowledge a new subscription before loading a table.
+   * Upon timeout, the table is loaded anyway and a warning is logged.  The table is then used without waiting
+   * again, and is reloaded once the subscription is acknowledged.
+   */
+  private static final long SUBSCRIBE_TIMEOUT = 10L * 1000;
 
-    CacheMonitor() {
-      super("TcpConnector - CacheMonitor");
-      setDaemon(true);
-    }
+  /**
+   * Tables remain subscribed for 5 minutes after their most recent load, even once invalidated, so that
+   * tables that are frequently invalidated and reloaded do not wait on a new subscription for every load.
+   */
+  private static final long SUBSCRIPTION_GRACE_PERIOD = 5L * 60 * 1000;
+
+  /**
+   * Avoid repeated copies.
+   */
+  private static final int numTables = Table.TableId.values().length;
+
+  /**
+   * Runs on a virtual thread when {@linkplain ClientThreads#LIGHTWEIGHT lightweight threads} are enabled and supported.
+   */
+  class CacheMonitor implements Runnable {
 
     @Override
     @SuppressWarnings({"SleepWhileInLoop", "UseSpecificCatch", "TooBroadCatch"})
@@ -103,67 +125,123 @@ public class TcpConnector extends AoservConnector {
         boolean runMore = true;
         while (runMore && !Thread.currentThread().isInterrupted()) {
           try {
-            try (SocketConnection conn = getConnection(1)) {
+            try (SocketConnection conn = getSocketConnection(1)) {
               try {
                 // System.err.println("DEBUG: TcpConnector("+connectAs+"-"+getConnectorId()+").CacheMonitor: run: conn.identityHashCode="+System.identityHashCode(conn));
-                StreamableOutput out = conn.getRequestOut(AoservProtocol.CommandId.LISTEN_CACHES);
-                // TODO: Only listen for caches on tables where there is either something currently cached
-                // TODO: (how to handle shared caches of global cached tables?) or where there is
-                // TODO: at least one registered table listener.  Otherwise the cache signals are
-                // TODO: of no value.
-                // TODO:
-                // TODO: This would also help a connector shutdown be meaningful after clearCaches()
-                // TODO: As-is, the connector may continue to receive incoming cache notifications,
-                // TODO: Thus keeping itself active potentially forever.
-                out.flush();
+                if (!isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT)) {
+                  // Older servers notify for all tables
+                  StreamableOutput out = conn.getRequestOut(AoservProtocol.CommandId.LISTEN_CACHES);
+                  out.flush();
+                  List<AoservTable<?, ?>> revalidate;
+                  synchronized (subscriptionLock) {
+                    monitorAllTables = true;
+                    monitorDown = false;
+                    subscriptionLock.notifyAll();
+                    revalidate = getRevalidations();
+                  }
+                  for (AoservTable<?, ?> table : revalidate) {
+                    table.clearCache();
+                  }
 
-                StreamableInput in = conn.getResponseIn();
-                IntList tableList = new IntArrayList();
-                while (runMore && !Thread.currentThread().isInterrupted()) {
-                  synchronized (cacheMonitorLock) {
-                    long currentTime = System.currentTimeMillis();
-                    long timeSince = currentTime - connectionLastUsed;
-                    if (timeSince < 0) {
-                      // System time reset to the past
-                      connectionLastUsed = currentTime;
-                    } else if (timeSince >= MAX_IDLE_LISTEN_CACHES) {
-                      // Must also not have any invalidate listeners
-                      boolean foundListener = false;
-                      for (AoservTable<?, ?> table : getTables()) {
-                        if (table.hasAnyTableListener()) {
-                          foundListener = true;
-                          break;
+                  StreamableInput in = conn.getResponseIn();
+                  IntList tableList = new IntArrayList();
+                  while (runMore && !Thread.currentThread().isInterrupted()) {
+                    runMore = !isIdle();
+                    if (runMore) {
+                      tableList.clear();
+                      boolean isSynchronous = in.readBoolean();
+                      int size = in.readCompressedInt();
+                      if (size != -1) {
+                        for (int c = 0; c < size; c++) {
+                          int tableId = in.readCompressedInt();
+                          tableList.add(tableId);
                         }
                       }
-                      if (foundListener) {
-                        // Don't check again until MAX_IDLE_LISTEN_CACHES milliseconds pass
-                        connectionLastUsed = currentTime;
-                      } else {
-                        runMore = false;
+                      // No tables listed for "ping"
+                      if (!tableList.isEmpty()) {
+                        tablesUpdated(tableList);
+                      }
+                      // Subscriptions are still tracked locally for the idle timeout
+                      pruneSubscriptions(false);
+                      if (isSynchronous) {
+                        out.writeBoolean(true);
+                        out.flush();
                       }
                     }
                   }
+                  continue;
+                }
+                // Only listen for tables that are cached or have listeners
+                StreamableOutput out = conn.getRequestOut(AoservProtocol.CommandId.LISTEN_CACHES_SUBSCRIBED);
+                synchronized (subscriptionLock) {
+                  writeSubscriptions(out);
+                  out.flush();
+                  monitorConn = conn;
+                  monitorOut = out;
+                  monitorDown = false;
+                }
+
+                StreamableInput in = conn.getResponseIn();
+                IntList tableList = new IntArrayList();
+                while (runMore && !Thread.currentThread().isInterrupted()) {
+                  runMore = !isIdle();
                   if (runMore) {
-                    tableList.clear();
-                    boolean isSynchronous = in.readBoolean();
-                    int size = in.readCompressedInt();
-                    if (size != -1) {
-                      for (int c = 0; c < size; c++) {
-                        int tableId = in.readCompressedInt();
-                        tableList.add(tableId);
+                    int code = in.readByte();
+                    if (code == AoservProtocol.DONE) {
+                      // Subscription acknowledged
+                      long version = in.readLong();
+                      List<AoservTable<?, ?>> revalidate;
+                      synchronized (subscriptionLock) {
+                        if (version > subscriptionAcknowledged) {
+                          subscriptionAcknowledged = version;
+                        }
+                        subscriptionLock.notifyAll();
+                        revalidate = getRevalidations();
                       }
-                    }
-                    // No tables listed for "ping"
-                    if (!tableList.isEmpty()) {
-                      tablesUpdated(tableList);
-                    }
-                    if (isSynchronous) {
-                      out.writeBoolean(true);
-                      out.flush();
+                      for (AoservTable<?, ?> table : revalidate) {
+                        table.clearCache();
+                      }
+                    } else if (code == AoservProtocol.NEXT) {
+                      tableList.clear();
+                      boolean isSynchronous = in.readBoolean();
+                      int size = in.readCompressedInt();
+                      if (size != -1) {
+                        for (int c = 0; c < size; c++) {
+                          int tableId = in.readCompressedInt();
+                          tableList.add(tableId);
+                        }
+                      }
+                      // No tables listed for "ping"
+                      if (!tableList.isEmpty()) {
+                        tablesUpdated(tableList);
+                      }
+                      // Also unsubscribes once the grace period has passed for tables that are no longer updated
+                      pruneSubscriptions(false);
+                      if (isSynchronous) {
+                        synchronized (subscriptionLock) {
+                          out.writeByte(AoservProtocol.DONE);
+                          out.flush();
+                        }
+                      }
+                    } else {
+                      AoservProtocol.checkResult(code, in);
+                      throw new IOException("Unexpected response code: " + code);
                     }
                   }
                 }
               } finally {
+                synchronized (subscriptionLock) {
+                  if (monitorConn == conn) {
+                    monitorConn = null;
+                    monitorOut = null;
+                  }
+                  monitorAllTables = false;
+                  // Do not make loads wait while reconnecting
+                  monitorDown = true;
+                  // All caches are cleared on disconnect
+                  Arrays.fill(revalidateSubscription, 0);
+                  subscriptionLock.notifyAll();
+                }
                 // Force closed - no reuse after this normally neverending command
                 Throwable t0 = conn.abort(null);
                 if (t0 != null) {
@@ -185,7 +263,7 @@ public class TcpConnector extends AoservConnector {
               getLogger().log(Level.INFO, null, err);
               try {
                 // System.err.println("DEBUG: TcpConnector("+connectAs+"-"+getConnectorId()+").CacheMonitor: run: Sleeping after exception");
-                sleep(getFastRandom().nextInt(50000) + 10000); // Wait between 10 and 60 seconds
+                Thread.sleep(getFastRandom().nextInt(50000) + 10000); // Wait between 10 and 60 seconds
               } catch (InterruptedException err2) {
                 getLogger().log(Level.WARNING, null, err2);
                 // Restore the interrupted status
@@ -199,7 +277,7 @@ public class TcpConnector extends AoservConnector {
               getLogger().log(Level.SEVERE, null, t);
               try {
                 // System.err.println("DEBUG: TcpConnector("+connectAs+"-"+getConnectorId()+").CacheMonitor: run: Sleeping after exception");
-                sleep(getFastRandom().nextInt(50000) + 10000); // Wait between 10 and 60 seconds
+                Thread.sleep(getFastRandom().nextInt(50000) + 10000); // Wait between 10 and 60 seconds
               } catch (InterruptedException err2) {
                 getLogger().log(Level.WARNING, null, err2);
                 // Restore the interrupted status
@@ -244,6 +322,63 @@ public class TcpConnector extends AoservConnector {
   final int poolSize;
   final long maxConnectionAge;
 
+  /**
+   * When {@code true}, requests share a single connection through a {@link SocketMultiplexer}.
+   * The pool is still used for the cache monitor.
+   */
+  final boolean multiplexed;
+
+  /**
+   * The newest protocol version of servers that do not support the commands added in
+   * {@link AoservProtocol.Version#VERSION_1_92_2_5_SNAPSHOT}.  This is requested when the server
+   * rejects the current version.  Rows are written the same in both versions.
+   */
+  private static final AoservProtocol.Version FALLBACK_VERSION = AoservProtocol.Version.VERSION_1_92_2_4_SNAPSHOT;
+
+  /**
+   * The protocol version requested by new connections.  Once a server has rejected the current version,
+   * the {@link #FALLBACK_VERSION} is used for the life of this connector.
+   */
+  private volatile AoservProtocol.Version protocolVersion = AoservProtocol.Version.CURRENT_VERSION;
+
+  /**
+   * Set once a connection has been established, and {@link #protocolVersion} is known to be supported.
+   */
+  private volatile boolean protocolVersionConnected;
+
+  /**
+   * The commands with large or streaming responses.  These are always sent over a dedicated
+   * {@linkplain #getSocketConnection(int) pooled connection}, since the multiplexed connection
+   * has no flow control and would buffer the entire response in memory whenever the caller reads
+   * more slowly than the server writes.
+   */
+  private static final Set<AoservProtocol.CommandId> BULK_COMMANDS = Collections.unmodifiableSet(EnumSet.of(
+      AoservProtocol.CommandId.GET_TABLE,
+      AoservProtocol.CommandId.GET_TABLES,
+      AoservProtocol.CommandId.GET_TABLE_DELTA,
+      AoservProtocol.CommandId.GET_TABLE_FILTERED,
+      AoservProtocol.CommandId.GET_TABLE_PAGE,
+      AoservProtocol.CommandId.DUMP_MYSQL_DATABASE,
+      AoservProtocol.CommandId.DUMP_MYSQL_DATABASE_RESUMABLE,
+      AoservProtocol.CommandId.DUMP_POSTGRES_DATABASE,
+      AoservProtocol.CommandId.DUMP_POSTGRES_DATABASE_RESUMABLE
+  ));
+
+  private static class MultiplexerLock {
+    // Empty lock class to help heap profile
+  }
+
+  /**
+   * Held while connecting a new multiplexer, so concurrent callers share the one new connection.
+   * This is never held while only reading {@link #multiplexer}.
+   */
+  private final MultiplexerLock multiplexerLock = new MultiplexerLock();
+
+  /**
+   * The current multiplexer, created on first use and replaced once closed.
+   */
+  private volatile SocketMultiplexer multiplexer;
+
   private static class CacheMonitorLock {
     // Empty lock class to help heap profile
   }
@@ -252,6 +387,70 @@ public class TcpConnector extends AoservConnector {
   private long connectionLastUsed;
   private CacheMonitor cacheMonitor;
 
+  private static class SubscriptionLock {
+    // Empty lock class to help heap profile
+  }
+
+  /**
+   * Protects all subscription state and all writes to {@link #monitorOut}.
+   * Notified when a subscription is acknowledged or the cache monitor disconnects.
+   */
+  private final SubscriptionLock subscriptionLock = new SubscriptionLock();
+
+  /**
+   * The IDs of the tables the cache monitor listens to.
+   */
+  private final BitSet subscribed = new BitSet(numTables);
+
+  /**
+   * The number of loads in progress for each table.  A table being loaded remains subscribed.
+   */
+  private final int[] loading = new int[numTables];
+
+  /**
+   * The time the most recent load of each table ended, used for the {@link #SUBSCRIPTION_GRACE_PERIOD}.
+   */
+  private final long[] loadEnded = new long[numTables];
+
+  /**
+   * Incremented on each change to {@link #subscribed}.
+   */
+  private long subscriptionVersion;
+
+  /**
+   * The {@link #subscriptionVersion} at which each subscribed table was added.
+   */
+  private final long[] subscribedVersion = new long[numTables];
+
+  /**
+   * The most recent subscription version acknowledged by the server.
+   */
+  private long subscriptionAcknowledged = -1;
+
+  /**
+   * The subscription that must be acknowledged before each table is invalidated once, or {@code 0} for none.
+   * Set for tables loaded before their subscription was acknowledged, since an invalidation may have been missed.
+   */
+  private final long[] revalidateSubscription = new long[numTables];
+
+  /**
+   * The connection and output of the currently connected cache monitor or {@code null} when not connected.
+   */
+  private SocketConnection monitorConn;
+  private StreamableOutput monitorOut;
+
+  /**
+   * Set when the cache monitor has lost its connection, cleared once connected.
+   * Loads do not wait for subscriptions to be acknowledged while down.
+   */
+  private boolean monitorDown;
+
+  /**
+   * Set while the cache monitor is connected to a server that does not support subscriptions,
+   * which notifies for all tables.
+   */
+  private boolean monitorAllTables;
+
   protected TcpConnector(
       HostAddress hostname,
       com.aoapps.net.InetAddress localIp,
@@ -262,6 +461,21 @@ public class TcpConnector extends AoservConnector {
       DomainName daemonServer,
       int poolSize,
       long maxConnectionAge
+  ) {
+    this(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer, poolSize, maxConnectionAge, false);
+  }
+
+  protected TcpConnector(
+      HostAddress hostname,
+      com.aoapps.net.InetAddress localIp,
+      Port port,
+      User.Name connectAs,
+      User.Name authenticateAs,
+      String password,
+      DomainName daemonServer,
+      int poolSize,
+      long maxConnectionAge,
+      boolean multiplexed
   ) {
     super(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer);
     if (port.getProtocol() != com.aoapps.net.Protocol.TCP) {
@@ -269,29 +483,180 @@ public class TcpConnector extends AoservConnector {
     }
     this.poolSize = poolSize;
     this.maxConnectionAge = maxConnectionAge;
+    this.multiplexed = multiplexed;
     this.pool = new SocketConnectionPool(this, getLogger());
   }
 
+  /**
+   * Checks if the cache monitor has been idle long enough to be stopped.
+   * The cache monitor is never idle while any table listener is registered.
+   */
+  private boolean isIdle() {
+    boolean nothingCached;
+    synchronized (subscriptionLock) {
+      nothingCached = subscribed.isEmpty();
+    }
+    synchronized (cacheMonitorLock) {
+      long currentTime = System.currentTimeMillis();
+      long timeSince = currentTime - connectionLastUsed;
+      if (timeSince < 0) {
+        // System time reset to the past
+        connectionLastUsed = currentTime;
+      } else if (timeSince >= (nothingCached ? MAX_IDLE_LISTEN_CACHES_NOTHING_CACHED : MAX_IDLE_LISTEN_CACHES)) {
+        // Must also not have any invalidate listeners
+        for (AoservTable<?, ?> table : getTables()) {
+          if (table.hasAnyTableListener()) {
+            // Don't check again until MAX_IDLE_LISTEN_CACHES milliseconds pass
+            connectionLastUsed = currentTime;
+            return false;
+          }
+        }
+        return true;
+      }
+      return false;
+    }
+  }
+
   private void startCacheMonitor() {
     synchronized (cacheMonitorLock) {
       connectionLastUsed = System.currentTimeMillis();
       if (cacheMonitor == null) {
-        (cacheMonitor = new CacheMonitor()).start();
+        synchronized (subscriptionLock) {
+          monitorDown = false;
+        }
+        ClientThreads.newThread("TcpConnector - CacheMonitor", cacheMonitor = new CacheMonitor()).start();
       }
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>When {@linkplain #isMultiplexed() multiplexed}, this returns a lightweight connection for one request over
+   * the shared connection, and <code>maxConnections</code> is not used.</p>
+   */
+  @Override
+  protected final AoservConnection getConnection(int maxConnections) throws InterruptedIOException, IOException {
+    return getConnection(null, maxConnections);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>When {@linkplain #isMultiplexed() multiplexed}, the commands with large or streaming responses still use
+   * a dedicated pooled connection, as does every command when the server does not support
+   * {@link AoservProtocol.CommandId#MULTIPLEX}.</p>
+   */
   @Override
-  protected final SocketConnection getConnection(int maxConnections) throws InterruptedIOException, IOException {
+  protected final AoservConnection getConnection(AoservProtocol.CommandId commandId, int maxConnections) throws InterruptedIOException, IOException {
     if (SwingUtilities.isEventDispatchThread()) {
       getLogger().log(Level.WARNING, null, new LocalizedIllegalStateException(RESOURCES, "getConnection.isEventDispatchThread"));
     }
     startCacheMonitor();
+    if (
+        multiplexed
+            && !BULK_COMMANDS.contains(commandId)
+            && isProtocolSupported(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT)
+    ) {
+      return getMultiplexer().newConnection();
+    }
     SocketConnection conn = pool.getConnection(maxConnections);
     // System.err.println("DEBUG: TcpConnector("+connectAs+"-"+getConnectorId()+"): getConnection("+maxConnections+"): conn.identityHashCode="+System.identityHashCode(conn));
     return conn;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Bulk commands always use pooled connections, even when {@linkplain #isMultiplexed() multiplexed}, so this
+   * is the pool size less one connection for the cache monitor.</p>
+   */
+  @Override
+  final int getMaxBulkConnections() {
+    return Math.max(1, poolSize - 1);
+  }
+
+  /**
+   * Connects a new socket, requesting the {@linkplain #getProtocolVersion() current protocol version}.
+   * When the server rejects the current version, the connection is retried with the version before
+   * the most recent commands were added.
+   */
+  SocketConnection newSocketConnection() throws InterruptedIOException, IOException {
+    AoservProtocol.Version version = protocolVersion;
+    SocketConnection conn;
+    try {
+      conn = new SocketConnection(this, version);
+    } catch (SocketConnection.RejectedException e) {
+      if (version == FALLBACK_VERSION) {
+        throw e;
+      }
+      try {
+        conn = new SocketConnection(this, FALLBACK_VERSION);
+      } catch (IOException e2) {
+        // Not rejected for the protocol version
+        e.addSuppressed(e2);
+        throw e;
+      }
+      protocolVersion = FALLBACK_VERSION;
+      getLogger().log(
+          Level.INFO,
+          "Server does not support protocol version {0}, using {1}",
+          new Object[]{version.getVersion(), FALLBACK_VERSION.getVersion()}
+      );
+    }
+    protocolVersionConnected = true;
+    return conn;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Connects to the server when no connection has yet been established.</p>
+   */
+  @Override
+  public AoservProtocol.Version getProtocolVersion() throws InterruptedIOException, IOException {
+    if (!protocolVersionConnected) {
+      // Connecting negotiates the version
+      getSocketConnection(1).close();
+    }
+    return protocolVersion;
+  }
+
+  /**
+   * Gets a dedicated connection from the pool, even when multiplexed.  This is used for
+   * long-running commands that should not share the multiplexed connection.
+   */
+  private SocketConnection getSocketConnection(int maxConnections) throws InterruptedIOException, IOException {
+    return pool.getConnection(maxConnections);
+  }
+
+  /**
+   * Gets the current multiplexer, connecting a new one when not yet connected or closed.
+   * Concurrent callers wait for and share the one new connection.
+   */
+  private SocketMultiplexer getMultiplexer() throws InterruptedIOException, IOException {
+    SocketMultiplexer m = multiplexer;
+    if (m != null && !m.isClosed()) {
+      return m;
+    }
+    synchronized (multiplexerLock) {
+      // Another thread may have connected while waiting
+      m = multiplexer;
+      if (m == null || m.isClosed()) {
+        m = new SocketMultiplexer(this);
+        multiplexer = m;
+      }
+      return m;
+    }
+  }
+
+  /**
+   * Determines if requests share a single multiplexed connection.
+   */
+  public final boolean isMultiplexed() {
+    return multiplexed;
+  }
+
   @Override
   public String getProtocol() {
     return TCP_PROTOCOL;
@@ -327,6 +692,21 @@ public class TcpConnector extends AoservConnector {
       DomainName daemonServer,
       int poolSize,
       long maxConnectionAge
+  ) {
+    return getTcpConnector(hostname, localIp, port, connectAs, authenticateAs, password, daemonServer, poolSize, maxConnectionAge, false);
+  }
+
+  public static synchronized TcpConnector getTcpConnector(
+      HostAddress hostname,
+      com.aoapps.net.InetAddress localIp,
+      Port port,
+      User.Name connectAs,
+      User.Name authenticateAs,
+      String password,
+      DomainName daemonServer,
+      int poolSize,
+      long maxConnectionAge,
+      boolean multiplexed
   ) {
     if (connectAs == null) {
       throw new IllegalArgumentException("connectAs is null");
@@ -362,6 +742,7 @@ public class TcpConnector extends AoservConnector {
               && Objects.equals(daemonServer, connector.daemonServer)
               && connector.poolSize == poolSize
               && connector.maxConnectionAge == maxConnectionAge
+              && connector.multiplexed == multiplexed
       ) {
         return connector;
       }
@@ -375,7 +756,8 @@ public class TcpConnector extends AoservConnector {
         password,
         daemonServer,
         poolSize,
-        maxConnectionAge
+        maxConnectionAge,
+        multiplexed
     );
     connectors.add(newConnector);
     return newConnector;
@@ -396,7 +778,7 @@ public class TcpConnector extends AoservConnector {
       return true;
     }
     // Allow same class C subnet as this host
-    try (SocketConnection conn = getConnection(1)) {
+    try (SocketConnection conn = getSocketConnection(1)) {
       try {
         InetAddress ia = conn.getLocalInetAddress();
         byte[] localAddress = ia.getAddress();
@@ -413,12 +795,34 @@ public class TcpConnector extends AoservConnector {
   @Override
   public final void printConnectionStatsHtml(Appendable out, boolean isXhtml) throws IOException {
     pool.printStatisticsHtml(out, isXhtml);
+    if (multiplexed) {
+      // Not synchronized on multiplexerLock, which is held while connecting
+      SocketMultiplexer m = multiplexer;
+      if (isXhtml) {
+        out.append("<br /><br />\n");
+      } else {
+        out.append("<br><br>\n");
+      }
+      out.append("<table class=\"ao-grid\">\n"
+          + "  <thead>\n"
+          + "    <tr><th colspan=\"2\"><span style=\"font-size:large\">Multiplexed Connection</span></th></tr>\n"
+          + "  </thead>\n"
+          + "  <tbody>\n"
+          + "    <tr><td>Connected:</td><td>").append(Boolean.toString(m != null && !m.isClosed())).append("</td></tr>\n"
+          + "    <tr><td>In-Flight Requests:</td><td>").append(Integer.toString(m == null ? 0 : m.getInFlightCount())).append("</td></tr>\n"
+          + "  </tbody>\n"
+          + "</table>\n");
+    }
   }
 
   @Override
   protected final void release(AoservConnection conn) throws IOException {
     // System.err.println("DEBUG: TcpConnector("+connectAs+"-"+getConnectorId()+"): release("+System.identityHashCode(conn)+"): conn.identityHashCode="+System.identityHashCode(conn));
-    pool.release((SocketConnection) conn);
+    if (conn instanceof MultiplexedConnection) {
+      ((MultiplexedConnection) conn).release();
+    } else {
+      pool.release((SocketConnection) conn);
+    }
   }
 
   @Override
@@ -434,15 +838,227 @@ public class TcpConnector extends AoservConnector {
         password,
         daemonServer,
         poolSize,
-        maxConnectionAge
+        maxConnectionAge,
+        multiplexed
     );
   }
 
   /**
-   * Start the CacheMonitor when a new table listener is added.
+   * Start the CacheMonitor and subscribe to the table when a new table listener is added.
+   */
+  @Override
+  void addingTableListener(AoservTable<?, ?> table) {
+    startCacheMonitor();
+    synchronized (subscriptionLock) {
+      if (subscribe(table.getTableId().ordinal())) {
+        sendSubscriptions();
+      }
+    }
+  }
+
+  /**
+   * Adds a table to the subscriptions, without sending them.
+   *
+   * @return  {@code true} when newly subscribed
+   */
+  private boolean subscribe(int tableId) {
+    assert Thread.holdsLock(subscriptionLock);
+    if (subscribed.get(tableId)) {
+      return false;
+    }
+    subscribed.set(tableId);
+    subscribedVersion[tableId] = ++subscriptionVersion;
+    return true;
+  }
+
+  /**
+   * Subscribes to the table, without waiting for the server to acknowledge the subscription.
+   * A table already subscribed, such as within its {@linkplain #SUBSCRIPTION_GRACE_PERIOD grace period}
+   * after being invalidated, is typically already acknowledged.
+   */
+  @Override
+  final long beginCacheLoad(AoservTable<?, ?> table) {
+    startCacheMonitor();
+    int tableId = table.getTableId().ordinal();
+    synchronized (subscriptionLock) {
+      loading[tableId]++;
+      if (subscribe(tableId)) {
+        sendSubscriptions();
+      }
+      return subscribedVersion[tableId];
+    }
+  }
+
+  /**
+   * Subscribes to all the tables with a single update to the server.
    */
   @Override
-  void addingTableListener() {
+  final long beginCacheLoad(Collection<? extends AoservTable<?, ?>> tables) {
     startCacheMonitor();
+    synchronized (subscriptionLock) {
+      boolean modified = false;
+      long subscription = -1;
+      for (AoservTable<?, ?> table : tables) {
+        int tableId = table.getTableId().ordinal();
+        loading[tableId]++;
+        if (subscribe(tableId)) {
+          modified = true;
+        }
+        subscription = Math.max(subscription, subscribedVersion[tableId]);
+      }
+      if (modified) {
+        sendSubscriptions();
+      }
+      return subscription;
+    }
+  }
+
+  /**
+   * Waits for the subscription so that no invalidation can be missed between the load and the subscription.
+   * Does not wait while the cache monitor is disconnected.
+   */
+  @Override
+  final void awaitCacheSubscription(AoservTable<?, ?> table, long subscription) throws InterruptedIOException {
+    synchronized (subscriptionLock) {
+      long waitStart = System.currentTimeMillis();
+      while (!isCacheSubscribed(subscription)) {
+        long remaining = SUBSCRIBE_TIMEOUT - (System.currentTimeMillis() - waitStart);
+        if (remaining <= 0 || remaining > SUBSCRIBE_TIMEOUT) {
+          getLogger().log(Level.WARNING, "Subscription not acknowledged, loading anyway: {0}", table.getTableId());
+          break;
+        }
+        try {
+          subscriptionLock.wait(remaining);
+        } catch (InterruptedException e) {
+          // Restore the interrupted status
+          Thread.currentThread().interrupt();
+          InterruptedIOException ioErr = new InterruptedIOException();
+          ioErr.initCause(e);
+          throw ioErr;
+        }
+      }
+    }
+  }
+
+  @Override
+  final boolean isCacheSubscribed(long subscription) {
+    synchronized (subscriptionLock) {
+      return subscriptionAcknowledged >= subscription || monitorDown || monitorAllTables;
+    }
+  }
+
+  /**
+   * Invalidates the table once the subscription is acknowledged, or immediately when already acknowledged.
+   */
+  @Override
+  final void revalidateOnCacheSubscribed(AoservTable<?, ?> table, long subscription) {
+    int tableId = table.getTableId().ordinal();
+    synchronized (subscriptionLock) {
+      if (!isCacheSubscribed(subscription)) {
+        revalidateSubscription[tableId] = Math.max(revalidateSubscription[tableId], subscription);
+        return;
+      }
+    }
+    table.clearCache();
+  }
+
+  /**
+   * Gets the tables to be invalidated now that their subscriptions are acknowledged,
+   * no longer waiting on them.
+   */
+  private List<AoservTable<?, ?>> getRevalidations() {
+    assert Thread.holdsLock(subscriptionLock);
+    List<AoservTable<?, ?>> revalidate = null;
+    for (int tableId = 0; tableId < numTables; tableId++) {
+      long subscription = revalidateSubscription[tableId];
+      if (subscription != 0 && isCacheSubscribed(subscription)) {
+        revalidateSubscription[tableId] = 0;
+        if (revalidate == null) {
+          revalidate = new ArrayList<>();
+        }
+        revalidate.add(getTable(tableId));
+      }
+    }
+    return revalidate == null ? Collections.emptyList() : revalidate;
+  }
+
+  @Override
+  final void endCacheLoad(AoservTable<?, ?> table) {
+    int tableId = table.getTableId().ordinal();
+    synchronized (subscriptionLock) {
+      loading[tableId]--;
+      loadEnded[tableId] = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Also unsubscribes from all tables without listeners, without any grace period.
+   */
+  @Override
+  public void clearCaches() {
+    super.clearCaches();
+    pruneSubscriptions(true);
+  }
+
+  /**
+   * Unsubscribes from any tables that are no longer loaded, are not being loaded, and have no listeners.
+   *
+   * @param  immediate  when {@code false}, tables loaded within the {@link #SUBSCRIPTION_GRACE_PERIOD} remain subscribed
+   */
+  private void pruneSubscriptions(boolean immediate) {
+    synchronized (subscriptionLock) {
+      long currentTime = System.currentTimeMillis();
+      boolean modified = false;
+      for (int tableId = subscribed.nextSetBit(0); tableId >= 0; tableId = subscribed.nextSetBit(tableId + 1)) {
+        AoservTable<?, ?> table = getTable(tableId);
+        long sinceLoad = currentTime - loadEnded[tableId];
+        if (
+            loading[tableId] == 0
+                && (immediate || sinceLoad < 0 || sinceLoad >= SUBSCRIPTION_GRACE_PERIOD)
+                && !table.isLoaded()
+                && !table.hasAnyTableListener()
+        ) {
+          subscribed.clear(tableId);
+          modified = true;
+        }
+      }
+      if (modified) {
+        subscriptionVersion++;
+        sendSubscriptions();
+      }
+    }
+  }
+
+  /**
+   * Writes the current subscription version and set of table IDs.
+   */
+  private void writeSubscriptions(StreamableOutput out) throws IOException {
+    assert Thread.holdsLock(subscriptionLock);
+    out.writeLong(subscriptionVersion);
+    out.writeCompressedInt(subscribed.cardinality());
+    for (int tableId = subscribed.nextSetBit(0); tableId >= 0; tableId = subscribed.nextSetBit(tableId + 1)) {
+      out.writeCompressedInt(tableId);
+    }
+  }
+
+  /**
+   * Sends the current subscriptions to the cache monitor, if connected.
+   * When not connected, the cache monitor sends the subscriptions when it connects.
+   * Upon failure, the cache monitor is disconnected, which clears all caches.
+   */
+  private void sendSubscriptions() {
+    assert Thread.holdsLock(subscriptionLock);
+    if (monitorOut != null) {
+      try {
+        monitorOut.writeByte(AoservProtocol.NEXT);
+        writeSubscriptions(monitorOut);
+        monitorOut.flush();
+      } catch (IOException e) {
+        Throwable t0 = monitorConn.abort(e);
+        getLogger().log(Level.WARNING, null, t0);
+        monitorConn = null;
+        monitorOut = null;
+      }
+    }
   }
 }
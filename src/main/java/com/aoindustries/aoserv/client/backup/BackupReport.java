@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2003-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2003-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -47,6 +47,8 @@ import java.sql.SQLException;
 public final class BackupReport extends AoservObject<Integer, BackupReport> implements SingleTableObject<Integer, BackupReport> {
 
   static final int COLUMN_PKEY = 0;
+  static final int COLUMN_SERVER = 1;
+  static final int COLUMN_PACKAGE = 2;
   static final String COLUMN_DATE_name = "date";
   static final String COLUMN_SERVER_name = "server";
   static final String COLUMN_PACKAGE_name = "package";
@@ -98,9 +100,9 @@ public final class BackupReport extends AoservObject<Integer, BackupReport> impl
     switch (i) {
       case COLUMN_PKEY:
         return pkey;
-      case 1:
+      case COLUMN_SERVER:
         return host_id;
-      case 2:
+      case COLUMN_PACKAGE:
         return package_id;
       case 3:
         return getDate();
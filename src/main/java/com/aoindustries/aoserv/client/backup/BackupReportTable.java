@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2003-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2003-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -25,6 +25,7 @@ package com.aoindustries.aoserv.client.backup;
 
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.AoservTable;
+import com.aoindustries.aoserv.client.ColumnFilter;
 import com.aoindustries.aoserv.client.billing.Package;
 import com.aoindustries.aoserv.client.net.Host;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
@@ -80,31 +81,11 @@ public final class BackupReportTable extends AoservTable<Integer, BackupReport>
   }
 
   public List<BackupReport> getBackupReports(Package pk) throws IOException, SQLException {
-    int package_id = pk.getPkey();
-    List<BackupReport> cached = getRows();
-    int size = cached.size();
-    List<BackupReport> matches = new ArrayList<>(size);
-    for (int c = 0; c < size; c++) {
-      BackupReport br = cached.get(c);
-      if (br.getPackage_id() == package_id) {
-        matches.add(br);
-      }
-    }
-    return matches;
+    return getFilteredRows(ColumnFilter.equalTo(BackupReport.COLUMN_PACKAGE, pk.getPkey()));
   }
 
   public List<BackupReport> getBackupReports(Host host) throws IOException, SQLException {
-    int host_id = host.getPkey();
-    List<BackupReport> cached = getRows();
-    int size = cached.size();
-    List<BackupReport> matches = new ArrayList<>(size);
-    for (int c = 0; c < size; c++) {
-      BackupReport br = cached.get(c);
-      if (br.getHost_id() == host_id) {
-        matches.add(br);
-      }
-    }
-    return matches;
+    return getFilteredRows(ColumnFilter.equalTo(BackupReport.COLUMN_SERVER, host.getPkey()));
   }
 
   @Override
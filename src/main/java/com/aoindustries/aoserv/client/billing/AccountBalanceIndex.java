@@ -0,0 +1,219 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.billing;
+
+import com.aoapps.lang.i18n.Monies;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The running balances of one account, for finding its balance before any time by binary search.
+ *
+ * <p>The transactions are ordered by time, keeping table order for equal times, with the balance before
+ * each transaction.  When the table is reloaded and the account's transactions only have new transactions
+ * added at or after the latest time, the new index extends the previous instead of summing again.</p>
+ *
+ * @see  TransactionTable#getAccountBalance(com.aoindustries.aoserv.client.account.Account, java.sql.Timestamp)
+ *
+ * @author  AO Industries, Inc.
+ */
+final class AccountBalanceIndex {
+
+  /**
+   * The transactions of the account, in table order.
+   */
+  final List<Transaction> transactions;
+
+  /**
+   * The times of the transactions, ascending.
+   */
+  private final Timestamp[] times;
+
+  /**
+   * The balance of transactions not {@link Transaction#NOT_CONFIRMED}, before each transaction by time,
+   * with the total balance at the end.
+   */
+  private final Monies[] balances;
+
+  /**
+   * The balance of transactions {@link Transaction#CONFIRMED}, before each transaction by time,
+   * with the total balance at the end.
+   */
+  private final Monies[] confirmedBalances;
+
+  /**
+   * The balance after each transaction in table order, created when first needed.
+   */
+  private volatile Map<Transaction, Monies> transactionBalances;
+
+  private AccountBalanceIndex(List<Transaction> transactions, Timestamp[] times, Monies[] balances, Monies[] confirmedBalances) {
+    this.transactions = transactions;
+    this.times = times;
+    this.balances = balances;
+    this.confirmedBalances = confirmedBalances;
+  }
+
+  /**
+   * Indexes the given transactions, extending the previous index when possible.
+   *
+   * @param  transactions  the unmodifiable transactions of one account, in table order
+   * @param  previous      the index of the account before the table was reloaded or {@code null} for none
+   */
+  static AccountBalanceIndex of(List<Transaction> transactions, AccountBalanceIndex previous) {
+    int size = transactions.size();
+    if (previous != null && previous.canExtend(transactions)) {
+      int start = previous.transactions.size();
+      Timestamp[] times = Arrays.copyOf(previous.times, size);
+      Monies[] balances = Arrays.copyOf(previous.balances, size + 1);
+      Monies[] confirmedBalances = Arrays.copyOf(previous.confirmedBalances, size + 1);
+      sum(transactions, start, times, balances, confirmedBalances);
+      return new AccountBalanceIndex(transactions, times, balances, confirmedBalances);
+    }
+    Transaction[] byTime = transactions.toArray(new Transaction[size]);
+    // Stable, so equal times remain in table order
+    Arrays.sort(byTime, (t1, t2) -> t1.getTime().compareTo(t2.getTime()));
+    Timestamp[] times = new Timestamp[size];
+    Monies[] balances = new Monies[size + 1];
+    Monies[] confirmedBalances = new Monies[size + 1];
+    balances[0] = Monies.of();
+    confirmedBalances[0] = Monies.of();
+    sum(Arrays.asList(byTime), 0, times, balances, confirmedBalances);
+    return new AccountBalanceIndex(transactions, times, balances, confirmedBalances);
+  }
+
+  /**
+   * Can the given transactions be indexed by extending this index, which is when they are these same
+   * transactions followed only by transactions at or after the latest time.
+   */
+  boolean canExtend(List<Transaction> newTransactions) {
+    int size = transactions.size();
+    if (newTransactions.size() < size) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (newTransactions.get(i) != transactions.get(i)) {
+        return false;
+      }
+    }
+    Timestamp latest = size == 0 ? null : times[size - 1];
+    for (int i = size, newSize = newTransactions.size(); i < newSize; i++) {
+      Timestamp time = newTransactions.get(i).getTime();
+      if (latest != null && time.compareTo(latest) < 0) {
+        return false;
+      }
+      latest = time;
+    }
+    return true;
+  }
+
+  /**
+   * Sums the transactions, by time, starting at the given index.
+   */
+  private static void sum(List<Transaction> byTime, int start, Timestamp[] times, Monies[] balances, Monies[] confirmedBalances) {
+    Monies balance = balances[start];
+    Monies confirmedBalance = confirmedBalances[start];
+    for (int i = start, size = byTime.size(); i < size; i++) {
+      Transaction transaction = byTime.get(i);
+      times[i] = transaction.getTime();
+      byte paymentConfirmed = transaction.getPaymentConfirmed();
+      if (paymentConfirmed != Transaction.NOT_CONFIRMED) {
+        balance = balance.add(transaction.getAmount());
+        if (paymentConfirmed == Transaction.CONFIRMED) {
+          confirmedBalance = confirmedBalance.add(transaction.getAmount());
+        }
+      }
+      balances[i + 1] = balance;
+      confirmedBalances[i + 1] = confirmedBalance;
+    }
+  }
+
+  /**
+   * Gets the index of the first transaction at or after the given time.
+   */
+  private int indexOf(Timestamp before) {
+    int low = 0;
+    int high = times.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (times[mid].compareTo(before) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the balance of all transactions not {@link Transaction#NOT_CONFIRMED}.
+   */
+  Monies getBalance() {
+    return balances[balances.length - 1];
+  }
+
+  /**
+   * Gets the balance of transactions not {@link Transaction#NOT_CONFIRMED} before the given time.
+   */
+  Monies getBalance(Timestamp before) {
+    return balances[indexOf(before)];
+  }
+
+  /**
+   * Gets the balance of all transactions {@link Transaction#CONFIRMED}.
+   */
+  Monies getConfirmedBalance() {
+    return confirmedBalances[confirmedBalances.length - 1];
+  }
+
+  /**
+   * Gets the balance of transactions {@link Transaction#CONFIRMED} before the given time.
+   */
+  Monies getConfirmedBalance(Timestamp before) {
+    return confirmedBalances[indexOf(before)];
+  }
+
+  /**
+   * Gets the balance after the given transaction, summing in table order.
+   *
+   * @return  the balance or {@code null} when the transaction is not in this index
+   */
+  Monies getTransactionBalance(Transaction transaction) {
+    Map<Transaction, Monies> map = transactionBalances;
+    if (map == null) {
+      map = new HashMap<>(transactions.size() * 4 / 3 + 1);
+      Monies balance = Monies.of();
+      for (Transaction trans : transactions) {
+        if (trans.getPaymentConfirmed() != Transaction.NOT_CONFIRMED) {
+          balance = balance.add(trans.getAmount());
+        }
+        map.put(trans, balance);
+      }
+      transactionBalances = map;
+    }
+    return map.get(transaction);
+  }
+}
@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2001-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -568,4 +568,14 @@ public final class MonthlyChargeTable extends CachedTableIntegerKey<MonthlyCharg
   public List<MonthlyCharge> getIndexedRows(int col, Object value) {
     throw new UnsupportedOperationException("Indexed rows are not supported on MonthlyChargeTable");
   }
+
+  @Override
+  public List<MonthlyCharge> getIndexedRows(int col, int value) {
+    throw new UnsupportedOperationException("Indexed rows are not supported on MonthlyChargeTable");
+  }
+
+  @Override
+  public List<MonthlyCharge> getIndexedRows(int col, long value) {
+    throw new UnsupportedOperationException("Indexed rows are not supported on MonthlyChargeTable");
+  }
 }
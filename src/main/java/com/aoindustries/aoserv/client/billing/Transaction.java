@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -60,6 +60,7 @@ import java.sql.SQLException;
  */
 public final class Transaction extends CachedObjectIntegerKey<Transaction> {
 
+  static final int COLUMN_TIME = 0;
   static final int COLUMN_TRANSID = 1;
   static final int COLUMN_ACCOUNTING = 2;
   static final int COLUMN_SOURCE_ACCOUNTING = 3;
@@ -317,7 +318,7 @@ public final class Transaction extends CachedObjectIntegerKey<Transaction> {
   @SuppressWarnings("ReturnOfDateField") // UnmodifiableTimestamp
   protected Object getColumnImpl(int i) {
     switch (i) {
-      case 0:
+      case COLUMN_TIME:
         return time;
       case COLUMN_TRANSID:
         return pkey;
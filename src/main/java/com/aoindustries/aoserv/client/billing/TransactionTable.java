@@ -24,18 +24,19 @@
 package com.aoindustries.aoserv.client.billing;
 
 import com.aoapps.collections.IntList;
-import com.aoapps.collections.MinimalList;
 import com.aoapps.hodgepodge.io.TerminalWriter;
 import com.aoapps.hodgepodge.io.stream.StreamableInput;
 import com.aoapps.hodgepodge.io.stream.StreamableOutput;
 import com.aoapps.lang.Strings;
-import com.aoapps.lang.i18n.CurrencyComparator;
 import com.aoapps.lang.i18n.Money;
 import com.aoapps.lang.i18n.Monies;
 import com.aoapps.sql.SQLStreamables;
 import com.aoapps.sql.SQLUtility;
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.CachedTableIntegerKey;
+import com.aoindustries.aoserv.client.ColumnFilter;
+import com.aoindustries.aoserv.client.PageRequest;
+import com.aoindustries.aoserv.client.RowPage;
 import com.aoindustries.aoserv.client.account.Account;
 import com.aoindustries.aoserv.client.account.Administrator;
 import com.aoindustries.aoserv.client.aosh.Aosh;
@@ -47,17 +48,15 @@ import com.aoindustries.aoserv.client.schema.Table;
 import com.aoindustries.aoserv.client.schema.Type;
 import java.io.IOException;
 import java.io.Reader;
-import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @see  Transaction
@@ -66,9 +65,17 @@ import java.util.TreeMap;
  */
 public final class TransactionTable extends CachedTableIntegerKey<Transaction> {
 
-  private final Map<Account.Name, Monies> accountBalances = new HashMap<>();
-  private final Map<Account.Name, Monies> confirmedAccountBalances = new HashMap<>();
-  private final Map<Transaction, Monies> transactionBalances = new HashMap<>();
+  /**
+   * The most recent balance index of each account used since the table was last invalidated.  An index is
+   * replaced when the account's transactions are reloaded, so the table is never summed as a whole.
+   */
+  private volatile ConcurrentMap<Account.Name, AccountBalanceIndex> balanceIndexes = new ConcurrentHashMap<>();
+
+  /**
+   * The balance indexes from before the table was last invalidated, kept only to be extended when each
+   * account is next used.  Indexes not used again before the following invalidation are dropped.
+   */
+  private volatile Map<Account.Name, AccountBalanceIndex> previousBalanceIndexes = Collections.emptyMap();
 
   TransactionTable(AoservConnector connector) {
     super(connector, Transaction.class);
@@ -87,6 +94,22 @@ public final class TransactionTable extends CachedTableIntegerKey<Transaction> {
     return defaultOrderBy;
   }
 
+  /**
+   * This table is large and typically changed one row at a time.
+   */
+  @Override
+  protected boolean isDeltaRefreshEnabled() {
+    return true;
+  }
+
+  /**
+   * Account balances look up the transactions of each account immediately after every reload.
+   */
+  @Override
+  protected boolean isEagerIndexingEnabled() {
+    return true;
+  }
+
   /**
    * @param timeType  Either {@link Type#DATE} (rounded to the date in {@link Type#DATE_TIME_ZONE} time zone)
    *                  or {@link Type#TIME}, which maintains up to microsecond accuracy and is time zone agnostic.
@@ -178,69 +201,42 @@ public final class TransactionTable extends CachedTableIntegerKey<Transaction> {
     return getUniqueRow(Transaction.COLUMN_TRANSID, transid);
   }
 
-  @Override
-  public void clearCache() {
-    // System.err.println("DEBUG: TransactionTable: clearCache() called");
-    super.clearCache();
-    synchronized (accountBalances) {
-      accountBalances.clear();
-    }
-    synchronized (confirmedAccountBalances) {
-      confirmedAccountBalances.clear();
-    }
-    synchronized (transactionBalances) {
-      transactionBalances.clear();
-    }
-  }
-
-  private static void addBalance(SortedMap<java.util.Currency, BigDecimal> accountBalances, Money amount) {
-    java.util.Currency currency = amount.getCurrency();
-    BigDecimal total = accountBalances.get(currency);
-    total = (total == null) ? amount.getValue() : total.add(amount.getValue());
-    accountBalances.put(currency, total);
-  }
-
-  private static void addAccountBalance(Map<Account.Name, SortedMap<java.util.Currency, BigDecimal>> balances, Account.Name account, Money amount) {
-    SortedMap<java.util.Currency, BigDecimal> accountBalances = balances.get(account);
-    if (accountBalances == null) {
-      accountBalances = new TreeMap<>(CurrencyComparator.getInstance());
-      balances.put(account, accountBalances);
+  /**
+   * Gets the balance index for the account's current transactions.
+   */
+  private AccountBalanceIndex getBalanceIndex(Account.Name account) throws IOException, SQLException {
+    List<Transaction> transactions = getIndexedRows(Transaction.COLUMN_ACCOUNTING, account);
+    ConcurrentMap<Account.Name, AccountBalanceIndex> indexes = balanceIndexes;
+    AccountBalanceIndex index = indexes.get(account);
+    if (index == null || index.transactions != transactions) {
+      if (index == null) {
+        index = previousBalanceIndexes.get(account);
+      }
+      if (index == null || index.transactions != transactions) {
+        // Rebuilding concurrently is harmless, as the indexes are equivalent
+        index = AccountBalanceIndex.of(transactions, index);
+      }
+      indexes.put(account, index);
     }
-    addBalance(accountBalances, amount);
+    return index;
   }
 
-  private static Monies toMonies(SortedMap<java.util.Currency, BigDecimal> balances) {
-    List<Money> monies = MinimalList.emptyList();
-    for (Map.Entry<java.util.Currency, BigDecimal> moneyEntry : balances.entrySet()) {
-      monies = MinimalList.add(
-          monies,
-          new Money(moneyEntry.getKey(), moneyEntry.getValue())
-      );
-    }
-    return Monies.of(monies);
+  /**
+   * Also moves the balance indexes to be extended by the next reload, dropping those not used since the
+   * previous invalidation.  A race with a concurrent invalidation only causes an index to be rebuilt.
+   */
+  @Override
+  public void clearCache() {
+    super.clearCache();
+    previousBalanceIndexes = balanceIndexes;
+    balanceIndexes = new ConcurrentHashMap<>();
   }
 
   public Monies getAccountBalance(Account account) throws IOException, SQLException {
     if (account == null) {
       return Monies.of();
     }
-    synchronized (accountBalances) {
-      if (accountBalances.isEmpty()) {
-        // Compute all balances now
-        Map<Account.Name, SortedMap<java.util.Currency, BigDecimal>> balances = new HashMap<>();
-        for (Transaction transaction : getRows()) {
-          if (transaction.getPaymentConfirmed() != Transaction.NOT_CONFIRMED) {
-            addAccountBalance(balances, transaction.getAccount_name(), transaction.getAmount());
-          }
-        }
-        // Wrap totals into unmodified lists
-        for (Map.Entry<Account.Name, SortedMap<java.util.Currency, BigDecimal>> entry : balances.entrySet()) {
-          accountBalances.put(entry.getKey(), toMonies(entry.getValue()));
-        }
-      }
-      Monies balance = accountBalances.get(account.getName());
-      return balance == null ? Monies.of() : balance;
-    }
+    return getBalanceIndex(account.getName()).getBalance();
   }
 
   /**
@@ -348,86 +344,29 @@ public final class TransactionTable extends CachedTableIntegerKey<Transaction> {
     if (account == null) {
       return Monies.of();
     }
-    SortedMap<java.util.Currency, BigDecimal> balances = new TreeMap<>(CurrencyComparator.getInstance());
-    for (Transaction transaction : getTransactions(account)) {
-      if (
-          transaction.getPaymentConfirmed() != Transaction.NOT_CONFIRMED
-              && transaction.getTime().compareTo(before) < 0
-      ) {
-        addBalance(balances, transaction.getAmount());
-      }
-    }
-    return toMonies(balances);
+    return getBalanceIndex(account.getName()).getBalance(before);
   }
 
   public Monies getConfirmedAccountBalance(Account account) throws IOException, SQLException {
     if (account == null) {
       return Monies.of();
     }
-    synchronized (confirmedAccountBalances) {
-      if (confirmedAccountBalances.isEmpty()) {
-        // Compute all balances now
-        Map<Account.Name, SortedMap<java.util.Currency, BigDecimal>> balances = new HashMap<>();
-        for (Transaction transaction : getRows()) {
-          if (transaction.getPaymentConfirmed() == Transaction.CONFIRMED) {
-            addAccountBalance(balances, transaction.getAccount_name(), transaction.getAmount());
-          }
-        }
-        // Wrap totals into unmodified lists
-        for (Map.Entry<Account.Name, SortedMap<java.util.Currency, BigDecimal>> entry : balances.entrySet()) {
-          confirmedAccountBalances.put(entry.getKey(), toMonies(entry.getValue()));
-        }
-      }
-      Monies balance = confirmedAccountBalances.get(account.getName());
-      return balance == null ? Monies.of() : balance;
-    }
+    return getBalanceIndex(account.getName()).getConfirmedBalance();
   }
 
   public Monies getConfirmedAccountBalance(Account account, Timestamp before) throws IOException, SQLException {
     if (account == null) {
       return Monies.of();
     }
-    SortedMap<java.util.Currency, BigDecimal> balances = new TreeMap<>(CurrencyComparator.getInstance());
-    for (Transaction transaction : getTransactions(account)) {
-      if (
-          transaction.getPaymentConfirmed() == Transaction.CONFIRMED
-              && transaction.getTime().compareTo(before) < 0
-      ) {
-        addBalance(balances, transaction.getAmount());
-      }
-    }
-    return toMonies(balances);
+    return getBalanceIndex(account.getName()).getConfirmedBalance(before);
   }
 
   public Monies getTransactionBalance(Transaction transaction) throws IOException, SQLException {
-    synchronized (transactionBalances) {
-      if (transactionBalances.isEmpty()) {
-        // Compute all balances now
-        Map<Account.Name, Monies> accountBalance = new HashMap<>();
-        for (Transaction trans : getRows()) {
-          Account.Name account = trans.getAccount_name();
-          Monies balance = accountBalance.get(account);
-          boolean updated = false;
-          if (balance == null) {
-            balance = Monies.of();
-            updated = true;
-          }
-          if (trans.getPaymentConfirmed() != Transaction.NOT_CONFIRMED) {
-            balance = balance.add(trans.getAmount());
-            updated = true;
-          }
-          if (updated) {
-            accountBalance.put(account, balance);
-          }
-          transactionBalances.put(trans, balance);
-        }
-      }
-      Monies balance = transactionBalances.get(transaction);
-      if (balance == null) {
-        throw new SQLException("Unable to find transaction in transactionBalances: " + transaction);
-      }
-      return balance;
+    Monies balance = getBalanceIndex(transaction.getAccount_name()).getTransactionBalance(transaction);
+    if (balance == null) {
+      throw new SQLException("Unable to find transaction in transactionBalances: " + transaction);
     }
+    return balance;
   }
 
   @Override
@@ -504,6 +443,25 @@ public final class TransactionTable extends CachedTableIntegerKey<Transaction> {
     return getIndexedRows(Transaction.COLUMN_ACCOUNTING, account == null ? null : account.getName());
   }
 
+  /**
+   * Gets the most recent transactions that have this account as their applied-to, one page at a time.
+   * When the transactions are not already cached, only the requested page is transferred.
+   *
+   * @param  limit  the maximum number of transactions per page
+   *
+   * @see  RowPage#getNext()
+   */
+  public RowPage<Transaction> getRecentTransactions(Account account, int limit) throws IOException, SQLException {
+    return getPage(
+        PageRequest.first(
+            Transaction.COLUMN_TIME,
+            true,
+            limit,
+            ColumnFilter.equalTo(Transaction.COLUMN_ACCOUNTING, account.getName())
+        )
+    );
+  }
+
   /**
    * Gets transactions that have this account as their source.
    */
@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2007-2013, 2016, 2017, 2018, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2007-2013, 2016, 2017, 2018, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -57,14 +57,30 @@ public final class WhoisHistoryTable extends CachedTableIntegerKey<WhoisHistory>
     return getUniqueRow(WhoisHistory.COLUMN_id, id);
   }
 
-  @Override
-  public List<WhoisHistory> getIndexedRows(int col, Object value) throws IOException, SQLException {
+  private static void checkIndexedColumn(int col) {
     if (col == WhoisHistory.COLUMN_output) {
       throw new UnsupportedOperationException("getIndexedRows not supported for WhoisHistory.output because each access is a round-trip to the server");
     }
     if (col == WhoisHistory.COLUMN_error) {
       throw new UnsupportedOperationException("getIndexedRows not supported for WhoisHistory.error because each access is a round-trip to the server");
     }
+  }
+
+  @Override
+  public List<WhoisHistory> getIndexedRows(int col, Object value) throws IOException, SQLException {
+    checkIndexedColumn(col);
+    return super.getIndexedRows(col, value);
+  }
+
+  @Override
+  public List<WhoisHistory> getIndexedRows(int col, int value) throws IOException, SQLException {
+    checkIndexedColumn(col);
+    return super.getIndexedRows(col, value);
+  }
+
+  @Override
+  public List<WhoisHistory> getIndexedRows(int col, long value) throws IOException, SQLException {
+    checkIndexedColumn(col);
     return super.getIndexedRows(col, value);
   }
 
@@ -353,25 +353,35 @@ public final class Record extends CachedObjectIntegerKey<Record> implements Remo
     // Look for CNAME conflict
     if (domain1.equals(domain2)) {
       // If either (or both) are CNAME, there is a conflict
-      if (
-          type.equals(RecordType.CNAME)
-              || other.type.equals(RecordType.CNAME)
-      ) {
+      if (isCname() || other.isCname()) {
         return true;
       }
       // If both are TXT types, and v=spf1, there is a conflict
-      if (
-          type.equals(RecordType.TXT)
-              && other.type.equals(RecordType.TXT)
-              && isSpf1(destination)
-              && isSpf1(other.destination)
-      ) {
+      if (isSpf1Txt() && other.isSpf1Txt()) {
         return true;
       }
     }
     return false;
   }
 
+  /**
+   * Is this a CNAME record, which conflicts with every other record of the same domain.
+   *
+   * @see  Record#hasConflict(com.aoindustries.aoserv.client.dns.Record)
+   */
+  boolean isCname() {
+    return type.equals(RecordType.CNAME);
+  }
+
+  /**
+   * Is this a TXT record of "v=spf1", which conflicts with every other such record of the same domain.
+   *
+   * @see  Record#hasConflict(com.aoindustries.aoserv.client.dns.Record)
+   */
+  boolean isSpf1Txt() {
+    return type.equals(RecordType.TXT) && isSpf1(destination);
+  }
+
   /**
    * Gets the {@link DkimKey} using this record, if any.
    */
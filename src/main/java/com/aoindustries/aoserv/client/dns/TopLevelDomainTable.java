@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2013, 2016, 2017, 2018, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2013, 2016, 2017, 2018, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -29,6 +29,7 @@ import com.aoindustries.aoserv.client.GlobalTableDomainNameKey;
 import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * @see  TopLevelDomain
@@ -56,6 +57,35 @@ public final class TopLevelDomainTable extends GlobalTableDomainNameKey<TopLevel
     return getUniqueRow(TopLevelDomain.COLUMN_DOMAIN, domain);
   }
 
+  private static final class TrieEntry {
+
+    private final List<TopLevelDomain> rows;
+    private final TopLevelDomainTrie trie;
+
+    private TrieEntry(List<TopLevelDomain> rows, TopLevelDomainTrie trie) {
+      this.rows = rows;
+      this.trie = trie;
+    }
+  }
+
+  /**
+   * The trie for the most recently loaded rows.
+   */
+  private volatile TrieEntry trieEntry;
+
+  /**
+   * Gets the trie of the top level domains, built once each time the table is loaded.
+   */
+  TopLevelDomainTrie getTrie() throws IOException, SQLException {
+    List<TopLevelDomain> rows = getRows();
+    TrieEntry entry = trieEntry;
+    if (entry == null || entry.rows != rows) {
+      // Rebuilding concurrently is harmless, as the tries are equivalent
+      trieEntry = entry = new TrieEntry(rows, new TopLevelDomainTrie(rows));
+    }
+    return entry.trie;
+  }
+
   @Override
   public Table.TableId getTableId() {
     return Table.TableId.DNS_TLDS;
@@ -0,0 +1,121 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.dns;
+
+import com.aoapps.net.DomainName;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the longest top level domain that is a suffix of a hostname, without allocation.
+ *
+ * <p>The top level domains are stored one character per node, from the last character to the first,
+ * so matching walks a hostname backwards from its end.  Characters are matched case-insensitively.</p>
+ *
+ * @see  TopLevelDomainTable#getTrie()
+ *
+ * @author  AO Industries, Inc.
+ */
+final class TopLevelDomainTrie {
+
+  private static final char[] NO_CHARS = new char[0];
+  private static final Node[] NO_NODES = new Node[0];
+
+  private static final class Node {
+
+    /**
+     * The sorted characters of the children.
+     */
+    private char[] chars = NO_CHARS;
+    private Node[] children = NO_NODES;
+
+    /**
+     * Is a top level domain complete at this node.
+     */
+    private boolean isTld;
+
+    private Node getChild(char ch) {
+      int index = Arrays.binarySearch(chars, ch);
+      return index < 0 ? null : children[index];
+    }
+
+    private Node getOrAddChild(char ch) {
+      int index = Arrays.binarySearch(chars, ch);
+      if (index >= 0) {
+        return children[index];
+      }
+      int insert = -(index + 1);
+      int len = chars.length;
+      char[] newChars = new char[len + 1];
+      Node[] newChildren = new Node[len + 1];
+      System.arraycopy(chars, 0, newChars, 0, insert);
+      System.arraycopy(children, 0, newChildren, 0, insert);
+      System.arraycopy(chars, insert, newChars, insert + 1, len - insert);
+      System.arraycopy(children, insert, newChildren, insert + 1, len - insert);
+      Node child = new Node();
+      newChars[insert] = ch;
+      newChildren[insert] = child;
+      chars = newChars;
+      children = newChildren;
+      return child;
+    }
+  }
+
+  private final Node root = new Node();
+
+  TopLevelDomainTrie(List<TopLevelDomain> tlds) {
+    for (TopLevelDomain tld : tlds) {
+      DomainName domain = tld.getDomain();
+      String str = domain.toLowerCase();
+      Node node = root;
+      for (int i = str.length() - 1; i >= 0; i--) {
+        node = node.getOrAddChild(str.charAt(i));
+      }
+      node.isTld = true;
+    }
+  }
+
+  /**
+   * Finds the longest top level domain that follows a dot and ends at the given index.
+   *
+   * @param  end  the index one past the last character of the hostname to match
+   *
+   * @return  the index of the dot before the top level domain or {@code -1} when not found
+   */
+  int findTldDot(CharSequence hostname, int end) {
+    int found = -1;
+    Node node = root;
+    for (int i = end - 1; i >= 0; i--) {
+      char ch = hostname.charAt(i);
+      if (ch == '.' && node.isTld) {
+        found = i;
+      }
+      node = node.getChild(Character.toLowerCase(ch));
+      if (node == null) {
+        break;
+      }
+    }
+    return found;
+  }
+}
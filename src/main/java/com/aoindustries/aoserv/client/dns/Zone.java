@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2013, 2014, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2024, 2025  AO Industries, Inc.
+ * Copyright (C) 2001-2013, 2014, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2024, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -44,7 +44,9 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A <code>DNSZone</code> is one domain hosted in the name servers.  It can have
@@ -437,16 +439,23 @@ public final class Zone extends CachedObjectStringKey<Zone> implements Removable
       printRecord("", line, out, "@", ttl, Record.NO_TTL, RecordType.NS, Record.NO_PRIORITY, Record.NO_WEIGHT, Record.NO_PORT, Record.NO_FLAG, null, "ns3.aoindustries.com.");
       printRecord("", line, out, "@", ttl, Record.NO_TTL, RecordType.NS, Record.NO_PRIORITY, Record.NO_WEIGHT, Record.NO_PORT, Record.NO_FLAG, null, "ns4.aoindustries.com.");
     }
+    // Count the records of each domain that may conflict, so each record is checked against the counts
+    // instead of against every other record
     int len = records.size();
+    String[] domains = new String[len];
+    Map<String, ConflictCounts> totals = new HashMap<>();
     for (int c = 0; c < len; c++) {
       Record rec = records.get(c);
-      boolean hasConflictAbove = false;
-      for (int d = 0; d < c; d++) {
-        if (rec.hasConflict(records.get(d))) {
-          hasConflictAbove = true;
-          break;
-        }
-      }
+      String domain = rec.getAbsoluteDomain();
+      domains[c] = domain;
+      totals.computeIfAbsent(domain, d -> new ConflictCounts()).add(rec);
+    }
+    Map<String, ConflictCounts> aboves = new HashMap<>();
+    for (int c = 0; c < len; c++) {
+      Record rec = records.get(c);
+      String domain = domains[c];
+      ConflictCounts above = aboves.computeIfAbsent(domain, d -> new ConflictCounts());
+      boolean hasConflictAbove = above.hasConflict(rec, 0, 0, 0);
       printRecord(
           hasConflictAbove ? "; Disabled due to conflict: " : "",
           line,
@@ -462,16 +471,12 @@ public final class Zone extends CachedObjectStringKey<Zone> implements Removable
           rec.getTag(),
           rec.getDestination()
       );
+      above.add(rec);
       // Allow the first one when there is a conflict
       if (!hasConflictAbove) {
-        boolean hasConflictBelow = false;
-        for (int d = c + 1; d < len; d++) {
-          if (rec.hasConflict(records.get(d))) {
-            hasConflictBelow = true;
-            break;
-          }
-        }
-        if (hasConflictBelow) {
+        // The records below are the total minus this record and those above
+        ConflictCounts total = totals.get(domain);
+        if (total.hasConflict(rec, above.records, above.cnames, above.spf1Txts)) {
           line.append("; Some records below have been disabled due to conflict with previous record");
           printLine(line, out);
         }
@@ -479,6 +484,40 @@ public final class Zone extends CachedObjectStringKey<Zone> implements Removable
     }
   }
 
+  /**
+   * The number of records of one domain that may conflict.
+   *
+   * @see  Record#hasConflict(com.aoindustries.aoserv.client.dns.Record)
+   */
+  private static final class ConflictCounts {
+
+    private int records;
+    private int cnames;
+    private int spf1Txts;
+
+    private void add(Record rec) {
+      records++;
+      if (rec.isCname()) {
+        cnames++;
+      }
+      if (rec.isSpf1Txt()) {
+        spf1Txts++;
+      }
+    }
+
+    /**
+     * Checks if the given record conflicts with any of the counted records, excluding the given counts.
+     */
+    private boolean hasConflict(Record rec, int excludeRecords, int excludeCnames, int excludeSpf1Txts) {
+      if (rec.isCname()) {
+        return records - excludeRecords > 0;
+      }
+      return
+          cnames - excludeCnames > 0
+              || (rec.isSpf1Txt() && spf1Txts - excludeSpf1Txts > 0);
+    }
+  }
+
   @Override
   public void read(StreamableInput in, AoservProtocol.Version protocolVersion) throws IOException {
     try {
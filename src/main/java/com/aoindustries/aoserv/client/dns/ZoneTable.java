@@ -24,6 +24,7 @@
 package com.aoindustries.aoserv.client.dns;
 
 import com.aoapps.hodgepodge.io.TerminalWriter;
+import com.aoapps.lang.Throwables;
 import com.aoapps.lang.validation.ValidationException;
 import com.aoapps.net.DomainLabel;
 import com.aoapps.net.DomainName;
@@ -36,10 +37,17 @@ import com.aoindustries.aoserv.client.billing.Package;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
 import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
 import java.io.Reader;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * @see  Zone
@@ -67,15 +75,6 @@ public final class ZoneTable extends CachedTableStringKey<Zone> {
     return getUniqueRow(Zone.COLUMN_ZONE, zone);
   }
 
-  private List<DomainName> getTopLevelDomains() throws IOException, SQLException {
-    List<TopLevelDomain> tlds = connector.getDns().getTopLevelDomain().getRows();
-    List<DomainName> names = new ArrayList<>(tlds.size());
-    for (TopLevelDomain tld : tlds) {
-      names.add(tld.getDomain());
-    }
-    return names;
-  }
-
   public void addDnsZone(Package packageObj, String zone, InetAddress ip, int ttl) throws IOException, SQLException {
     connector.requestUpdateInvalidating(
         true,
@@ -92,7 +91,16 @@ public final class ZoneTable extends CachedTableStringKey<Zone> {
    * Checks the formatting for a DNS zone.  The format of a DNS zone must be <code><i>name</i>.<i>tld</i>.</code>
    */
   public boolean checkDnsZone(String zone) throws IOException, SQLException {
-    return checkDnsZone(zone, getTopLevelDomains());
+    return checkDnsZone(zone, connector.getDns().getTopLevelDomain().getTrie());
+  }
+
+  private static boolean checkDnsZone(String zone, TopLevelDomainTrie trie) {
+    int zoneLen = zone.length();
+    if (zoneLen == 0 || zone.charAt(zoneLen - 1) != '.') {
+      return false;
+    }
+    int dot = trie.findTldDot(zone, zoneLen - 1);
+    return dot > 0 && isValidHostnamePart(zone.substring(0, dot));
   }
 
   /**
@@ -124,7 +132,36 @@ public final class ZoneTable extends CachedTableStringKey<Zone> {
   }
 
   public String getZoneForHostname(String hostname) throws IllegalArgumentException, IOException, SQLException {
-    return getZoneForHostname(hostname, getTopLevelDomains());
+    return getZoneForHostname(hostname, connector.getDns().getTopLevelDomain().getTrie());
+  }
+
+  /**
+   * Gets the zone of each hostname, finding the top level domains only once.
+   *
+   * @return  the zones, in the same order as the hostnames
+   *
+   * @see  ZoneTable#getZoneForHostname(java.lang.String)
+   */
+  public List<String> getZonesForHostnames(List<String> hostnames) throws IllegalArgumentException, IOException, SQLException {
+    TopLevelDomainTrie trie = connector.getDns().getTopLevelDomain().getTrie();
+    List<String> zones = new ArrayList<>(hostnames.size());
+    for (String hostname : hostnames) {
+      zones.add(getZoneForHostname(hostname, trie));
+    }
+    return zones;
+  }
+
+  private static String getZoneForHostname(String hostname, TopLevelDomainTrie trie) throws IllegalArgumentException {
+    int hlen = hostname.length();
+    if (hlen > 0 && hostname.charAt(hlen - 1) == '.') {
+      hlen--;
+    }
+    int dot = trie.findTldDot(hostname, hlen);
+    if (dot == -1) {
+      throw new IllegalArgumentException("Unable to determine top level domain for hostname: " + hostname.substring(0, hlen));
+    }
+    int startpos = hostname.lastIndexOf('.', dot - 1) + 1;
+    return hostname.substring(startpos, hlen) + ".";
   }
 
   /**
@@ -162,6 +199,62 @@ public final class ZoneTable extends CachedTableStringKey<Zone> {
     return zone + longestTld + ".";
   }
 
+  /**
+   * Renders the zone files of many zones in parallel.
+   *
+   * @return  the zone file of each zone, in the iteration order of the given zones
+   *
+   * @see  Zone#getZoneFile()
+   */
+  public Map<Zone, String> getZoneFiles(Collection<Zone> zones) throws IOException, SQLException {
+    // Load the records once before rendering concurrently
+    connector.getDns().getRecord().getRows();
+    Map<Zone, Future<String>> futures = new LinkedHashMap<>();
+    for (Zone zone : zones) {
+      futures.put(zone, connector.getExecutorService().submit(zone::getZoneFile));
+    }
+    Map<Zone, String> zoneFiles = new LinkedHashMap<>();
+    try {
+      for (Map.Entry<Zone, Future<String>> entry : futures.entrySet()) {
+        zoneFiles.put(entry.getKey(), entry.getValue().get());
+      }
+    } catch (ExecutionException e) {
+      for (Future<String> future : futures.values()) {
+        future.cancel(true);
+      }
+      Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      throw Throwables.wrap(cause, IOException.class, IOException::new);
+    } catch (InterruptedException e) {
+      for (Future<String> future : futures.values()) {
+        future.cancel(true);
+      }
+      // Restore the interrupted status
+      Thread.currentThread().interrupt();
+      InterruptedIOException ioErr = new InterruptedIOException();
+      ioErr.initCause(e);
+      throw ioErr;
+    }
+    return zoneFiles;
+  }
+
+  /**
+   * Renders the zone files of many zones in parallel, then prints them one after another in the
+   * iteration order of the given zones.
+   *
+   * @see  ZoneTable#getZoneFiles(java.util.Collection)
+   */
+  public void printZoneFiles(Collection<Zone> zones, PrintWriter out) throws IOException, SQLException {
+    for (String zoneFile : getZoneFiles(zones).values()) {
+      out.print(zoneFile);
+    }
+  }
+
   public List<Zone> getDnsZones(Package packageObj) throws IOException, SQLException {
     return getIndexedRows(Zone.COLUMN_PACKAGE, packageObj.getName());
   }
@@ -199,7 +292,38 @@ public final class ZoneTable extends CachedTableStringKey<Zone> {
   }
 
   public DomainName getHostTld(DomainName hostname) throws IllegalArgumentException, IOException, SQLException {
-    return getHostTld(hostname, getTopLevelDomains());
+    return getHostTld(hostname, connector.getDns().getTopLevelDomain().getTrie());
+  }
+
+  /**
+   * Gets the <code><i>name</i>.<i>tld</i></code> format of each hostname, finding the top level domains only once.
+   *
+   * @return  the hostnames in <code><i>name</i>.<i>tld</i></code> format, in the same order as the hostnames
+   *
+   * @see  ZoneTable#getHostTld(com.aoapps.net.DomainName)
+   */
+  public List<DomainName> getHostTlds(List<DomainName> hostnames) throws IllegalArgumentException, IOException, SQLException {
+    TopLevelDomainTrie trie = connector.getDns().getTopLevelDomain().getTrie();
+    List<DomainName> hostTlds = new ArrayList<>(hostnames.size());
+    for (DomainName hostname : hostnames) {
+      hostTlds.add(getHostTld(hostname, trie));
+    }
+    return hostTlds;
+  }
+
+  private static DomainName getHostTld(DomainName hostname, TopLevelDomainTrie trie) throws IllegalArgumentException {
+    String hostnameStr = hostname.toLowerCase();
+    int dot = trie.findTldDot(hostnameStr, hostnameStr.length());
+    if (dot <= 0) {
+      throw new IllegalArgumentException("Unable to determine the host.tld format of " + hostname);
+    }
+    // Take only the last hostname segment
+    int pos = hostnameStr.lastIndexOf('.', dot - 1) + 1;
+    try {
+      return DomainName.valueOf(hostnameStr.substring(pos));
+    } catch (ValidationException e) {
+      throw new IllegalArgumentException(e.getLocalizedMessage(), e);
+    }
   }
 
   @Override
@@ -62,6 +62,22 @@ public final class AddressTable extends CachedTableIntegerKey<Address> {
     return defaultOrderBy;
   }
 
+  /**
+   * This table is large and typically changed one row at a time.
+   */
+  @Override
+  protected boolean isDeltaRefreshEnabled() {
+    return true;
+  }
+
+  /**
+   * Addresses are looked up by primary key and by domain as soon as the table is reloaded.
+   */
+  @Override
+  protected boolean isEagerIndexingEnabled() {
+    return true;
+  }
+
   public int addEmailAddress(String address, Domain domainObject) throws SQLException, IOException {
     ValidationResult result = Email.validate(address, domainObject.getDomain());
     if (!result.isValid()) {
@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2001-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -56,6 +56,7 @@ public final class SmtpRelay extends CachedObjectIntegerKey<SmtpRelay> implement
 
   static final int COLUMN_PKEY = 0;
   static final int COLUMN_PACKAGE = 1;
+  static final int COLUMN_HOST = 3;
   static final String COLUMN_AO_SERVER_name = "ao_server";
   static final String COLUMN_HOST_name = "host";
   static final String COLUMN_PACKAGE_name = "package";
@@ -125,7 +126,7 @@ public final class SmtpRelay extends CachedObjectIntegerKey<SmtpRelay> implement
         return packageName;
       case 2:
         return aoServer == -1 ? null : aoServer;
-      case 3:
+      case COLUMN_HOST:
         return host;
       case 4:
         return type;
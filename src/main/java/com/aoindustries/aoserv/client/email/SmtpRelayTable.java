@@ -54,6 +54,8 @@ public final class SmtpRelayTable extends CachedTableIntegerKey<SmtpRelay> {
     super(connector, SmtpRelay.class);
   }
 
+  private final CompositeIndex packageHostIndex = addCompositeIndex(SmtpRelay.COLUMN_PACKAGE, SmtpRelay.COLUMN_HOST);
+
   private static final OrderBy[] defaultOrderBy = {
       new OrderBy(SmtpRelay.COLUMN_AO_SERVER_name + '.' + Server.COLUMN_HOSTNAME_name, ASCENDING),
       new OrderBy(SmtpRelay.COLUMN_HOST_name, ASCENDING),
@@ -114,18 +116,14 @@ public final class SmtpRelayTable extends CachedTableIntegerKey<SmtpRelay> {
     Account.Name packageName = pk.getName();
     int aoPkey = ao.getPkey();
 
-    List<SmtpRelay> cached = getRows();
+    List<SmtpRelay> cached = getIndexedRows(packageHostIndex, packageName, host);
     int len = cached.size();
     for (int c = 0; c < len; c++) {
       SmtpRelay relay = cached.get(c);
       Integer hostId;
       if (
-          packageName.equals(relay.getPackage_name())
-              && (
-              (hostId = relay.getLinuxServer_host_id()) == null
-                  || hostId == aoPkey
-            )
-              && host.equals(relay.getHost())
+          (hostId = relay.getLinuxServer_host_id()) == null
+              || hostId == aoPkey
       ) {
         return relay;
       }
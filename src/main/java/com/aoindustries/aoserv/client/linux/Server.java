@@ -89,6 +89,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * A {@link Server} stores the details about a server that runs the AOServ distribution.
@@ -2760,9 +2762,30 @@ public final class Server
   }
 
   public Map<String, FilesystemReport> getFilesystemsReport() throws IOException, SQLException {
+    return parseFilesystemsReport(getFilesystemsCsvReport());
+  }
+
+  /**
+   * Gets the filesystems report asynchronously.
+   *
+   * @see  #getFilesystemsReport()
+   */
+  public CompletableFuture<Map<String, FilesystemReport>> getFilesystemsReportAsync() {
+    return table.getConnector()
+        .requestStringQueryAsync(true, AoservProtocol.CommandId.GET_AO_SERVER_FILESYSTEMS_CSV_REPORT, pkey)
+        .thenApply(csvReport -> {
+          try {
+            return parseFilesystemsReport(csvReport);
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  private static Map<String, FilesystemReport> parseFilesystemsReport(String csvReport) throws IOException {
     Map<String, FilesystemReport> reports = new LinkedHashMap<>();
     // Extremely simple CSV parser, but sufficient for the known format of the source data
-    List<String> lines = Strings.splitLines(getFilesystemsCsvReport());
+    List<String> lines = Strings.splitLines(csvReport);
     if (lines.isEmpty()) {
       throw new IOException("No lines from report");
     }
@@ -2839,6 +2862,13 @@ public final class Server
     return table.getConnector().requestStringQuery(true, AoservProtocol.CommandId.GET_AO_SERVER_LOADAVG_REPORT, pkey);
   }
 
+  /**
+   * Gets the output of <code>/proc/loadavg</code> asynchronously.
+   */
+  public CompletableFuture<String> getLoadAvgReportAsync() {
+    return table.getConnector().requestStringQueryAsync(true, AoservProtocol.CommandId.GET_AO_SERVER_LOADAVG_REPORT, pkey);
+  }
+
   /**
    * Gets the output of <code>/proc/meminfo</code>.
    */
@@ -2846,6 +2876,13 @@ public final class Server
     return table.getConnector().requestStringQuery(true, AoservProtocol.CommandId.GET_AO_SERVER_MEMINFO_REPORT, pkey);
   }
 
+  /**
+   * Gets the output of <code>/proc/meminfo</code> asynchronously.
+   */
+  public CompletableFuture<String> getMemInfoReportAsync() {
+    return table.getConnector().requestStringQueryAsync(true, AoservProtocol.CommandId.GET_AO_SERVER_MEMINFO_REPORT, pkey);
+  }
+
   /**
    * Checks a port from the daemon's point of view.  This is required for monitoring of private and loopback IPs.
    */
@@ -69,6 +69,22 @@ public final class UserServerTable extends CachedTableIntegerKey<UserServer> {
     return defaultOrderBy;
   }
 
+  /**
+   * This table is large and typically changed one row at a time.
+   */
+  @Override
+  protected boolean isDeltaRefreshEnabled() {
+    return true;
+  }
+
+  /**
+   * Rows are looked up by primary key, user, and server as soon as the table is reloaded.
+   */
+  @Override
+  protected boolean isEagerIndexingEnabled() {
+    return true;
+  }
+
   int addLinuxServerAccount(User linuxAccount, Server aoServer, PosixPath home) throws IOException, SQLException {
     int pkey = connector.requestIntQueryInvalidating(
         true,
@@ -115,9 +131,6 @@ public final class UserServerTable extends CachedTableIntegerKey<UserServer> {
     synchronized (uidHash) {
       uidHashBuilt = false;
     }
-    synchronized (nameHash) {
-      nameHashBuilt = false;
-    }
   }
 
   @Override
@@ -156,38 +169,21 @@ public final class UserServerTable extends CachedTableIntegerKey<UserServer> {
     return matches;
   }
 
-  private boolean nameHashBuilt;
-  private final Map<Integer, Map<User.Name, UserServer>> nameHash = new HashMap<>();
+  private final CompositeIndex aoServerUsernameIndex = addCompositeIndex(UserServer.COLUMN_AO_SERVER, UserServer.COLUMN_USERNAME);
 
   UserServer getLinuxServerAccount(Server aoServer, User.Name username) throws IOException, SQLException {
-    synchronized (nameHash) {
-      if (!nameHashBuilt) {
-        nameHash.clear();
-
-        List<UserServer> list = getRows();
-        int len = list.size();
-        for (int c = 0; c < len; c++) {
-          UserServer lsa = list.get(c);
-          Integer i = lsa.getServer().getPkey();
-          Map<User.Name, UserServer> serverHash = nameHash.get(i);
-          if (serverHash == null) {
-            nameHash.put(i, serverHash = new HashMap<>());
-          }
-          if (serverHash.put(lsa.getLinuxAccount_username_id(), lsa) != null) {
-            throw new SQLException(
-                "LinuxServerAccount username exists more than once on server: "
-                    + lsa.getLinuxAccount_username_id() + " on " + i
-            );
-          }
-        }
-        nameHashBuilt = true;
-      }
-      Map<User.Name, UserServer> serverHash = nameHash.get(aoServer.getPkey());
-      if (serverHash == null) {
-        return null;
-      }
-      return serverHash.get(username);
+    List<UserServer> matches = getIndexedRows(aoServerUsernameIndex, aoServer.getPkey(), username);
+    int size = matches.size();
+    if (size == 0) {
+      return null;
+    }
+    if (size > 1) {
+      throw new SQLException(
+          "LinuxServerAccount username exists more than once on server: "
+              + username + " on " + aoServer.getPkey()
+      );
     }
+    return matches.get(0);
   }
 
   /**
@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -25,6 +25,7 @@ package com.aoindustries.aoserv.client.master;
 
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.AoservTable;
+import com.aoindustries.aoserv.client.ColumnFilter;
 import com.aoindustries.aoserv.client.schema.AoservProtocol;
 import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
@@ -59,15 +60,8 @@ public final class ServerStatTable extends AoservTable<String, ServerStat> {
     if (name == null) {
       return null;
     }
-    List<ServerStat> table = getRows();
-    int size = table.size();
-    for (int c = 0; c < size; c++) {
-      ServerStat mss = table.get(c);
-      if (mss.getName().equals(name)) {
-        return mss;
-      }
-    }
-    return null;
+    List<ServerStat> matches = getFilteredRows(ColumnFilter.equalTo(ServerStat.COLUMN_NAME, name));
+    return matches.isEmpty() ? null : matches.get(0);
   }
 
   @Override
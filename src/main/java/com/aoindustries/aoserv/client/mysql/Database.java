@@ -40,10 +40,13 @@ import com.aoapps.net.URIEncoder;
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.CachedObjectIntegerKey;
 import com.aoindustries.aoserv.client.CannotRemoveReason;
+import com.aoindustries.aoserv.client.ChannelStreamHandler;
 import com.aoindustries.aoserv.client.Dumpable;
 import com.aoindustries.aoserv.client.JdbcProvider;
 import com.aoindustries.aoserv.client.NestedInputStream;
+import com.aoindustries.aoserv.client.ProgressListener;
 import com.aoindustries.aoserv.client.Removable;
+import com.aoindustries.aoserv.client.ResumableDump;
 import com.aoindustries.aoserv.client.StreamHandler;
 import com.aoindustries.aoserv.client.account.Account;
 import com.aoindustries.aoserv.client.backup.MysqlReplication;
@@ -63,8 +66,11 @@ import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -479,6 +485,59 @@ public final class Database extends CachedObjectIntegerKey<Database> implements
     );
   }
 
+  /**
+   * Dumps the database in {@link Database#DUMP_ENCODING} encoding into binary form, optionally gzipped,
+   * directly into the given channel.  The transfer resumes after a dropped connection during this call and is
+   * verified by checksum.
+   *
+   * <p>Servers before protocol {@link AoservProtocol.Version#VERSION_1_92_2_5_SNAPSHOT} do not support resumable
+   * dumps.  The dump is then streamed into the channel without resume or checksum, and progress is reported as it
+   * is written only when the server provides the dump size.</p>
+   *
+   * @param  channel           the dump is written starting at the current position of this channel
+   * @param  progressListener  the optional listener notified of the bytes transferred
+   *
+   * @see  ResumableDump
+   * @see  ChannelStreamHandler
+   */
+  public void dump(
+      boolean gzip,
+      FileChannel channel,
+      ProgressListener progressListener
+  ) throws IOException, SQLException {
+    AoservConnector connector = table.getConnector();
+    if (connector.getProtocolVersion().compareTo(AoservProtocol.Version.VERSION_1_92_2_5_SNAPSHOT) < 0) {
+      // Server does not support resumable dumps, stream without resume or checksum
+      ChannelStreamHandler streamHandler = new ChannelStreamHandler(table, channel, progressListener);
+      dump(gzip, streamHandler);
+      streamHandler.complete();
+      return;
+    }
+    connector.requestUpdate(
+        true,
+        AoservProtocol.CommandId.DUMP_MYSQL_DATABASE_RESUMABLE,
+        new ResumableDump(table, pkey, gzip, channel, progressListener)
+    );
+  }
+
+  /**
+   * Dumps the database in {@link Database#DUMP_ENCODING} encoding into binary form, optionally gzipped,
+   * directly into the given file, replacing any existing file.
+   *
+   * @param  progressListener  the optional listener notified of the bytes transferred
+   *
+   * @see  Database#dump(boolean, java.nio.channels.FileChannel, com.aoindustries.aoserv.client.ProgressListener)
+   */
+  public void dump(
+      boolean gzip,
+      Path file,
+      ProgressListener progressListener
+  ) throws IOException, SQLException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      dump(gzip, channel, progressListener);
+    }
+  }
+
   @Override
   protected Object getColumnImpl(int i) {
     switch (i) {
@@ -0,0 +1,279 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.net;
+
+import com.aoapps.collections.AoCollections;
+import com.aoapps.net.AddressFamily;
+import com.aoapps.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable view of the IP addresses, for finding them by network prefix or by host
+ * without scanning.
+ *
+ * <p>IPv4 and IPv6 addresses are held together as 128-bit keys, with IPv4 addresses mapped into
+ * <code>::ffff:0:0/96</code>, in a pair of <code>long[]</code> sorted for binary search, with the rows
+ * at the same positions.  A network prefix is then a contiguous range of keys.  The addresses
+ * of each host are also precomputed.  A view is built the first time it is requested after the
+ * IP address or device tables change.</p>
+ *
+ * @see  IpAddressTable#getIpAddresses(com.aoapps.net.InetAddress, int)
+ * @see  IpAddressTable#getIpAddresses(com.aoindustries.aoserv.client.net.Host)
+ *
+ * @author  AO Industries, Inc.
+ */
+final class AddressIndex {
+
+  /**
+   * The bits of the low-order half common to every IPv4 address mapped into IPv6.
+   */
+  private static final long IPV4_MAPPED_LO = 0xffff00000000L;
+
+  private final List<IpAddress> ipAddressRows;
+  private final List<Device> deviceRows;
+
+  private final long[] his;
+  private final long[] los;
+  private final IpAddress[] addresses;
+
+  /**
+   * The unmodifiable list of addresses per host ID.
+   */
+  private final Map<Integer, List<IpAddress>> hostAddresses;
+
+  /**
+   * The unmodifiable list of unspecified addresses that are not on any device,
+   * which are included for every host.
+   */
+  private final List<IpAddress> allHostAddresses;
+
+  /**
+   * @param  ipAddressRows  the rows of the IP address table
+   * @param  deviceRows     the rows of the device table the devices of the addresses are found in
+   */
+  AddressIndex(List<IpAddress> ipAddressRows, List<Device> deviceRows) {
+    this.ipAddressRows = ipAddressRows;
+    this.deviceRows = deviceRows;
+
+    // Sort by address, keeping table order for equal addresses
+    int size = ipAddressRows.size();
+    long[] rowHis = new long[size];
+    long[] rowLos = new long[size];
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      byte[] bytes = getAddress(ipAddressRows.get(i).getInetAddress());
+      rowHis[i] = getHi(bytes);
+      rowLos[i] = getLo(bytes);
+      order[i] = i;
+    }
+    Arrays.sort(order, (i1, i2) -> {
+      int diff = Long.compareUnsigned(rowHis[i1], rowHis[i2]);
+      return diff != 0 ? diff : Long.compareUnsigned(rowLos[i1], rowLos[i2]);
+    });
+    his = new long[size];
+    los = new long[size];
+    addresses = new IpAddress[size];
+    for (int i = 0; i < size; i++) {
+      int row = order[i];
+      his[i] = rowHis[row];
+      los[i] = rowLos[row];
+      addresses[i] = ipAddressRows.get(row);
+    }
+
+    // Group by host, in table order
+    Map<Integer, Integer> deviceHosts = AoCollections.newHashMap(deviceRows.size());
+    for (Device device : deviceRows) {
+      deviceHosts.put(device.getId(), device.getServer_pkey());
+    }
+    Map<Integer, List<IpAddress>> modifiableHostAddresses = new HashMap<>();
+    List<IpAddress> modifiableAllHostAddresses = new ArrayList<>();
+    for (IpAddress address : ipAddressRows) {
+      if (isAllHosts(address)) {
+        modifiableAllHostAddresses.add(address);
+      } else {
+        Integer hostId = deviceHosts.get(address.getDevice_id());
+        if (hostId != null && !modifiableHostAddresses.containsKey(hostId)) {
+          modifiableHostAddresses.put(hostId, new ArrayList<>());
+        }
+      }
+    }
+    for (IpAddress address : ipAddressRows) {
+      if (isAllHosts(address)) {
+        for (List<IpAddress> list : modifiableHostAddresses.values()) {
+          list.add(address);
+        }
+      } else {
+        Integer hostId = deviceHosts.get(address.getDevice_id());
+        if (hostId != null) {
+          modifiableHostAddresses.get(hostId).add(address);
+        }
+      }
+    }
+    hostAddresses = AoCollections.newHashMap(modifiableHostAddresses.size());
+    for (Map.Entry<Integer, List<IpAddress>> entry : modifiableHostAddresses.entrySet()) {
+      hostAddresses.put(entry.getKey(), AoCollections.optimalUnmodifiableList(entry.getValue()));
+    }
+    allHostAddresses = AoCollections.optimalUnmodifiableList(modifiableAllHostAddresses);
+  }
+
+  private static boolean isAllHosts(IpAddress address) {
+    return address.getDevice_id() == -1 && address.getInetAddress().isUnspecified();
+  }
+
+  /**
+   * Gets the raw address, which is a numeric literal so is never looked-up.
+   */
+  private static byte[] getAddress(InetAddress inetAddress) {
+    try {
+      return java.net.InetAddress.getByName(inetAddress.toString()).getAddress();
+    } catch (UnknownHostException e) {
+      throw new IllegalArgumentException("Not a numeric address: " + inetAddress, e);
+    }
+  }
+
+  private static long toLong(byte[] bytes, int off) {
+    long value = 0;
+    for (int i = off, end = off + Long.BYTES; i < end; i++) {
+      value = (value << Byte.SIZE) | (bytes[i] & 0xff);
+    }
+    return value;
+  }
+
+  private static long getHi(byte[] bytes) {
+    return bytes.length == 4 ? 0 : toLong(bytes, 0);
+  }
+
+  private static long getLo(byte[] bytes) {
+    if (bytes.length == 4) {
+      return IPV4_MAPPED_LO
+          | ((bytes[0] & 0xffL) << 24)
+          | ((bytes[1] & 0xffL) << 16)
+          | ((bytes[2] & 0xffL) << 8)
+          | (bytes[3] & 0xffL);
+    }
+    return toLong(bytes, Long.BYTES);
+  }
+
+  /**
+   * Determines if this view is still valid for the given rows.
+   */
+  boolean isCurrent(List<IpAddress> ipAddressRows, List<Device> deviceRows) {
+    // Identity comparisons: the tables provide new lists when reloaded
+    return this.ipAddressRows == ipAddressRows && this.deviceRows == deviceRows;
+  }
+
+  /**
+   * Finds the first position with a key not less than the given key.
+   */
+  private int lowerBound(long hi, long lo) {
+    int low = 0;
+    int high = his.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int diff = Long.compareUnsigned(his[mid], hi);
+      if (diff == 0) {
+        diff = Long.compareUnsigned(los[mid], lo);
+      }
+      if (diff < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the first position with a key greater than the given key.
+   */
+  private int upperBound(long hi, long lo) {
+    int low = 0;
+    int high = his.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int diff = Long.compareUnsigned(his[mid], hi);
+      if (diff == 0) {
+        diff = Long.compareUnsigned(los[mid], lo);
+      }
+      if (diff <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the addresses within the given network, ordered by address.
+   *
+   * @param  prefix  the number of leading bits of the network, up to 32 for IPv4 or 128 for IPv6
+   *
+   * @return  the unmodifiable list of addresses
+   */
+  List<IpAddress> getIpAddresses(InetAddress network, int prefix) {
+    int maxPrefix = network.getAddressFamily() == AddressFamily.INET ? 32 : 128;
+    if (prefix < 0 || prefix > maxPrefix) {
+      throw new IllegalArgumentException("Invalid prefix for " + network + ": " + prefix);
+    }
+    int bits = prefix + (128 - maxPrefix);
+    long maskHi;
+    long maskLo;
+    if (bits == 0) {
+      maskHi = 0;
+      maskLo = 0;
+    } else if (bits <= 64) {
+      maskHi = -1L << (64 - bits);
+      maskLo = 0;
+    } else {
+      maskHi = -1L;
+      maskLo = -1L << (128 - bits);
+    }
+    byte[] bytes = getAddress(network);
+    long startHi = getHi(bytes) & maskHi;
+    long startLo = getLo(bytes) & maskLo;
+    int from = lowerBound(startHi, startLo);
+    int to = upperBound(startHi | ~maskHi, startLo | ~maskLo);
+    if (from >= to) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(Arrays.asList(addresses).subList(from, to));
+  }
+
+  /**
+   * Gets the addresses on the given host, including the unspecified addresses that are not on any device.
+   *
+   * @return  the unmodifiable list of addresses, in table order
+   */
+  List<IpAddress> getIpAddresses(int hostId) {
+    List<IpAddress> list = hostAddresses.get(hostId);
+    return list == null ? allHostAddresses : list;
+  }
+}
@@ -88,6 +88,8 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
   static final int COLUMN_PACKAGE = 1;
   static final int COLUMN_SERVER = 2;
   static final int COLUMN_IP_ADDRESS = 3;
+  static final int COLUMN_PORT = 4;
+  static final int COLUMN_APP_PROTOCOL = 5;
   public static final String COLUMN_SERVER_name = "server";
   public static final String COLUMN_IP_ADDRESS_name = "ipAddress";
   public static final String COLUMN_PORT_name = "port";
@@ -125,9 +127,9 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
         return server;
       case COLUMN_IP_ADDRESS:
         return ipAddress;
-      case 4:
+      case COLUMN_PORT:
         return port;
-      case 5:
+      case COLUMN_APP_PROTOCOL:
         return appProtocol;
       case 6:
         return monitoringEnabled;
@@ -705,6 +707,7 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
     List<CannotRemoveReason<?>> reasons = new ArrayList<>();
 
     AoservConnector conn = table.getConnector();
+    BindTable bindTable = conn.getNet().getBind();
 
     // Must be able to access package
     if (getPackage() == null) {
@@ -712,7 +715,7 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
     }
 
     // ao_servers
-    for (Server ao : conn.getLinux().getServer().getRows()) {
+    for (Server ao : bindTable.getReferencingRows(this, conn.getLinux().getServer())) {
       Integer daemonBind_id = ao.getDaemonBind_id();
       Integer daemonConnectBind_id = ao.getDaemonConnectBind_id();
       if (
@@ -754,7 +757,7 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
     }
 
     // httpd_binds
-    for (HttpdBind hb : conn.getWeb().getHttpdBind().getRows()) {
+    for (HttpdBind hb : bindTable.getReferencingRows(this, conn.getWeb().getHttpdBind())) {
       if (equals(hb.getNetBind())) {
         HttpdServer hs = hb.getHttpdServer();
         String name = hs.getName();
@@ -770,7 +773,7 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
     }
 
     // httpd_jboss_sites
-    for (com.aoindustries.aoserv.client.web.jboss.Site hjb : conn.getWeb_jboss().getSite().getRows()) {
+    for (com.aoindustries.aoserv.client.web.jboss.Site hjb : bindTable.getReferencingRows(this, conn.getWeb_jboss().getSite())) {
       Site hs = hjb.getHttpdTomcatSite().getHttpdSite();
       if (equals(hjb.getJnpBind())) {
         reasons.add(new CannotRemoveReason<>("Used as JNP port for JBoss site " + hs.getInstallDirectory() + " on " + hs.getLinuxServer().getHostname(), hjb));
@@ -790,14 +793,14 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
     }
 
     // httpd_shared_tomcats
-    for (SharedTomcat hst : conn.getWeb_tomcat().getSharedTomcat().getRows()) {
+    for (SharedTomcat hst : bindTable.getReferencingRows(this, conn.getWeb_tomcat().getSharedTomcat())) {
       if (equals(hst.getTomcat4ShutdownPort())) {
         reasons.add(new CannotRemoveReason<>("Used as shutdown port for Multi-Site Tomcat JVM " + hst.getInstallDirectory() + " on " + hst.getLinuxServer().getHostname(), hst));
       }
     }
 
     // httpd_tomcat_std_sites
-    for (PrivateTomcatSite hts : conn.getWeb_tomcat().getPrivateTomcatSite().getRows()) {
+    for (PrivateTomcatSite hts : bindTable.getReferencingRows(this, conn.getWeb_tomcat().getPrivateTomcatSite())) {
       Site hs = hts.getHttpdTomcatSite().getHttpdSite();
       if (equals(hts.getTomcat4ShutdownPort())) {
         reasons.add(new CannotRemoveReason<>("Used as shutdown port for Single-Site Tomcat JVM " + hs.getInstallDirectory() + " on " + hs.getLinuxServer().getHostname(), hts));
@@ -805,7 +808,7 @@ public final class Bind extends CachedObjectIntegerKey<Bind> implements Removabl
     }
 
     // httpd_workers
-    for (Worker hw : conn.getWeb_tomcat().getWorker().getRows()) {
+    for (Worker hw : bindTable.getReferencingRows(this, conn.getWeb_tomcat().getWorker())) {
       if (equals(hw.getBind())) {
         SharedTomcat hst = hw.getHttpdSharedTomcat();
         if (hst != null) {
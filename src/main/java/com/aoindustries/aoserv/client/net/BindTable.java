@@ -31,7 +31,6 @@ import com.aoapps.hodgepodge.io.stream.StreamableOutput;
 import com.aoapps.net.Port;
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.CachedTableIntegerKey;
-import com.aoindustries.aoserv.client.account.Account;
 import com.aoindustries.aoserv.client.aosh.Aosh;
 import com.aoindustries.aoserv.client.aosh.Command;
 import com.aoindustries.aoserv.client.billing.Package;
@@ -40,7 +39,6 @@ import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.Set;
@@ -56,6 +54,11 @@ public final class BindTable extends CachedTableIntegerKey<Bind> {
     super(connector, Bind.class);
   }
 
+  private final CompositeIndex packageIpAddressIndex = addCompositeIndex(Bind.COLUMN_PACKAGE, Bind.COLUMN_IP_ADDRESS);
+  private final CompositeIndex serverIpAddressIndex = addCompositeIndex(Bind.COLUMN_SERVER, Bind.COLUMN_IP_ADDRESS);
+  private final CompositeIndex serverIpAddressPortIndex = addCompositeIndex(Bind.COLUMN_SERVER, Bind.COLUMN_IP_ADDRESS, Bind.COLUMN_PORT);
+  private final CompositeIndex serverAppProtocolIndex = addCompositeIndex(Bind.COLUMN_SERVER, Bind.COLUMN_APP_PROTOCOL);
+
   private static final OrderBy[] defaultOrderBy = {
       new OrderBy(Bind.COLUMN_SERVER_name + '.' + Host.COLUMN_PACKAGE_name + '.' + Package.COLUMN_NAME_name, ASCENDING),
       new OrderBy(Bind.COLUMN_SERVER_name + '.' + Host.COLUMN_NAME_name, ASCENDING),
@@ -143,18 +146,7 @@ public final class BindTable extends CachedTableIntegerKey<Bind> {
   }
 
   public List<Bind> getNetBinds(Package pk, IpAddress ip) throws IOException, SQLException {
-    Account.Name packageName = pk.getName();
-    // Use the index first
-    List<Bind> cached = getNetBinds(ip);
-    int size = cached.size();
-    List<Bind> matches = new ArrayList<>(size);
-    for (int c = 0; c < size; c++) {
-      Bind nb = cached.get(c);
-      if (nb.getPackage_name().equals(packageName)) {
-        matches.add(nb);
-      }
-    }
-    return matches;
+    return getIndexedRows(packageIpAddressIndex, pk.getName(), ip.getPkey());
   }
 
   List<Bind> getNetBinds(Host se) throws IOException, SQLException {
@@ -162,18 +154,7 @@ public final class BindTable extends CachedTableIntegerKey<Bind> {
   }
 
   List<Bind> getNetBinds(Host se, IpAddress ip) throws IOException, SQLException {
-    int ipAddress = ip.getPkey();
-
-    // Use the index first
-    List<Bind> cached = getNetBinds(se);
-    int size = cached.size();
-    List<Bind> matches = new ArrayList<>(size);
-    for (Bind nb : cached) {
-      if (nb.getIpAddress_id() == ipAddress) {
-        matches.add(nb);
-      }
-    }
-    return matches;
+    return getIndexedRows(serverIpAddressIndex, se.getPkey(), ip.getPkey());
   }
 
   Bind getNetBind(
@@ -181,37 +162,12 @@ public final class BindTable extends CachedTableIntegerKey<Bind> {
       IpAddress ip,
       Port port
   ) throws IOException, SQLException {
-    int sePkey = se.getPkey();
-
-    // Use the index first
-    List<Bind> cached = getNetBinds(ip);
-    int size = cached.size();
-    for (int c = 0; c < size; c++) {
-      Bind nb = cached.get(c);
-      if (
-          nb.getServer_pkey() == sePkey
-              && nb.getPort() == port
-      ) {
-        return nb;
-      }
-    }
-    return null;
+    List<Bind> matches = getIndexedRows(serverIpAddressPortIndex, se.getPkey(), ip.getPkey(), port);
+    return matches.isEmpty() ? null : matches.get(0);
   }
 
   List<Bind> getNetBinds(Host se, AppProtocol protocol) throws IOException, SQLException {
-    String prot = protocol.getProtocol();
-
-    // Use the index first
-    List<Bind> cached = getNetBinds(se);
-    int size = cached.size();
-    List<Bind> matches = new ArrayList<>(size);
-    for (int c = 0; c < size; c++) {
-      Bind nb = cached.get(c);
-      if (nb.getAppProtocol_protocol().equals(prot)) {
-        matches.add(nb);
-      }
-    }
-    return matches;
+    return getIndexedRows(serverAppProtocolIndex, se.getPkey(), protocol.getProtocol());
   }
 
   @Override
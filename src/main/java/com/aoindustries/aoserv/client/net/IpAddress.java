@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -63,6 +63,7 @@ import java.util.concurrent.ConcurrentMap;
 public final class IpAddress extends CachedObjectIntegerKey<IpAddress> {
 
   static final int COLUMN_ID = 0;
+  static final int COLUMN_INET_ADDRESS = 1;
   static final int COLUMN_DEVICE = 2;
   static final int COLUMN_PACKAGE = 5;
   public static final String COLUMN_IP_ADDRESS_name = "inetAddress";
@@ -190,7 +191,7 @@ public final class IpAddress extends CachedObjectIntegerKey<IpAddress> {
     switch (i) {
       case COLUMN_ID:
         return pkey;
-      case 1:
+      case COLUMN_INET_ADDRESS:
         return inetAddress;
       case COLUMN_DEVICE:
         return device == -1 ? null : device;
@@ -69,14 +69,11 @@ public final class IpAddressTable extends CachedTableIntegerKey<IpAddress> {
   IpAddress getIpAddress(Device device, InetAddress inetAddress) throws IOException, SQLException {
     int device_id = device.getPkey();
 
-    List<IpAddress> cached = getRows();
+    List<IpAddress> cached = getIndexedRows(IpAddress.COLUMN_INET_ADDRESS, inetAddress);
     int len = cached.size();
     for (int c = 0; c < len; c++) {
       IpAddress address = cached.get(c);
-      if (
-          address.getDevice_id() == device_id
-              && address.getInetAddress().equals(inetAddress)
-      ) {
+      if (address.getDevice_id() == device_id) {
         return address;
       }
     }
@@ -88,16 +85,31 @@ public final class IpAddressTable extends CachedTableIntegerKey<IpAddress> {
   }
 
   public List<IpAddress> getIpAddresses(InetAddress inetAddress) throws IOException, SQLException {
-    List<IpAddress> cached = getRows();
-    int len = cached.size();
-    List<IpAddress> matches = new ArrayList<>(len);
-    for (int c = 0; c < len; c++) {
-      IpAddress address = cached.get(c);
-      if (address.getInetAddress().equals(inetAddress)) {
-        matches.add(address);
-      }
+    // Copied since callers have always been given a modifiable list
+    return new ArrayList<>(getIndexedRows(IpAddress.COLUMN_INET_ADDRESS, inetAddress));
+  }
+
+  private volatile AddressIndex addressIndex;
+
+  private AddressIndex getAddressIndex() throws IOException, SQLException {
+    List<IpAddress> ipAddressRows = getRows();
+    List<Device> deviceRows = connector.getNet().getDevice().getRows();
+    AddressIndex index = addressIndex;
+    if (index == null || !index.isCurrent(ipAddressRows, deviceRows)) {
+      // Rebuilding concurrently is harmless, as the indexes are equivalent
+      index = new AddressIndex(ipAddressRows, deviceRows);
+      addressIndex = index;
     }
-    return matches;
+    return index;
+  }
+
+  /**
+   * Gets the unmodifiable IP addresses within the given IPv4 or IPv6 network, ordered by address.
+   *
+   * @param  prefix  the number of leading bits of the network, up to 32 for IPv4 or 128 for IPv6
+   */
+  public List<IpAddress> getIpAddresses(InetAddress network, int prefix) throws IOException, SQLException {
+    return getAddressIndex().getIpAddresses(network, prefix);
   }
 
   public List<IpAddress> getIpAddresses(Package pack) throws IOException, SQLException {
@@ -105,22 +117,8 @@ public final class IpAddressTable extends CachedTableIntegerKey<IpAddress> {
   }
 
   public List<IpAddress> getIpAddresses(Host se) throws IOException, SQLException {
-    int sePkey = se.getPkey();
-
-    List<IpAddress> cached = getRows();
-    int len = cached.size();
-    List<IpAddress> matches = new ArrayList<>(len);
-    for (IpAddress address : cached) {
-      if (address.getDevice_id() == -1 && address.getInetAddress().isUnspecified()) {
-        matches.add(address);
-      } else {
-        Device device = address.getDevice();
-        if (device != null && device.getServer_pkey() == sePkey) {
-          matches.add(address);
-        }
-      }
-    }
-    return matches;
+    // Copied since callers have always been given a modifiable list
+    return new ArrayList<>(getAddressIndex().getIpAddresses(se.getPkey()));
   }
 
   @Override
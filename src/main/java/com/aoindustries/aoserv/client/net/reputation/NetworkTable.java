@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2012, 2016, 2017, 2018, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2012, 2016, 2017, 2018, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -61,6 +61,15 @@ public final class NetworkTable extends CachedTableLongKey<Network> {
     return getIndexedRows(Network.COLUMN_SET, set.getPkey());
   }
 
+  /**
+   * This table is large and is changed a few rows at a time by each reputation update.
+   * Unchanged rows are kept, which {@link ReputationIndex} relies on to avoid sorting them again.
+   */
+  @Override
+  protected boolean isDeltaRefreshEnabled() {
+    return true;
+  }
+
   @Override
   public Table.TableId getTableId() {
     return Table.TableId.IP_REPUTATION_SET_NETWORKS;
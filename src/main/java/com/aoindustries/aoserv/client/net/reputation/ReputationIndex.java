@@ -0,0 +1,206 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.net.reputation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable view of the hosts and networks of one {@link Set}, for finding them by IPv4 address
+ * without scanning or allocation.
+ *
+ * <p>Hosts and networks are each held in an <code>int[]</code> of addresses sorted for binary search,
+ * with the rows at the same positions.  A view is built the first time it is requested after the
+ * set, host, or network tables change, and only for the set requested.</p>
+ *
+ * <p>The host and network tables are refreshed incrementally, so rows not changed since the previous
+ * view are the same objects.  Their order is taken from the previous view, and only the changed rows are
+ * sorted then merged in.</p>
+ *
+ * @see  Set#getReputationIndex()
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class ReputationIndex {
+
+  private final Set set;
+  private final List<Host> hostRows;
+  private final List<Network> networkRows;
+
+  private final int networkMask;
+
+  private final int[] hostAddresses;
+  private final Host[] hosts;
+  private final int[] networkAddresses;
+  private final Network[] networks;
+
+  /**
+   * @param  previous     the previous view of the set, used to avoid sorting the unchanged rows,
+   *                      or {@code null} to sort all the rows
+   * @param  hostRows     the rows of the host table the hosts were taken from
+   * @param  networkRows  the rows of the network table the networks were taken from
+   */
+  ReputationIndex(
+      ReputationIndex previous,
+      Set set,
+      List<Host> hostRows,
+      List<Network> networkRows,
+      List<Host> setHosts,
+      List<Network> setNetworks
+  ) {
+    this.set = set;
+    this.hostRows = hostRows;
+    this.networkRows = networkRows;
+    int prefix = set.getNetworkPrefix();
+    this.networkMask = prefix <= 0 ? 0 : prefix >= Integer.SIZE ? -1 : (-1 << (Integer.SIZE - prefix));
+
+    hosts = sort(previous == null ? null : previous.hosts, setHosts, Host::getHost, Host[]::new);
+    if (previous != null && hosts == previous.hosts) {
+      hostAddresses = previous.hostAddresses;
+    } else {
+      hostAddresses = new int[hosts.length];
+      for (int i = 0; i < hosts.length; i++) {
+        hostAddresses[i] = hosts[i].getHost();
+      }
+    }
+
+    networks = sort(previous == null ? null : previous.networks, setNetworks, Network::getNetwork, Network[]::new);
+    if (previous != null && networks == previous.networks) {
+      networkAddresses = previous.networkAddresses;
+    } else {
+      networkAddresses = new int[networks.length];
+      for (int i = 0; i < networks.length; i++) {
+        networkAddresses[i] = networks[i].getNetwork();
+      }
+    }
+  }
+
+  /**
+   * @param  hostRows     the rows of the host table the hosts were taken from
+   * @param  networkRows  the rows of the network table the networks were taken from
+   */
+  ReputationIndex(Set set, List<Host> hostRows, List<Network> networkRows, List<Host> setHosts, List<Network> setNetworks) {
+    this(null, set, hostRows, networkRows, setHosts, setNetworks);
+  }
+
+  /**
+   * Sorts the rows by address.  The rows that are also in the previous sorted rows keep their order, so only the
+   * other rows are sorted, then merged in.
+   *
+   * @param  previous  the previous sorted rows or {@code null} to sort all the rows
+   *
+   * @return  the sorted rows, which is {@code previous} itself when the rows are unchanged
+   */
+  private static <R> R[] sort(R[] previous, List<R> rows, ToIntFunction<R> address, IntFunction<R[]> newArray) {
+    Comparator<R> comparator = Comparator.comparingInt(address);
+    if (previous == null) {
+      R[] sorted = rows.toArray(newArray.apply(rows.size()));
+      Arrays.sort(sorted, comparator);
+      return sorted;
+    }
+    java.util.Set<R> current = Collections.newSetFromMap(new IdentityHashMap<>(rows.size()));
+    current.addAll(rows);
+    java.util.Set<R> unchanged = Collections.newSetFromMap(new IdentityHashMap<>(previous.length));
+    for (R row : previous) {
+      if (current.contains(row)) {
+        unchanged.add(row);
+      }
+    }
+    List<R> changed = new ArrayList<>();
+    for (R row : rows) {
+      if (!unchanged.contains(row)) {
+        changed.add(row);
+      }
+    }
+    if (changed.isEmpty() && unchanged.size() == previous.length) {
+      return previous;
+    }
+    changed.sort(comparator);
+    R[] sorted = newArray.apply(rows.size());
+    int i = 0;
+    int c = 0;
+    int changedSize = changed.size();
+    for (R row : previous) {
+      if (unchanged.contains(row)) {
+        while (c < changedSize && comparator.compare(changed.get(c), row) < 0) {
+          sorted[i++] = changed.get(c++);
+        }
+        sorted[i++] = row;
+      }
+    }
+    while (c < changedSize) {
+      sorted[i++] = changed.get(c++);
+    }
+    return sorted;
+  }
+
+  /**
+   * Is this view still current for the given rows.
+   */
+  boolean isCurrent(Set set, List<Host> hostRows, List<Network> networkRows) {
+    return
+        this.set == set
+            && this.hostRows == hostRows
+            && this.networkRows == networkRows;
+  }
+
+  public Set getSet() {
+    return set;
+  }
+
+  /**
+   * Gets the host for the given 32-bit IPv4 address.
+   *
+   * @return  the host or {@code null} when the address has no reputation in this set
+   */
+  public Host getHost(int address) {
+    int index = Arrays.binarySearch(hostAddresses, address);
+    return index < 0 ? null : hosts[index];
+  }
+
+  /**
+   * Gets the network containing the given 32-bit IPv4 address, using the
+   * {@linkplain Set#getNetworkPrefix() network prefix} of this set.
+   *
+   * @return  the network or {@code null} when the network has no reputation in this set
+   */
+  public Network getNetwork(int address) {
+    int index = Arrays.binarySearch(networkAddresses, address & networkMask);
+    return index < 0 ? null : networks[index];
+  }
+
+  public int getHostCount() {
+    return hosts.length;
+  }
+
+  public int getNetworkCount() {
+    return networks.length;
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.net.reputation;
+
+import com.aoapps.lang.Throwables;
+import com.aoindustries.aoserv.client.AoservConnector;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers reputation added to one {@link Set}, sending it in batches with a single
+ * {@link Set#addReputation(java.util.Collection)} request.
+ *
+ * <p>Scores added for the same host, confidence, and reputation type are summed while buffered, limited to
+ * the range {@link Short#MIN_VALUE} to {@link Short#MAX_VALUE}.  The buffer is sent once it holds the maximum number of entries, and in the
+ * background at the flush interval.  Only one batch is sent at a time.  When the buffer is full,
+ * {@link #add(int, com.aoindustries.aoserv.client.net.reputation.Set.ConfidenceType, com.aoindustries.aoserv.client.net.reputation.Set.ReputationType, short)}
+ * waits for the batch being sent or sends the buffer itself, which slows callers to the rate the master accepts
+ * reputation.</p>
+ *
+ * <p>A batch that fails is returned to the buffer, to be sent again with the next batch, so the buffer holds at most
+ * twice the maximum number of entries.  A failure sending in the background is thrown from the next call to
+ * {@link #add(int, com.aoindustries.aoserv.client.net.reputation.Set.ConfidenceType, com.aoindustries.aoserv.client.net.reputation.Set.ReputationType, short)}
+ * or {@link #flush()}.</p>
+ *
+ * <p>All writers share the {@linkplain AoservConnector#getScheduler() scheduler of the connector}, which only starts
+ * the background sends on the {@linkplain AoservConnector#getExecutorService() executor of the connector}.</p>
+ *
+ * @see  Set#newReputationWriter(int, long, java.util.concurrent.TimeUnit)
+ *
+ * @author  AO Industries, Inc.
+ */
+public final class ReputationWriter implements AutoCloseable {
+
+  private static final Set.ConfidenceType[] confidenceTypes = Set.ConfidenceType.values();
+  private static final Set.ReputationType[] reputationTypes = Set.ReputationType.values();
+
+  /**
+   * Combines the host, confidence, and reputation type into one key.
+   */
+  private static long getKey(int host, Set.ConfidenceType confidence, Set.ReputationType reputationType) {
+    return ((long) host << 32) | (confidence.ordinal() << 16) | reputationType.ordinal();
+  }
+
+  private static class Lock {
+    // Empty lock class to help heap profile
+  }
+
+  private final Lock lock = new Lock();
+
+  private final Set set;
+  private final int maxPending;
+  private final ScheduledFuture<?> scheduled;
+
+  /**
+   * The summed scores waiting to be sent, by key.
+   */
+  private Map<Long, Integer> pending = new HashMap<>();
+  private boolean flushing;
+  private boolean closed;
+
+  /**
+   * The first failure sending in the background since last thrown, or {@code null} when none.
+   */
+  private Throwable backgroundError;
+
+  ReputationWriter(Set set, int maxPending, long flushInterval, TimeUnit unit) {
+    if (maxPending <= 0) {
+      throw new IllegalArgumentException("maxPending <= 0: " + maxPending);
+    }
+    if (flushInterval <= 0) {
+      throw new IllegalArgumentException("flushInterval <= 0: " + flushInterval);
+    }
+    this.set = set;
+    this.maxPending = maxPending;
+    AoservConnector connector = set.getTable().getConnector();
+    this.scheduled = connector.getScheduler().scheduleWithFixedDelay(
+        () -> {
+          synchronized (lock) {
+            // Skip when already being sent or nothing to send
+            if (flushing || pending.isEmpty()) {
+              return;
+            }
+          }
+          connector.getExecutorService().submit(this::backgroundFlush);
+        },
+        flushInterval,
+        flushInterval,
+        unit
+    );
+  }
+
+  public Set getSet() {
+    return set;
+  }
+
+  /**
+   * Adds reputation to the buffer, sending the buffer when full.
+   *
+   * @throws  IllegalStateException  when closed
+   */
+  public void add(int host, Set.ConfidenceType confidence, Set.ReputationType reputationType, short score) throws IOException, SQLException {
+    throwBackgroundError();
+    long key = getKey(host, confidence, reputationType);
+    boolean full;
+    while (true) {
+      synchronized (lock) {
+        if (closed) {
+          throw new IllegalStateException("ReputationWriter closed");
+        }
+        // Scores for an entry already buffered are summed without growing the buffer
+        if (pending.size() < maxPending || pending.containsKey(key)) {
+          pending.merge(key, (int) score, ReputationWriter::sum);
+          full = pending.size() >= maxPending;
+          break;
+        }
+        if (flushing) {
+          // Wait for the batch being sent when the buffer is full
+          try {
+            lock.wait();
+          } catch (InterruptedException e) {
+            // Restore the interrupted status
+            Thread.currentThread().interrupt();
+            InterruptedIOException ioErr = new InterruptedIOException();
+            ioErr.initCause(e);
+            throw ioErr;
+          }
+          continue;
+        }
+      }
+      // Buffer full and not being sent, such as after a failed batch: send it now
+      sendBatch();
+    }
+    if (full) {
+      sendBatch();
+    }
+  }
+
+  private static Integer sum(Integer score1, Integer score2) {
+    return Math.max(Short.MIN_VALUE, Math.min(score1 + score2, Short.MAX_VALUE));
+  }
+
+  /**
+   * Sends all buffered reputation, first waiting for any batch already being sent.
+   */
+  public void flush() throws IOException, SQLException {
+    throwBackgroundError();
+    sendBatch();
+  }
+
+  /**
+   * Throws the first failure sending in the background, if any, then clears it.
+   */
+  private void throwBackgroundError() throws IOException, SQLException {
+    Throwable error;
+    synchronized (lock) {
+      error = backgroundError;
+      backgroundError = null;
+    }
+    if (error != null) {
+      if (error instanceof SQLException) {
+        throw (SQLException) error;
+      }
+      throw Throwables.wrap(error, IOException.class, IOException::new);
+    }
+  }
+
+  /**
+   * Sends the buffer in the background, keeping the failure to be thrown to the caller.
+   */
+  private void backgroundFlush() {
+    try {
+      sendBatch();
+    } catch (IOException | SQLException | RuntimeException e) {
+      synchronized (lock) {
+        if (backgroundError == null) {
+          backgroundError = e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends all buffered reputation, first waiting for any batch already being sent.
+   */
+  private void sendBatch() throws IOException, SQLException {
+    Map<Long, Integer> batch;
+    synchronized (lock) {
+      while (flushing) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          // Restore the interrupted status
+          Thread.currentThread().interrupt();
+          InterruptedIOException ioErr = new InterruptedIOException();
+          ioErr.initCause(e);
+          throw ioErr;
+        }
+      }
+      if (pending.isEmpty()) {
+        return;
+      }
+      batch = pending;
+      pending = new HashMap<>();
+      flushing = true;
+    }
+    boolean sent = false;
+    try {
+      List<Set.AddReputation> addReputations = new ArrayList<>(batch.size());
+      for (Map.Entry<Long, Integer> entry : batch.entrySet()) {
+        long key = entry.getKey();
+        addReputations.add(
+            new Set.AddReputation(
+                (int) (key >>> 32),
+                confidenceTypes[(int) (key >>> 16) & 0xffff],
+                reputationTypes[(int) key & 0xffff],
+                entry.getValue().shortValue()
+            )
+        );
+      }
+      set.addReputation(addReputations);
+      sent = true;
+    } finally {
+      synchronized (lock) {
+        if (!sent) {
+          // Return the batch to be sent again
+          for (Map.Entry<Long, Integer> entry : batch.entrySet()) {
+            pending.merge(entry.getKey(), entry.getValue(), ReputationWriter::sum);
+          }
+        }
+        flushing = false;
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Stops the background flushing then sends all buffered reputation, including any batches
+   * that failed in the background.
+   */
+  @Override
+  public void close() throws IOException, SQLException {
+    synchronized (lock) {
+      closed = true;
+      lock.notifyAll();
+    }
+    scheduled.cancel(false);
+    sendBatch();
+    synchronized (lock) {
+      // Everything failed in the background has now been sent
+      backgroundError = null;
+    }
+  }
+}
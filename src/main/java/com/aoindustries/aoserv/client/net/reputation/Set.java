@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2012, 2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025  AO Industries, Inc.
+ * Copyright (C) 2012, 2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -41,6 +41,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An <code>IpReputationSet</code> stores network and host IP reputation fed
@@ -305,6 +306,14 @@ public final class Set extends CachedObjectIntegerKey<Set> {
     return table.getConnector().getNet().getReputation().getNetwork().getNetworks(this);
   }
 
+  /**
+   * Gets the hosts and networks of this set indexed by IPv4 address.
+   * The index is reused until the reputation tables change.
+   */
+  public ReputationIndex getReputationIndex() throws IOException, SQLException {
+    return table.getConnector().getNet().getReputation().getSet().getReputationIndex(this);
+  }
+
   // <editor-fold desc="Commands">
   // Note: toChar must never be 'N', since that would conflict with 'N' used for "Network".
   public enum ConfidenceType {
@@ -451,5 +460,17 @@ public final class Set extends CachedObjectIntegerKey<Set> {
       );
     }
   }
+
+  /**
+   * Creates a writer that buffers reputation added to this set, sending it in batches.
+   *
+   * @param  maxPending     the number of distinct hosts, confidences, and reputation types buffered before sending
+   * @param  flushInterval  the time between sending the buffer in the background
+   *
+   * @see  ReputationWriter
+   */
+  public ReputationWriter newReputationWriter(int maxPending, long flushInterval, TimeUnit unit) {
+    return new ReputationWriter(this, maxPending, flushInterval, unit);
+  }
   // </editor-fold>
 }
@@ -32,6 +32,9 @@ import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
 import java.io.Reader;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @see  Set
@@ -63,6 +66,40 @@ public final class SetTable extends CachedTableIntegerKey<Set> {
     return getUniqueRow(Set.COLUMN_IDENTIFIER, identifier);
   }
 
+  /**
+   * The most recent reputation index of each set, by set ID.
+   */
+  private final ConcurrentMap<Integer, ReputationIndex> reputationIndexes = new ConcurrentHashMap<>();
+
+  ReputationIndex getReputationIndex(Set set) throws IOException, SQLException {
+    Schema schema = connector.getNet().getReputation();
+    List<Host> hostRows = schema.getHost().getRows();
+    List<Network> networkRows = schema.getNetwork().getRows();
+    Integer pkey = set.getPkey();
+    ReputationIndex index = reputationIndexes.get(pkey);
+    if (index == null || !index.isCurrent(set, hostRows, networkRows)) {
+      if (index != null && index.getSet() != set) {
+        // The set table has been reloaded
+        pruneReputationIndexes();
+      }
+      // Rebuilding concurrently is harmless, as the indexes are equivalent
+      index = new ReputationIndex(index, set, hostRows, networkRows, set.getHosts(), set.getNetworks());
+      reputationIndexes.put(pkey, index);
+    }
+    return index;
+  }
+
+  /**
+   * Removes the reputation indexes of sets that no longer exist.
+   */
+  private void pruneReputationIndexes() throws IOException, SQLException {
+    for (Integer pkey : reputationIndexes.keySet()) {
+      if (get(pkey) == null) {
+        reputationIndexes.remove(pkey);
+      }
+    }
+  }
+
   /*
   List<IpReputationSet> getIpReputationSets(Account bu) throws IOException, SQLException {
     return getIndexedRows(IpReputationSet.COLUMN_ACCOUNTING, bu.getAccounting());
@@ -0,0 +1,280 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.password;
+
+import java.util.Arrays;
+
+/**
+ * An Aho-Corasick automaton over the words of a dictionary, for finding the dictionary words
+ * contained in a password in time linear in the length of the password instead of scanning
+ * every word.
+ *
+ * <p>Words are separated by any byte not greater than space, which includes all non-ASCII bytes since
+ * bytes are signed.  Matching is case-insensitive for ASCII letters only, as with
+ * {@link PasswordChecker#indexOfIgnoreCase(java.lang.String, byte[], int, int)}.</p>
+ *
+ * <p>The nodes are numbered breadth-first, with the children of each node numbered contiguously
+ * and sorted by character, so each transition is a binary search over the children of a node.
+ * This is immutable once built and may be shared by any number of threads.</p>
+ *
+ * @author  AO Industries, Inc.
+ */
+final class DictionaryMatcher {
+
+  private static final int ROOT = 0;
+
+  private final byte[] words;
+
+  /**
+   * The position of the first child of each node in {@link #labels}, with one extra element
+   * for the end of the last node.  Since nodes are numbered breadth-first, the child at
+   * position {@code i} is node {@code i + 1}.
+   */
+  private final int[] childStart;
+
+  /**
+   * The case-folded character of each child.
+   */
+  private final byte[] labels;
+
+  /**
+   * The node of the longest proper suffix of each node that is also in the automaton.
+   */
+  private final int[] fail;
+
+  /**
+   * The nearest node, following {@link #fail}, that ends a word, or {@code -1} when none.
+   */
+  private final int[] wordLink;
+
+  /**
+   * The position in {@link #words} of the first word ending at each node, or {@code -1} when none.
+   */
+  private final int[] wordStart;
+
+  /**
+   * The length of each node, which is the length of any word ending at it.
+   */
+  private final int[] depth;
+
+  private static int fold(int ch) {
+    return (ch >= 'A' && ch <= 'Z') ? (ch + ('a' - 'A')) : ch;
+  }
+
+  /**
+   * Builds the automaton for the given whitespace-separated words.
+   */
+  DictionaryMatcher(byte[] words) {
+    this.words = words;
+
+    // Build the trie, with the children of each node as a linked list
+    int capacity = 1024;
+    int[] firstChild = new int[capacity];
+    int[] nextSibling = new int[capacity];
+    byte[] nodeLabel = new byte[capacity];
+    int[] nodeWordStart = new int[capacity];
+    firstChild[ROOT] = -1;
+    nodeWordStart[ROOT] = -1;
+    int size = 1;
+    int wordslen = words.length;
+    int pos = 0;
+    while (pos < wordslen) {
+      // Find the beginning of the next word
+      while (pos < wordslen && words[pos] <= ' ') {
+        pos++;
+      }
+
+      // Search to the end of the word
+      int startpos = pos;
+      while (pos < wordslen && words[pos] > ' ') {
+        pos++;
+      }
+      if (pos > startpos) {
+        int node = ROOT;
+        for (int i = startpos; i < pos; i++) {
+          byte label = (byte) fold(words[i]);
+          int child = firstChild[node];
+          while (child != -1 && nodeLabel[child] != label) {
+            child = nextSibling[child];
+          }
+          if (child == -1) {
+            if (size == capacity) {
+              capacity <<= 1;
+              firstChild = Arrays.copyOf(firstChild, capacity);
+              nextSibling = Arrays.copyOf(nextSibling, capacity);
+              nodeLabel = Arrays.copyOf(nodeLabel, capacity);
+              nodeWordStart = Arrays.copyOf(nodeWordStart, capacity);
+            }
+            child = size++;
+            firstChild[child] = -1;
+            nextSibling[child] = firstChild[node];
+            nodeLabel[child] = label;
+            nodeWordStart[child] = -1;
+            firstChild[node] = child;
+          }
+          node = child;
+        }
+        // Keep the first of any words that differ only by case
+        if (nodeWordStart[node] == -1) {
+          nodeWordStart[node] = startpos;
+        }
+      }
+    }
+
+    // Renumber breadth-first, with the children of each node contiguous and sorted
+    int[] order = new int[size];
+    childStart = new int[size + 1];
+    labels = new byte[size - 1];
+    depth = new int[size];
+    wordStart = new int[size];
+    int tail = 1;
+    for (int head = 0; head < size; head++) {
+      int oldNode = order[head];
+      childStart[head] = tail - 1;
+      wordStart[head] = nodeWordStart[oldNode];
+      int first = tail;
+      for (int child = firstChild[oldNode]; child != -1; child = nextSibling[child]) {
+        order[tail++] = child;
+      }
+      // Insertion sort by label, since nodes have few children
+      for (int i = first + 1; i < tail; i++) {
+        int child = order[i];
+        int j = i;
+        while (j > first && nodeLabel[order[j - 1]] > nodeLabel[child]) {
+          order[j] = order[j - 1];
+          j--;
+        }
+        order[j] = child;
+      }
+      for (int i = first; i < tail; i++) {
+        labels[i - 1] = nodeLabel[order[i]];
+        depth[i] = depth[head] + 1;
+      }
+    }
+    childStart[size] = size - 1;
+
+    // Link each node to its longest proper suffix, breadth-first so suffixes are always linked first
+    fail = new int[size];
+    wordLink = new int[size];
+    wordLink[ROOT] = -1;
+    for (int node = 0; node < size; node++) {
+      for (int i = childStart[node], end = childStart[node + 1]; i < end; i++) {
+        int child = i + 1;
+        int suffix = ROOT;
+        if (node != ROOT) {
+          int state = fail[node];
+          suffix = -1;
+          while (suffix == -1) {
+            suffix = getChild(state, labels[i]);
+            if (suffix == -1) {
+              if (state == ROOT) {
+                suffix = ROOT;
+              } else {
+                state = fail[state];
+              }
+            }
+          }
+        }
+        fail[child] = suffix;
+        wordLink[child] = wordStart[suffix] != -1 ? suffix : wordLink[suffix];
+      }
+    }
+  }
+
+  /**
+   * Gets the child of a node for the given case-folded character.
+   *
+   * @return  the child or {@code -1} when none
+   */
+  private int getChild(int node, int label) {
+    int low = childStart[node];
+    int high = childStart[node + 1] - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midLabel = labels[mid];
+      if (midLabel < label) {
+        low = mid + 1;
+      } else if (midLabel > label) {
+        high = mid - 1;
+      } else {
+        return mid + 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the longest word contained in the given text, considering only words longer than the
+   * given length.  When multiple words have the same length, the word first in the dictionary
+   * is selected.
+   *
+   * @return  the node of the word or {@code -1} when none found
+   */
+  int findLongest(CharSequence text, int minLength) {
+    int longest = -1;
+    int state = ROOT;
+    for (int i = 0, len = text.length(); i < len; i++) {
+      int ch = fold(text.charAt(i));
+      if (ch > Byte.MAX_VALUE) {
+        // Not in any word
+        state = ROOT;
+      } else {
+        int next;
+        while ((next = getChild(state, ch)) == -1 && state != ROOT) {
+          state = fail[state];
+        }
+        state = next == -1 ? ROOT : next;
+        for (int word = wordStart[state] != -1 ? state : wordLink[state]; word != -1; word = wordLink[word]) {
+          int wordLen = depth[word];
+          if (wordLen <= minLength) {
+            // Suffixes are only shorter
+            break;
+          }
+          if (
+              longest == -1
+                  || wordLen > depth[longest]
+                  || (wordLen == depth[longest] && wordStart[word] < wordStart[longest])
+          ) {
+            longest = word;
+          }
+        }
+      }
+    }
+    return longest;
+  }
+
+  /**
+   * Gets the length of the word found at the given node.
+   */
+  int getLength(int node) {
+    return depth[node];
+  }
+
+  /**
+   * Gets the word found at the given node, as it appears in the dictionary.
+   */
+  String getWord(int node) {
+    return new String(words, wordStart[node], depth[node]);
+  }
+}
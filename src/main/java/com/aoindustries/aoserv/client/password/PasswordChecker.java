@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2024, 2025  AO Industries, Inc.
+ * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2024, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -80,7 +80,7 @@ public final class PasswordChecker {
   };
   public static final int NUM_CATEGORIES = categoryKeys.length;
 
-  private static byte[] cachedWords;
+  private static DictionaryMatcher cachedDictionary;
 
   public static class Result {
     private final String category;
@@ -235,45 +235,21 @@ public final class PasswordChecker {
            * Must not contain a dictionary word, forward or backword and case insensitive,
            * that is longer than half the length of the password if strict or 2 characters if not strict.
            */
-          byte[] words = getDictionary();
+          DictionaryMatcher dictionary = getDictionary();
 
           int maxAllowedDictLen = strength == PasswordStrength.STRICT ? 3 : (passwordLen / 2);
 
-          // Search through each dictionary word
-          int wordslen = words.length;
-          int pos = 0;
-          String longest = "";
-          boolean longestForwards = true;
-          while (pos < wordslen) {
-            // Find the beginning of the next word
-            while (pos < wordslen && words[pos] <= ' ') {
-              pos++;
-            }
-
-            // Search to the end of the word
-            int startpos = pos;
-            while (pos < wordslen && words[pos] > ' ') {
-              pos++;
-            }
-
-            // Get the word
-            int wordlen = pos - startpos;
-            if (wordlen > maxAllowedDictLen) {
-              if (indexOfIgnoreCase(password, words, startpos, wordlen) != -1) {
-                if (longestForwards ? (wordlen > longest.length()) : (wordlen >= longest.length())) {
-                  longest = new String(words, startpos, wordlen);
-                  longestForwards = true;
-                }
-              } else if (indexOfIgnoreCase(backwards, words, startpos, wordlen) != -1) {
-                if (wordlen > longest.length()) {
-                  longest = new String(words, startpos, wordlen);
-                  longestForwards = false;
-                }
-              }
-            }
+          // Find the longest dictionary word, preferring forwards when the same length
+          int forwardsWord = dictionary.findLongest(password, maxAllowedDictLen);
+          int backwardsWord = dictionary.findLongest(backwards, maxAllowedDictLen);
+          int longest;
+          if (forwardsWord != -1 && (backwardsWord == -1 || dictionary.getLength(forwardsWord) >= dictionary.getLength(backwardsWord))) {
+            longest = forwardsWord;
+          } else {
+            longest = backwardsWord;
           }
-          if (longest.length() > 0) {
-            results.get(4).result = RESOURCES.getMessage("dictionary.basedOnWord", longest);
+          if (longest != -1) {
+            results.get(4).result = RESOURCES.getMessage("dictionary.basedOnWord", dictionary.getWord(longest));
           }
         }
       }
@@ -302,18 +278,21 @@ public final class PasswordChecker {
     }
   */
 
-  @SuppressWarnings("ReturnOfCollectionOrArrayField")
-  private static synchronized byte[] getDictionary() throws IOException {
-    if (cachedWords == null) {
+  /**
+   * Gets the dictionary, compiled once into an automaton so each password is checked in time
+   * linear in its length.
+   */
+  private static synchronized DictionaryMatcher getDictionary() throws IOException {
+    if (cachedDictionary == null) {
       try (
           InputStream in = new CorrectedGZIPInputStream(PasswordChecker.class.getResourceAsStream("linux.words.gz"));
           ByteArrayOutputStream bout = new ByteArrayOutputStream()
           ) {
         IoUtils.copy(in, bout);
-        cachedWords = bout.toByteArray();
+        cachedDictionary = new DictionaryMatcher(bout.toByteArray());
       }
     }
-    return cachedWords;
+    return cachedDictionary;
   }
 
   public static boolean hasResults(List<Result> results) {
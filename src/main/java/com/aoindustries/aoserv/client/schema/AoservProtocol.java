@@ -200,9 +200,10 @@ public final class AoservProtocol extends GlobalObjectStringKey<AoservProtocol>
     VERSION_1_92_2_1_SNAPSHOT("1.92.2.1-SNAPSHOT"), // TODO: Non-SNAPSHOT for release
     VERSION_1_92_2_2_SNAPSHOT("1.92.2.2-SNAPSHOT"), // TODO: Non-SNAPSHOT for release
     VERSION_1_92_2_3_SNAPSHOT("1.92.2.3-SNAPSHOT"), // TODO: Non-SNAPSHOT for release
-    VERSION_1_92_2_4_SNAPSHOT("1.92.2.4-SNAPSHOT"); // TODO: Non-SNAPSHOT for release
+    VERSION_1_92_2_4_SNAPSHOT("1.92.2.4-SNAPSHOT"), // TODO: Non-SNAPSHOT for release
+    VERSION_1_92_2_5_SNAPSHOT("1.92.2.5-SNAPSHOT"); // TODO: Non-SNAPSHOT for release
 
-    public static final Version CURRENT_VERSION = VERSION_1_92_2_4_SNAPSHOT;
+    public static final Version CURRENT_VERSION = VERSION_1_92_2_5_SNAPSHOT;
 
     private static final Map<String, Version> versionMap = new HashMap<>();
 
@@ -628,6 +629,16 @@ public final class AoservProtocol extends GlobalObjectStringKey<AoservProtocol>
     web_tomcat_SharedTomcat_maxParameterCount_set,
     web_tomcat_PrivateTomcatSite_undeployOldVersions_set,
     web_tomcat_SharedTomcat_undeployOldVersions_set,
+    // Added in VERSION_1_92_2_5_SNAPSHOT, see AoservConnector.isProtocolSupported
+    GET_TABLE_VERSION,
+    GET_TABLE_DELTA,
+    MULTIPLEX,
+    LISTEN_CACHES_SUBSCRIBED,
+    GET_TABLES,
+    GET_TABLE_FILTERED,
+    GET_TABLE_PAGE,
+    DUMP_MYSQL_DATABASE_RESUMABLE,
+    DUMP_POSTGRES_DATABASE_RESUMABLE,
   }
 
   /**
@@ -26,9 +26,13 @@ package com.aoindustries.aoserv.client.sql;
 import com.aoapps.lang.exception.WrappedException;
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.AoservObject;
+import com.aoindustries.aoserv.client.schema.Type;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
 
 /**
  * Compares columns.
@@ -99,6 +103,108 @@ public final class SqlComparator<T> implements Comparator<T> {
     }
   }
 
+  /**
+   * Rows at least this many are sorted in parallel.
+   */
+  private static final int PARALLEL_SORT_THRESHOLD = 8192;
+
+  /**
+   * A row with the values of its sort expressions.
+   */
+  private static final class SortKey<R> {
+
+    private final R row;
+    private final Object[] values;
+
+    private SortKey(R row, Object[] values) {
+      this.row = row;
+      this.values = values;
+    }
+  }
+
+  /**
+   * Evaluates the sort expressions of each row once, then sorts by the values.
+   */
+  private static <R extends AoservObject<?, ?>> SortKey<R>[] sortKeys(
+      AoservConnector connector,
+      R[] rows,
+      SqlOrderByExpression... orderBy
+  ) throws IOException, SQLException {
+    int len = orderBy.length;
+    SqlExpression[] exprs = new SqlExpression[len];
+    Type[] types = new Type[len];
+    boolean[] ascending = new boolean[len];
+    for (int c = 0; c < len; c++) {
+      exprs[c] = orderBy[c].getExpression();
+      types[c] = exprs[c].getType();
+      ascending[c] = orderBy[c].isAscending();
+    }
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    SortKey<R>[] keys = new SortKey[rows.length];
+    for (int i = 0; i < rows.length; i++) {
+      R row = rows[i];
+      Object[] values = new Object[len];
+      for (int c = 0; c < len; c++) {
+        values[c] = exprs[c].evaluate(connector, row);
+      }
+      keys[i] = new SortKey<>(row, values);
+    }
+    Comparator<SortKey<R>> comparator = (key1, key2) -> {
+      for (int c = 0; c < len; c++) {
+        int diff = types[c].compare(key1.values[c], key2.values[c]);
+        if (diff != 0) {
+          return ascending[c] ? diff : -diff;
+        }
+      }
+      return 0;
+    };
+    // Both are stable
+    if (keys.length >= PARALLEL_SORT_THRESHOLD) {
+      Arrays.parallelSort(keys, comparator);
+    } else {
+      Arrays.sort(keys, comparator);
+    }
+    return keys;
+  }
+
+  /**
+   * Sorts the rows, evaluating the sort expressions once per row instead of twice per comparison.
+   * Large arrays are sorted in parallel.  The sort is stable.
+   *
+   * @see  AoservObject#compareTo(com.aoindustries.aoserv.client.AoservConnector, com.aoindustries.aoserv.client.AoservObject, com.aoindustries.aoserv.client.sql.SqlOrderByExpression...)
+   */
+  public static <R extends AoservObject<?, ?>> void sort(
+      AoservConnector connector,
+      R[] rows,
+      SqlOrderByExpression... orderBy
+  ) throws IOException, SQLException {
+    SortKey<R>[] keys = sortKeys(connector, rows, orderBy);
+    for (int i = 0; i < keys.length; i++) {
+      rows[i] = keys[i].row;
+    }
+  }
+
+  /**
+   * Sorts the rows, evaluating the sort expressions once per row instead of twice per comparison.
+   * Large lists are sorted in parallel.  The sort is stable.
+   *
+   * @see  AoservObject#compareTo(com.aoindustries.aoserv.client.AoservConnector, com.aoindustries.aoserv.client.AoservObject, com.aoindustries.aoserv.client.sql.SqlOrderByExpression...)
+   */
+  public static <R extends AoservObject<?, ?>> void sort(
+      AoservConnector connector,
+      List<R> rows,
+      SqlOrderByExpression... orderBy
+  ) throws IOException, SQLException {
+    @SuppressWarnings("unchecked")
+    R[] array = (R[]) rows.toArray(new AoservObject<?, ?>[rows.size()]);
+    SortKey<R>[] keys = sortKeys(connector, array, orderBy);
+    ListIterator<R> iter = rows.listIterator();
+    for (SortKey<R> key : keys) {
+      iter.next();
+      iter.set(key.row);
+    }
+  }
+
   public int compare(T[] oa1, T[] oa2) {
     int oa1Len = oa1.length;
     int oa2Len = oa2.length;
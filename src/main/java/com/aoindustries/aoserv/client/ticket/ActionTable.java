@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2001-2009, 2016, 2017, 2018, 2020, 2021, 2022  AO Industries, Inc.
+ * Copyright (C) 2001-2009, 2016, 2017, 2018, 2020, 2021, 2022, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -25,6 +25,9 @@ package com.aoindustries.aoserv.client.ticket;
 
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.CachedTableIntegerKey;
+import com.aoindustries.aoserv.client.ColumnFilter;
+import com.aoindustries.aoserv.client.PageRequest;
+import com.aoindustries.aoserv.client.RowPage;
 import com.aoindustries.aoserv.client.account.Administrator;
 import com.aoindustries.aoserv.client.schema.Table;
 import java.io.IOException;
@@ -64,6 +67,17 @@ public final class ActionTable extends CachedTableIntegerKey<Action> {
     return getIndexedRows(Action.COLUMN_TICKET, ticket.getTicketId());
   }
 
+  RowPage<Action> getRecentActions(Ticket ticket, int limit) throws IOException, SQLException {
+    return getPage(
+        PageRequest.first(
+            Action.COLUMN_TIME,
+            true,
+            limit,
+            ColumnFilter.equalTo(Action.COLUMN_TICKET, ticket.getTicketId())
+        )
+    );
+  }
+
   public List<Action> getActions(Administrator ba) throws IOException, SQLException {
     return getIndexedRows(Action.COLUMN_ADMINISTRATOR, ba.getUsername_userId());
   }
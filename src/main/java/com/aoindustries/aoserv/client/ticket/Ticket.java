@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2023, 2025  AO Industries, Inc.
+ * Copyright (C) 2000-2013, 2016, 2017, 2018, 2019, 2020, 2021, 2022, 2023, 2025, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -35,6 +35,7 @@ import com.aoapps.sql.SQLStreamables;
 import com.aoapps.sql.UnmodifiableTimestamp;
 import com.aoindustries.aoserv.client.AoservConnector;
 import com.aoindustries.aoserv.client.CachedObjectIntegerKey;
+import com.aoindustries.aoserv.client.RowPage;
 import com.aoindustries.aoserv.client.account.Account;
 import com.aoindustries.aoserv.client.account.Administrator;
 import com.aoindustries.aoserv.client.account.Profile;
@@ -493,6 +494,18 @@ public final class Ticket extends CachedObjectIntegerKey<Ticket> {
     return table.getConnector().getTicket().getAction().getActions(this);
   }
 
+  /**
+   * Gets the most recent actions on this ticket, one page at a time.
+   * When the actions are not already cached, only the requested page is transferred.
+   *
+   * @param  limit  the maximum number of actions per page
+   *
+   * @see  RowPage#getNext()
+   */
+  public RowPage<Action> getRecentTicketActions(int limit) throws IOException, SQLException {
+    return table.getConnector().getTicket().getAction().getRecentActions(this, limit);
+  }
+
   public List<Assignment> getTicketAssignments() throws IOException, SQLException {
     return table.getConnector().getTicket().getAssignment().getTicketAssignments(this);
   }
@@ -1,6 +1,6 @@
 /*
  * aoserv-client - Java client for the AOServ Platform.
- * Copyright (C) 2021, 2022, 2023  AO Industries, Inc.
+ * Copyright (C) 2021, 2022, 2023, 2026  AO Industries, Inc.
  *     support@aoindustries.com
  *     7262 Bull Pen Cir
  *     Mobile, AL 36695
@@ -66,5 +66,6 @@ module com.aoindustries.aoserv.client {
   // Java SE
   requires java.desktop;
   requires java.logging;
+  requires java.management;
   requires java.sql;
 }
@@ -0,0 +1,241 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import static org.junit.Assert.assertEquals;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import com.aoindustries.aoserv.client.schema.Table;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class CompositeHashTest {
+
+  private static final int[] COLUMNS_2 = {1, 2};
+  private static final int[] COLUMNS_3 = {1, 2, 3};
+
+  /**
+   * A row with an id and three columns of any values.
+   */
+  private static final class TestRow extends AoservObject<Integer, TestRow> {
+
+    private final int id;
+    private final Object[] values;
+
+    private TestRow(int id, Object ... values) {
+      this.id = id;
+      this.values = values;
+    }
+
+    @Override
+    protected Object getColumnImpl(int i) {
+      return i == 0 ? id : values[i - 1];
+    }
+
+    @Override
+    public Integer getKey() {
+      return id;
+    }
+
+    @Override
+    public Table.TableId getTableId() {
+      return Table.TableId.SCHEMA_TABLES;
+    }
+
+    @Override
+    public void init(ResultSet results) throws SQLException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void read(StreamableInput in, AoservProtocol.Version protocolVersion) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void write(StreamableOutput out, AoservProtocol.Version protocolVersion) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * A value with the same hash code as every other, to force collisions.
+   */
+  private static final class Colliding {
+
+    private final int value;
+
+    private Colliding(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Colliding && ((Colliding) obj).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+  }
+
+  private static List<TestRow> scan(List<TestRow> rows, int[] columns, Object ... key) {
+    List<TestRow> matches = new ArrayList<>();
+    for (TestRow row : rows) {
+      boolean match = true;
+      for (int c = 0; c < columns.length; c++) {
+        match &= Objects.equals(row.getColumn(columns[c]), key[c]);
+      }
+      if (match) {
+        matches.add(row);
+      }
+    }
+    return matches;
+  }
+
+  @Test
+  public void testTwoColumns() {
+    TestRow r1 = new TestRow(1, "a", 1, null);
+    TestRow r2 = new TestRow(2, "a", 2, null);
+    TestRow r3 = new TestRow(3, "a", 1, null);
+    CompositeHash<TestRow> hash = new CompositeHash<>(Arrays.asList(r1, r2, r3), COLUMNS_2);
+    // In the order of the rows
+    assertEquals(Arrays.asList(r1, r3), hash.get("a", 1));
+    assertEquals(Collections.singletonList(r2), hash.get("a", 2));
+    assertEquals(Collections.emptyList(), hash.get("a", 3));
+    assertEquals(Collections.emptyList(), hash.get("b", 1));
+    // Order of the values matters
+    assertEquals(Collections.emptyList(), hash.get(1, "a"));
+  }
+
+  @Test
+  public void testThreeColumns() {
+    TestRow r1 = new TestRow(1, "a", 1, true);
+    TestRow r2 = new TestRow(2, "a", 1, false);
+    CompositeHash<TestRow> hash = new CompositeHash<>(Arrays.asList(r1, r2), COLUMNS_3);
+    assertEquals(Collections.singletonList(r1), hash.get("a", 1, true));
+    assertEquals(Collections.singletonList(r2), hash.get("a", 1, false));
+    assertEquals(Collections.emptyList(), hash.get("a", 1, null));
+  }
+
+  @Test
+  public void testNullValues() {
+    TestRow r1 = new TestRow(1, null, null, null);
+    TestRow r2 = new TestRow(2, "a", null, null);
+    TestRow r3 = new TestRow(3, null, 1, null);
+    CompositeHash<TestRow> hash = new CompositeHash<>(Arrays.asList(r1, r2, r3), COLUMNS_2);
+    assertEquals(Collections.singletonList(r1), hash.get(null, null));
+    assertEquals(Collections.singletonList(r2), hash.get("a", null));
+    assertEquals(Collections.singletonList(r3), hash.get(null, 1));
+    assertEquals(Collections.emptyList(), hash.get(null, 2));
+  }
+
+  @Test
+  public void testCollisions() {
+    List<TestRow> rows = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      rows.add(new TestRow(i, new Colliding(i % 10), new Colliding(i % 3), null));
+    }
+    CompositeHash<TestRow> hash = new CompositeHash<>(rows, COLUMNS_2);
+    for (int v1 = 0; v1 < 11; v1++) {
+      for (int v2 = 0; v2 < 4; v2++) {
+        Colliding c1 = new Colliding(v1);
+        Colliding c2 = new Colliding(v2);
+        assertEquals(scan(rows, COLUMNS_2, c1, c2), hash.get(c1, c2));
+      }
+    }
+  }
+
+  @Test
+  public void testCrossTypeLookupEmpty() {
+    TestRow r1 = new TestRow(1, 1, 2L, null);
+    CompositeHash<TestRow> hash = new CompositeHash<>(Collections.singletonList(r1), COLUMNS_2);
+    assertEquals(Collections.singletonList(r1), hash.get(1, 2L));
+    // Boxed values of other types are not equal, even when numerically equal
+    assertEquals(Collections.emptyList(), hash.get(1L, 2L));
+    assertEquals(Collections.emptyList(), hash.get(1, 2));
+  }
+
+  @Test
+  public void testEmpty() {
+    CompositeHash<TestRow> hash = new CompositeHash<>(Collections.emptyList(), COLUMNS_2);
+    assertEquals(Collections.emptyList(), hash.get("a", 1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongWidth2() {
+    new CompositeHash<TestRow>(Collections.emptyList(), COLUMNS_3).get("a", 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongWidth3() {
+    new CompositeHash<TestRow>(Collections.emptyList(), COLUMNS_2).get("a", 1, null);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnmodifiable() {
+    TestRow r1 = new TestRow(1, "a", 1, null);
+    TestRow r2 = new TestRow(2, "a", 1, null);
+    new CompositeHash<>(Arrays.asList(r1, r2), COLUMNS_2).get("a", 1).add(r1);
+  }
+
+  @Test
+  public void testRandom() {
+    Random random = new Random(12345);
+    for (int size : new int[] {1, 2, 3, 7, 100, 1000}) {
+      List<TestRow> rows = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        rows.add(new TestRow(
+            i,
+            random.nextInt(5) == 0 ? null : random.nextInt(10),
+            random.nextInt(5) == 0 ? null : Integer.toString(random.nextInt(10)),
+            random.nextBoolean()
+        ));
+      }
+      CompositeHash<TestRow> hash2 = new CompositeHash<>(rows, COLUMNS_2);
+      CompositeHash<TestRow> hash3 = new CompositeHash<>(rows, COLUMNS_3);
+      for (int i = 0; i < 200; i++) {
+        Integer v1 = random.nextInt(6) == 0 ? null : random.nextInt(11);
+        String v2 = random.nextInt(6) == 0 ? null : Integer.toString(random.nextInt(11));
+        Boolean v3 = random.nextBoolean();
+        assertEquals(scan(rows, COLUMNS_2, v1, v2), hash2.get(v1, v2));
+        assertEquals(scan(rows, COLUMNS_3, v1, v2, v3), hash3.get(v1, v2, v3));
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class IntObjectHashTest extends PrimitiveKeyHashTest {
+
+  @Override
+  protected <T> PrimitiveKeyHash<T> newHash(int expectedSize) {
+    return new IntObjectHash<>(expectedSize);
+  }
+
+  @Override
+  protected <T> T put(PrimitiveKeyHash<T> hash, int key, T value) {
+    return ((IntObjectHash<T>) hash).put(key, value);
+  }
+
+  @Override
+  protected <T> T get(PrimitiveKeyHash<T> hash, int key) {
+    return ((IntObjectHash<T>) hash).get(key);
+  }
+}
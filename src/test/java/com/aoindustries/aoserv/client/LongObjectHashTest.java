@@ -0,0 +1,62 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class LongObjectHashTest extends PrimitiveKeyHashTest {
+
+  @Override
+  protected <T> PrimitiveKeyHash<T> newHash(int expectedSize) {
+    return new LongObjectHash<>(expectedSize);
+  }
+
+  @Override
+  protected <T> T put(PrimitiveKeyHash<T> hash, int key, T value) {
+    return ((LongObjectHash<T>) hash).put(key, value);
+  }
+
+  @Override
+  protected <T> T get(PrimitiveKeyHash<T> hash, int key) {
+    return ((LongObjectHash<T>) hash).get(key);
+  }
+
+  @Test
+  public void testWideKeys() {
+    LongObjectHash<String> hash = new LongObjectHash<>(3);
+    hash.put(0L, "zero");
+    hash.put(1L << 32, "high");
+    hash.put((1L << 32) | 1, "high one");
+    assertEquals("zero", hash.get(0L));
+    assertEquals("high", hash.get(1L << 32));
+    assertEquals("high one", hash.get((1L << 32) | 1));
+    assertNull(hash.get(1L));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public abstract class PrimitiveKeyHashTest {
+
+  protected abstract <T> PrimitiveKeyHash<T> newHash(int expectedSize);
+
+  protected abstract <T> T put(PrimitiveKeyHash<T> hash, int key, T value);
+
+  protected abstract <T> T get(PrimitiveKeyHash<T> hash, int key);
+
+  @Test
+  public void testPutAndGet() {
+    PrimitiveKeyHash<String> hash = newHash(3);
+    assertNull(put(hash, 1, "one"));
+    assertNull(put(hash, -1, "minus one"));
+    assertNull(put(hash, 0, "zero"));
+    assertEquals("one", get(hash, 1));
+    assertEquals("minus one", get(hash, -1));
+    assertEquals("zero", get(hash, 0));
+    assertEquals(3, hash.size());
+  }
+
+  @Test
+  public void testPutReplaces() {
+    PrimitiveKeyHash<String> hash = newHash(1);
+    assertNull(put(hash, 7, "first"));
+    assertEquals("first", put(hash, 7, "second"));
+    assertEquals("second", get(hash, 7));
+    assertEquals(1, hash.size());
+  }
+
+  @Test
+  public void testAbsentKey() {
+    PrimitiveKeyHash<String> hash = newHash(2);
+    assertNull(get(hash, 0));
+    put(hash, 1, "one");
+    assertNull(get(hash, 0));
+    assertNull(get(hash, 2));
+    assertNull(get(hash, Integer.MIN_VALUE));
+    assertEquals(1, hash.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullValueNotAllowed() {
+    put(newHash(1), 1, null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFull() {
+    PrimitiveKeyHash<String> hash = newHash(1);
+    put(hash, 1, "one");
+    put(hash, 2, "two");
+  }
+
+  @Test
+  public void testFullReplaceAllowed() {
+    PrimitiveKeyHash<String> hash = newHash(1);
+    put(hash, 1, "one");
+    assertEquals("one", put(hash, 1, "uno"));
+    assertEquals("uno", get(hash, 1));
+  }
+
+  /**
+   * Fills a small hash so that most keys share probe sequences, adding and replacing keys in random order,
+   * checking every key after each change.
+   */
+  @Test
+  public void testCollisions() {
+    Random random = new Random(12345);
+    for (int round = 0; round < 100; round++) {
+      PrimitiveKeyHash<Integer> hash = newHash(31);
+      Map<Integer, Integer> expected = new HashMap<>();
+      for (int op = 0; op < 100; op++) {
+        int key = random.nextInt(64) - 32;
+        if (expected.size() < 31 || expected.containsKey(key)) {
+          Integer value = random.nextInt();
+          assertEquals(expected.put(key, value), put(hash, key, value));
+        }
+        assertEquals(expected.size(), hash.size());
+        for (int k = -32; k < 32; k++) {
+          assertEquals(expected.get(k), get(hash, k));
+        }
+      }
+    }
+  }
+}
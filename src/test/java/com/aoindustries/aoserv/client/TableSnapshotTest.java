@@ -0,0 +1,170 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import com.aoindustries.aoserv.client.schema.Table;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class TableSnapshotTest {
+
+  private static final int COLUMN_INT = 0;
+  private static final int COLUMN_LONG = 1;
+
+  /**
+   * A row with one {@link Integer} column and one {@link Long} column.
+   */
+  private static final class TestRow extends AoservObject<Integer, TestRow> {
+
+    private final int intValue;
+    private final long longValue;
+
+    private TestRow(int intValue, long longValue) {
+      this.intValue = intValue;
+      this.longValue = longValue;
+    }
+
+    @Override
+    protected Object getColumnImpl(int i) {
+      switch (i) {
+        case COLUMN_INT:
+          return intValue;
+        case COLUMN_LONG:
+          return longValue;
+        default:
+          throw new IllegalArgumentException("Invalid index: " + i);
+      }
+    }
+
+    @Override
+    public Integer getKey() {
+      return intValue;
+    }
+
+    @Override
+    public Table.TableId getTableId() {
+      return Table.TableId.SCHEMA_TABLES;
+    }
+
+    @Override
+    public void init(ResultSet results) throws SQLException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void read(StreamableInput in, AoservProtocol.Version protocolVersion) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void write(StreamableOutput out, AoservProtocol.Version protocolVersion) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static final TestRow ROW1 = new TestRow(1, 1L);
+  private static final TestRow ROW2 = new TestRow(2, 1L);
+
+  private static TableSnapshot<TestRow> newSnapshot() {
+    return new TableSnapshot<>(Collections.unmodifiableList(Arrays.asList(ROW1, ROW2)), 0, -1, 0);
+  }
+
+  @Test
+  public void testUniqueRowSameType() throws IOException, SQLException {
+    TableSnapshot<TestRow> snapshot = newSnapshot();
+    assertSame(ROW2, snapshot.getUniqueRow(null, COLUMN_INT, 2));
+    assertSame(ROW2, snapshot.getUniqueRow(null, COLUMN_INT, (Object) 2));
+    assertNull(snapshot.getUniqueRow(null, COLUMN_INT, 3));
+  }
+
+  @Test
+  public void testUniqueRowCrossTypeIsNotFound() throws IOException, SQLException {
+    TableSnapshot<TestRow> snapshot = newSnapshot();
+    assertNull(snapshot.getUniqueRow(null, COLUMN_INT, 1L));
+    assertNull(snapshot.getUniqueRow(null, COLUMN_INT, (Object) 1L));
+    assertNull(snapshot.getUniqueRow(null, COLUMN_INT, (Object) "1"));
+    assertNull(snapshot.getUniqueRow(null, COLUMN_INT, null));
+  }
+
+  @Test
+  public void testIndexedRowsSameType() {
+    TableSnapshot<TestRow> snapshot = newSnapshot();
+    List<TestRow> expected = Arrays.asList(ROW1, ROW2);
+    assertEquals(expected, snapshot.getIndexedRows(COLUMN_LONG, 1L));
+    assertEquals(expected, snapshot.getIndexedRows(COLUMN_LONG, (Object) 1L));
+    assertTrue(snapshot.getIndexedRows(COLUMN_LONG, 2L).isEmpty());
+  }
+
+  @Test
+  public void testIndexedRowsCrossTypeIsEmpty() {
+    TableSnapshot<TestRow> snapshot = newSnapshot();
+    assertTrue(snapshot.getIndexedRows(COLUMN_LONG, 1).isEmpty());
+    assertTrue(snapshot.getIndexedRows(COLUMN_LONG, (Object) 1).isEmpty());
+    assertTrue(snapshot.getIndexedRows(COLUMN_INT, 1L).isEmpty());
+    assertTrue(snapshot.getIndexedRows(COLUMN_INT, (Object) 1L).isEmpty());
+    assertTrue(snapshot.getIndexedRows(COLUMN_INT, null).isEmpty());
+  }
+
+  @Test
+  public void testBuildHashesIndexBeforeUnique() throws IOException, SQLException {
+    TableSnapshot<TestRow> snapshot = newSnapshot();
+    // The indexed column is before the unique column, as a referencing column may be declared first
+    snapshot.buildHashes(null, new int[] {COLUMN_LONG, COLUMN_INT}, new boolean[] {false, true});
+    assertTrue(snapshot.isIndexed(COLUMN_LONG));
+    assertFalse(snapshot.isHashed(COLUMN_LONG));
+    assertTrue(snapshot.isHashed(COLUMN_INT));
+    assertFalse(snapshot.isIndexed(COLUMN_INT));
+    assertSame(ROW1, snapshot.getUniqueRow(null, COLUMN_INT, 1));
+    assertSame(ROW2, snapshot.getUniqueRow(null, COLUMN_INT, 2));
+    assertEquals(Arrays.asList(ROW1, ROW2), snapshot.getIndexedRows(COLUMN_LONG, 1L));
+  }
+
+  @Test
+  public void testBuildHashesKeepsBuilt() throws IOException, SQLException {
+    TableSnapshot<TestRow> snapshot = newSnapshot();
+    assertSame(ROW1, snapshot.getUniqueRow(null, COLUMN_INT, 1));
+    assertTrue(snapshot.isHashed(COLUMN_INT));
+    snapshot.buildHashes(null, new int[] {COLUMN_LONG, COLUMN_INT}, new boolean[] {false, true});
+    assertTrue(snapshot.isIndexed(COLUMN_LONG));
+    assertFalse(snapshot.isIndexed(COLUMN_INT));
+    assertSame(ROW1, snapshot.getUniqueRow(null, COLUMN_INT, 1));
+  }
+}
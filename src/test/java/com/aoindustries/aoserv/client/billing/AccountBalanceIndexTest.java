@@ -0,0 +1,215 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.billing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoapps.lang.i18n.Money;
+import com.aoapps.lang.i18n.Monies;
+import com.aoapps.sql.SQLStreamables;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class AccountBalanceIndexTest {
+
+  private static final Currency USD = Currency.getInstance("USD");
+
+  /**
+   * Creates a transaction of the given whole number of dollars.
+   */
+  private static Transaction newTransaction(int transid, long time, int dollars, byte paymentConfirmed) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (StreamableOutput out = new StreamableOutput(bout)) {
+      SQLStreamables.writeTimestamp(new Timestamp(time), out);
+      out.writeCompressedInt(transid);
+      out.writeCompressedUTF("TEST", 0);
+      out.writeCompressedUTF("TEST", 1);
+      out.writeCompressedUTF("test", 2);
+      out.writeCompressedUTF("test", 3);
+      out.writeCompressedUTF("Test transaction", 4);
+      // Quantity of 1.000
+      out.writeCompressedInt(1000);
+      MoneyUtil.writeMoney(new Money(USD, dollars * 100L, 2), out);
+      out.writeNullUTF(null);
+      out.writeNullUTF(null);
+      out.writeNullUTF(null);
+      out.writeCompressedInt(-1);
+      out.writeByte(paymentConfirmed);
+    }
+    Transaction transaction = new Transaction();
+    try (StreamableInput in = new StreamableInput(new ByteArrayInputStream(bout.toByteArray()))) {
+      transaction.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    }
+    return transaction;
+  }
+
+  private static Transaction newTransaction(int transid, long time, int dollars) throws IOException {
+    return newTransaction(transid, time, dollars, Transaction.CONFIRMED);
+  }
+
+  private static Monies sum(Transaction ... transactions) {
+    Monies balance = Monies.of();
+    for (Transaction transaction : transactions) {
+      balance = balance.add(transaction.getAmount());
+    }
+    return balance;
+  }
+
+  private static void assertSameBalances(AccountBalanceIndex expected, AccountBalanceIndex actual, long ... times) {
+    assertEquals(expected.getBalance(), actual.getBalance());
+    assertEquals(expected.getConfirmedBalance(), actual.getConfirmedBalance());
+    for (long time : times) {
+      Timestamp before = new Timestamp(time);
+      assertEquals(expected.getBalance(before), actual.getBalance(before));
+      assertEquals(expected.getConfirmedBalance(before), actual.getConfirmedBalance(before));
+    }
+  }
+
+  @Test
+  public void testEmpty() {
+    AccountBalanceIndex index = AccountBalanceIndex.of(Collections.emptyList(), null);
+    assertEquals(Monies.of(), index.getBalance());
+    assertEquals(Monies.of(), index.getBalance(new Timestamp(1000)));
+  }
+
+  @Test
+  public void testBalanceBeforeTime() throws IOException {
+    Transaction t1 = newTransaction(1, 3000, 10);
+    Transaction t2 = newTransaction(2, 1000, 20);
+    Transaction t3 = newTransaction(3, 2000, 40);
+    // Table order differs from time order
+    AccountBalanceIndex index = AccountBalanceIndex.of(Arrays.asList(t1, t2, t3), null);
+    assertEquals(sum(t1, t2, t3), index.getBalance());
+    assertEquals(Monies.of(), index.getBalance(new Timestamp(1000)));
+    assertEquals(sum(t2), index.getBalance(new Timestamp(1001)));
+    assertEquals(sum(t2), index.getBalance(new Timestamp(2000)));
+    assertEquals(sum(t2, t3), index.getBalance(new Timestamp(2001)));
+    assertEquals(sum(t1, t2, t3), index.getBalance(new Timestamp(3001)));
+  }
+
+  @Test
+  public void testConfirmation() throws IOException {
+    Transaction confirmed = newTransaction(1, 1000, 10, Transaction.CONFIRMED);
+    Transaction waiting = newTransaction(2, 2000, 20, Transaction.WAITING_CONFIRMATION);
+    Transaction notConfirmed = newTransaction(3, 3000, 40, Transaction.NOT_CONFIRMED);
+    AccountBalanceIndex index = AccountBalanceIndex.of(Arrays.asList(confirmed, waiting, notConfirmed), null);
+    assertEquals(sum(confirmed, waiting), index.getBalance());
+    assertEquals(sum(confirmed), index.getConfirmedBalance());
+    assertEquals(sum(confirmed), index.getTransactionBalance(confirmed));
+    assertEquals(sum(confirmed, waiting), index.getTransactionBalance(notConfirmed));
+  }
+
+  @Test
+  public void testCanExtendAppended() throws IOException {
+    Transaction t1 = newTransaction(1, 1000, 10);
+    Transaction t2 = newTransaction(2, 2000, 20);
+    Transaction t3 = newTransaction(3, 2000, 40);
+    Transaction t4 = newTransaction(4, 3000, 80);
+    AccountBalanceIndex previous = AccountBalanceIndex.of(Arrays.asList(t1, t2), null);
+    List<Transaction> transactions = Arrays.asList(t1, t2, t3, t4);
+    // Equal to the latest time is still in order
+    assertTrue(previous.canExtend(transactions));
+    AccountBalanceIndex extended = AccountBalanceIndex.of(transactions, previous);
+    assertSame(transactions, extended.transactions);
+    assertSameBalances(AccountBalanceIndex.of(transactions, null), extended, 1000, 2000, 2001, 3000, 3001);
+  }
+
+  @Test
+  public void testCanExtendUnchanged() throws IOException {
+    Transaction t1 = newTransaction(1, 1000, 10);
+    AccountBalanceIndex previous = AccountBalanceIndex.of(Collections.singletonList(t1), null);
+    assertTrue(previous.canExtend(Collections.singletonList(t1)));
+  }
+
+  @Test
+  public void testCanExtendFromEmpty() throws IOException {
+    AccountBalanceIndex previous = AccountBalanceIndex.of(Collections.emptyList(), null);
+    Transaction t1 = newTransaction(1, 2000, 10);
+    Transaction t2 = newTransaction(2, 1000, 20);
+    assertTrue(previous.canExtend(Collections.singletonList(t1)));
+    // Out of order within the new transactions
+    assertFalse(previous.canExtend(Arrays.asList(t1, t2)));
+  }
+
+  @Test
+  public void testCannotExtendEarlierTime() throws IOException {
+    Transaction t1 = newTransaction(1, 1000, 10);
+    Transaction t2 = newTransaction(2, 3000, 20);
+    Transaction t3 = newTransaction(3, 2000, 40);
+    AccountBalanceIndex previous = AccountBalanceIndex.of(Arrays.asList(t1, t2), null);
+    List<Transaction> transactions = Arrays.asList(t1, t2, t3);
+    assertFalse(previous.canExtend(transactions));
+    assertSameBalances(
+        AccountBalanceIndex.of(transactions, null),
+        AccountBalanceIndex.of(transactions, previous),
+        1000, 2000, 2001, 3000, 3001
+    );
+  }
+
+  @Test
+  public void testCannotExtendRemoved() throws IOException {
+    Transaction t1 = newTransaction(1, 1000, 10);
+    Transaction t2 = newTransaction(2, 2000, 20);
+    AccountBalanceIndex previous = AccountBalanceIndex.of(Arrays.asList(t1, t2), null);
+    List<Transaction> transactions = Collections.singletonList(t1);
+    assertFalse(previous.canExtend(transactions));
+    assertEquals(sum(t1), AccountBalanceIndex.of(transactions, previous).getBalance());
+  }
+
+  @Test
+  public void testCannotExtendReplaced() throws IOException {
+    Transaction t1 = newTransaction(1, 1000, 10);
+    Transaction t2 = newTransaction(2, 2000, 20);
+    // Same transaction reloaded as a different instance, such as after a change
+    Transaction t2Changed = newTransaction(2, 2000, 30);
+    AccountBalanceIndex previous = AccountBalanceIndex.of(Arrays.asList(t1, t2), null);
+    List<Transaction> transactions = Arrays.asList(t1, t2Changed);
+    assertFalse(previous.canExtend(transactions));
+    assertEquals(sum(t1, t2Changed), AccountBalanceIndex.of(transactions, previous).getBalance());
+  }
+
+  @Test
+  public void testTransactionNotInIndex() throws IOException {
+    Transaction t1 = newTransaction(1, 1000, 10);
+    AccountBalanceIndex index = AccountBalanceIndex.of(Collections.singletonList(t1), null);
+    assertNull(index.getTransactionBalance(newTransaction(2, 1000, 10)));
+  }
+}
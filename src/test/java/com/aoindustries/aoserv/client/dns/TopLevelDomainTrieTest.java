@@ -0,0 +1,155 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.dns;
+
+import static org.junit.Assert.assertEquals;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class TopLevelDomainTrieTest {
+
+  private static List<TopLevelDomain> newTlds(String ... domains) throws IOException {
+    List<TopLevelDomain> tlds = new ArrayList<>(domains.length);
+    for (String domain : domains) {
+      ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      try (StreamableOutput out = new StreamableOutput(bout)) {
+        out.writeUTF(domain);
+        out.writeUTF("Test top level domain");
+      }
+      TopLevelDomain tld = new TopLevelDomain();
+      try (StreamableInput in = new StreamableInput(new ByteArrayInputStream(bout.toByteArray()))) {
+        tld.read(in, AoservProtocol.Version.CURRENT_VERSION);
+      }
+      tlds.add(tld);
+    }
+    return tlds;
+  }
+
+  /**
+   * Finds the longest top level domain by comparing the hostname with every top level domain.
+   */
+  private static int scanTldDot(List<TopLevelDomain> tlds, String hostname, int end) {
+    int found = -1;
+    for (TopLevelDomain tld : tlds) {
+      String domain = tld.getDomain().toString();
+      int dot = end - domain.length() - 1;
+      if (
+          dot >= 0
+              && hostname.charAt(dot) == '.'
+              && hostname.regionMatches(true, dot + 1, domain, 0, domain.length())
+              && (found == -1 || dot < found)
+      ) {
+        found = dot;
+      }
+    }
+    return found;
+  }
+
+  @Test
+  public void testLongestMatch() throws IOException {
+    TopLevelDomainTrie trie = new TopLevelDomainTrie(newTlds("uk", "co.uk", "com"));
+    assertEquals("example".length(), trie.findTldDot("example.co.uk", "example.co.uk".length()));
+    assertEquals("www.example".length(), trie.findTldDot("www.example.co.uk", "www.example.co.uk".length()));
+    assertEquals("example".length(), trie.findTldDot("example.uk", "example.uk".length()));
+    assertEquals("example".length(), trie.findTldDot("example.com", "example.com".length()));
+    // Only "co.uk" itself, not a hostname within it
+    assertEquals(2, trie.findTldDot("co.uk", "co.uk".length()));
+  }
+
+  @Test
+  public void testRequiresDot() throws IOException {
+    TopLevelDomainTrie trie = new TopLevelDomainTrie(newTlds("com", "co.uk"));
+    assertEquals(-1, trie.findTldDot("com", "com".length()));
+    assertEquals(-1, trie.findTldDot("examplecom", "examplecom".length()));
+    assertEquals(-1, trie.findTldDot("example.xco.uk", "example.xco.uk".length()));
+    assertEquals(-1, trie.findTldDot("", 0));
+  }
+
+  @Test
+  public void testNotFound() throws IOException {
+    TopLevelDomainTrie trie = new TopLevelDomainTrie(newTlds("com"));
+    assertEquals(-1, trie.findTldDot("example.org", "example.org".length()));
+    assertEquals(-1, new TopLevelDomainTrie(newTlds()).findTldDot("example.com", "example.com".length()));
+  }
+
+  @Test
+  public void testIgnoreCase() throws IOException {
+    TopLevelDomainTrie trie = new TopLevelDomainTrie(newTlds("Co.UK", "com"));
+    assertEquals("example".length(), trie.findTldDot("EXAMPLE.co.uk", "EXAMPLE.co.uk".length()));
+    assertEquals("example".length(), trie.findTldDot("example.CO.Uk", "example.CO.Uk".length()));
+    assertEquals("example".length(), trie.findTldDot("example.COM", "example.COM".length()));
+  }
+
+  @Test
+  public void testEnd() throws IOException {
+    TopLevelDomainTrie trie = new TopLevelDomainTrie(newTlds("com"));
+    // Trailing dot excluded by the end index
+    assertEquals("example".length(), trie.findTldDot("example.com.", "example.com".length()));
+    assertEquals(-1, trie.findTldDot("example.com.", "example.com.".length()));
+  }
+
+  @Test
+  public void testRandom() throws IOException {
+    Random random = new Random(12345);
+    String alphabet = "abAB.";
+    for (int iteration = 0; iteration < 100; iteration++) {
+      List<String> domains = new ArrayList<>();
+      for (int d = random.nextInt(10); d > 0; d--) {
+        StringBuilder domain = new StringBuilder();
+        for (int labels = random.nextInt(3); labels >= 0; labels--) {
+          if (domain.length() > 0) {
+            domain.append('.');
+          }
+          for (int i = random.nextInt(3); i >= 0; i--) {
+            domain.append((char) ('a' + random.nextInt(2)));
+          }
+        }
+        domains.add(domain.toString());
+      }
+      List<TopLevelDomain> tlds = newTlds(domains.toArray(new String[domains.size()]));
+      TopLevelDomainTrie trie = new TopLevelDomainTrie(tlds);
+      for (int h = 0; h < 50; h++) {
+        StringBuilder hostname = new StringBuilder();
+        for (int i = random.nextInt(12); i > 0; i--) {
+          hostname.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        String str = hostname.toString();
+        int end = str.length() - random.nextInt(Math.min(str.length(), 2) + 1);
+        assertEquals(str + " " + end, scanTldDot(tlds, str, end), trie.findTldDot(str, end));
+      }
+    }
+  }
+}
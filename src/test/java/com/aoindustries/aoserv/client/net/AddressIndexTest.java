@@ -0,0 +1,329 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoapps.lang.validation.ValidationException;
+import com.aoapps.net.AddressFamily;
+import com.aoapps.net.InetAddress;
+import com.aoapps.sql.SQLStreamables;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class AddressIndexTest {
+
+  private static StreamableInput toInput(ByteArrayOutputStream bout) {
+    return new StreamableInput(new ByteArrayInputStream(bout.toByteArray()));
+  }
+
+  private static IpAddress newIpAddress(int id, String address, int deviceId) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (StreamableOutput out = new StreamableOutput(bout)) {
+      out.writeCompressedInt(id);
+      out.writeUTF(address);
+      out.writeCompressedInt(deviceId);
+      out.writeBoolean(false);
+      out.writeNullUTF(null);
+      out.writeCompressedInt(1);
+      SQLStreamables.writeTimestamp(new Timestamp(0), out);
+      out.writeBoolean(true);
+      out.writeBoolean(false);
+      out.writeBoolean(false);
+      out.writeNullUTF(null);
+      out.writeUTF(address.indexOf(':') == -1 ? "255.255.255.0" : "ffff:ffff:ffff:ffff::");
+    }
+    IpAddress ipAddress = new IpAddress();
+    try (StreamableInput in = toInput(bout)) {
+      ipAddress.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    }
+    return ipAddress;
+  }
+
+  private static IpAddress newIpAddress(int id, String address) throws IOException {
+    return newIpAddress(id, address, -1);
+  }
+
+  private static Device newDevice(int id, int hostId) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (StreamableOutput out = new StreamableOutput(bout)) {
+      out.writeCompressedInt(id);
+      out.writeCompressedInt(hostId);
+      out.writeUTF("eth" + id);
+      out.writeUTF("Test device");
+      out.writeNullUTF(null);
+      out.writeNullUTF(null);
+      out.writeNullUTF(null);
+      out.writeNullUTF(null);
+      out.writeNullUTF(null);
+      out.writeLong(-1);
+      out.writeLong(-1);
+      out.writeLong(-1);
+      out.writeLong(-1);
+      out.writeLong(-1);
+      out.writeBoolean(false);
+    }
+    Device device = new Device();
+    try (StreamableInput in = toInput(bout)) {
+      device.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    }
+    return device;
+  }
+
+  private static InetAddress inet(String address) {
+    try {
+      return InetAddress.valueOf(address);
+    } catch (ValidationException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static AddressIndex newIndex(IpAddress ... addresses) {
+    return new AddressIndex(Arrays.asList(addresses), Collections.emptyList());
+  }
+
+  /**
+   * The 128-bit key of an address, with IPv4 mapped into IPv6.
+   */
+  private static BigInteger toKey(InetAddress address) {
+    try {
+      byte[] bytes = java.net.InetAddress.getByName(address.toString()).getAddress();
+      BigInteger key = new BigInteger(1, bytes);
+      return bytes.length == 4 ? key.or(BigInteger.valueOf(0xffff00000000L)) : key;
+    } catch (UnknownHostException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Finds the addresses in the network by checking every address.
+   */
+  private static List<IpAddress> scan(List<IpAddress> rows, InetAddress network, int prefix) {
+    int shift = (network.getAddressFamily() == AddressFamily.INET ? 32 : 128) - prefix;
+    BigInteger networkKey = toKey(network).shiftRight(shift);
+    List<IpAddress> matches = new ArrayList<>();
+    for (IpAddress row : rows) {
+      if (toKey(row.getInetAddress()).shiftRight(shift).equals(networkKey)) {
+        matches.add(row);
+      }
+    }
+    // Stable, so keeps table order for equal addresses
+    matches.sort(Comparator.comparing(row -> toKey(row.getInetAddress())));
+    return matches;
+  }
+
+  @Test
+  public void testIpv4Prefixes() throws IOException {
+    IpAddress a1 = newIpAddress(1, "10.0.0.1");
+    IpAddress a2 = newIpAddress(2, "10.0.0.255");
+    IpAddress a3 = newIpAddress(3, "10.0.1.0");
+    IpAddress a4 = newIpAddress(4, "9.255.255.255");
+    IpAddress a5 = newIpAddress(5, "192.168.1.1");
+    AddressIndex index = newIndex(a5, a3, a2, a1, a4);
+    assertEquals(Arrays.asList(a1, a2), index.getIpAddresses(inet("10.0.0.0"), 24));
+    assertEquals(Arrays.asList(a1, a2, a3), index.getIpAddresses(inet("10.0.0.0"), 23));
+    assertEquals(Arrays.asList(a1, a2, a3), index.getIpAddresses(inet("10.0.0.0"), 8));
+    assertEquals(Arrays.asList(a4, a1, a2, a3), index.getIpAddresses(inet("8.0.0.0"), 6));
+    assertEquals(Collections.singletonList(a2), index.getIpAddresses(inet("10.0.0.255"), 32));
+    assertEquals(Collections.emptyList(), index.getIpAddresses(inet("10.0.0.2"), 32));
+    assertEquals(Arrays.asList(a4, a1, a2, a3, a5), index.getIpAddresses(inet("0.0.0.0"), 0));
+  }
+
+  @Test
+  public void testIpv4HostBitsIgnored() throws IOException {
+    IpAddress a1 = newIpAddress(1, "10.0.0.1");
+    IpAddress a2 = newIpAddress(2, "10.0.1.1");
+    AddressIndex index = newIndex(a1, a2);
+    assertEquals(Collections.singletonList(a1), index.getIpAddresses(inet("10.0.0.77"), 24));
+    assertEquals(Arrays.asList(a1, a2), index.getIpAddresses(inet("10.255.255.255"), 8));
+  }
+
+  @Test
+  public void testIpv4HighBit() throws IOException {
+    IpAddress a1 = newIpAddress(1, "10.0.0.1");
+    IpAddress a2 = newIpAddress(2, "200.0.0.1");
+    IpAddress a3 = newIpAddress(3, "255.255.255.255");
+    AddressIndex index = newIndex(a3, a2, a1);
+    assertEquals(Arrays.asList(a2, a3), index.getIpAddresses(inet("128.0.0.0"), 1));
+    assertEquals(Collections.singletonList(a1), index.getIpAddresses(inet("0.0.0.0"), 1));
+    assertEquals(Collections.singletonList(a3), index.getIpAddresses(inet("255.255.255.255"), 32));
+  }
+
+  @Test
+  public void testIpv6Prefixes() throws IOException {
+    IpAddress a1 = newIpAddress(1, "2001:db8::1");
+    IpAddress a2 = newIpAddress(2, "2001:db8::ffff:ffff:ffff:ffff");
+    IpAddress a3 = newIpAddress(3, "2001:db8:0:1::");
+    IpAddress a4 = newIpAddress(4, "2001:db8::8000:0:0:0");
+    IpAddress a5 = newIpAddress(5, "fe80::1");
+    AddressIndex index = newIndex(a5, a4, a3, a2, a1);
+    // Exactly the high-order half
+    assertEquals(Arrays.asList(a1, a4, a2), index.getIpAddresses(inet("2001:db8::"), 64));
+    // Into the low-order half
+    assertEquals(Collections.singletonList(a1), index.getIpAddresses(inet("2001:db8::"), 65));
+    assertEquals(Arrays.asList(a4, a2), index.getIpAddresses(inet("2001:db8::8000:0:0:0"), 65));
+    assertEquals(Arrays.asList(a1, a4, a2, a3), index.getIpAddresses(inet("2001:db8::"), 32));
+    // Within the high-order half
+    assertEquals(Arrays.asList(a1, a4, a2, a3), index.getIpAddresses(inet("2001:db8::"), 63));
+    assertEquals(Collections.singletonList(a1), index.getIpAddresses(inet("2001:db8::"), 127));
+    assertEquals(Collections.singletonList(a1), index.getIpAddresses(inet("2001:db8::1"), 128));
+    assertEquals(Collections.emptyList(), index.getIpAddresses(inet("2001:db8::2"), 128));
+    assertEquals(Collections.singletonList(a5), index.getIpAddresses(inet("fe80::"), 10));
+    // The high bit
+    assertEquals(Collections.singletonList(a5), index.getIpAddresses(inet("8000::"), 1));
+  }
+
+  @Test
+  public void testMixedFamilies() throws IOException {
+    IpAddress a1 = newIpAddress(1, "10.0.0.1");
+    IpAddress a2 = newIpAddress(2, "::1");
+    IpAddress a3 = newIpAddress(3, "2001:db8::1");
+    IpAddress a4 = newIpAddress(4, "255.255.255.255");
+    AddressIndex index = newIndex(a1, a2, a3, a4);
+    // IPv4 networks never include IPv6 addresses
+    assertEquals(Arrays.asList(a1, a4), index.getIpAddresses(inet("0.0.0.0"), 0));
+    // IPv4 addresses are mapped into ::ffff:0:0/96
+    assertEquals(Arrays.asList(a2, a1, a4, a3), index.getIpAddresses(inet("::"), 0));
+    assertEquals(Arrays.asList(a2, a1, a4), index.getIpAddresses(inet("::"), 3));
+    assertEquals(Collections.singletonList(a2), index.getIpAddresses(inet("::"), 96));
+  }
+
+  @Test
+  public void testDuplicatesInTableOrder() throws IOException {
+    IpAddress a1 = newIpAddress(1, "10.0.0.2");
+    IpAddress a2 = newIpAddress(2, "10.0.0.1");
+    IpAddress a3 = newIpAddress(3, "10.0.0.2");
+    IpAddress a4 = newIpAddress(4, "10.0.0.1");
+    AddressIndex index = newIndex(a1, a2, a3, a4);
+    assertEquals(Arrays.asList(a2, a4, a1, a3), index.getIpAddresses(inet("10.0.0.0"), 24));
+    assertEquals(Arrays.asList(a1, a3), index.getIpAddresses(inet("10.0.0.2"), 32));
+  }
+
+  @Test
+  public void testEmpty() {
+    AddressIndex index = newIndex();
+    assertEquals(Collections.emptyList(), index.getIpAddresses(inet("0.0.0.0"), 0));
+    assertEquals(Collections.emptyList(), index.getIpAddresses(inet("::"), 0));
+    assertEquals(Collections.emptyList(), index.getIpAddresses(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativePrefix() {
+    newIndex().getIpAddresses(inet("10.0.0.0"), -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIpv4PrefixTooLong() {
+    newIndex().getIpAddresses(inet("10.0.0.0"), 33);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIpv6PrefixTooLong() {
+    newIndex().getIpAddresses(inet("::"), 129);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testUnmodifiable() throws IOException {
+    IpAddress a1 = newIpAddress(1, "10.0.0.1");
+    IpAddress a2 = newIpAddress(2, "10.0.0.2");
+    newIndex(a1, a2).getIpAddresses(inet("10.0.0.0"), 24).add(a1);
+  }
+
+  @Test
+  public void testRandom() throws IOException {
+    Random random = new Random(12345);
+    for (int size : new int[] {1, 2, 3, 10, 100, 1000}) {
+      List<IpAddress> rows = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        // Few distinct values, for duplicates and shared prefixes
+        String address;
+        if (random.nextBoolean()) {
+          address = (random.nextBoolean() ? 10 : 200) + "." + random.nextInt(4) + "." + random.nextInt(4) + "." + random.nextInt(256);
+        } else {
+          address = (random.nextBoolean() ? "2001:db8" : "ff00:0") + ":" + Integer.toHexString(random.nextInt(4)) + "::"
+              + Integer.toHexString(random.nextInt(0x10000)) + ":" + Integer.toHexString(random.nextInt(4));
+        }
+        rows.add(newIpAddress(i, address));
+      }
+      AddressIndex index = new AddressIndex(rows, Collections.emptyList());
+      for (int i = 0; i < 100; i++) {
+        InetAddress network = rows.get(random.nextInt(size)).getInetAddress();
+        int prefix = random.nextInt(network.getAddressFamily() == AddressFamily.INET ? 33 : 129);
+        assertEquals(network + "/" + prefix, scan(rows, network, prefix), index.getIpAddresses(network, prefix));
+      }
+    }
+  }
+
+  @Test
+  public void testHosts() throws IOException {
+    Device d1 = newDevice(1, 100);
+    Device d2 = newDevice(2, 100);
+    Device d3 = newDevice(3, 200);
+    IpAddress a1 = newIpAddress(1, "10.0.0.1", 2);
+    IpAddress a2 = newIpAddress(2, "0.0.0.0");
+    IpAddress a3 = newIpAddress(3, "10.0.0.3", 3);
+    IpAddress a4 = newIpAddress(4, "10.0.0.4", 1);
+    // Not on any device, but not unspecified
+    IpAddress a5 = newIpAddress(5, "10.0.0.5");
+    // On a device not in the table
+    IpAddress a6 = newIpAddress(6, "10.0.0.6", 4);
+    List<IpAddress> ipAddressRows = Arrays.asList(a1, a2, a3, a4, a5, a6);
+    List<Device> deviceRows = Arrays.asList(d1, d2, d3);
+    AddressIndex index = new AddressIndex(ipAddressRows, deviceRows);
+    assertEquals(Arrays.asList(a1, a2, a4), index.getIpAddresses(100));
+    assertEquals(Arrays.asList(a2, a3), index.getIpAddresses(200));
+    // Hosts without addresses still have the unspecified addresses
+    assertEquals(Collections.singletonList(a2), index.getIpAddresses(300));
+  }
+
+  @Test
+  public void testIsCurrent() throws IOException {
+    List<IpAddress> ipAddressRows = Collections.singletonList(newIpAddress(1, "10.0.0.1"));
+    List<Device> deviceRows = Collections.emptyList();
+    AddressIndex index = new AddressIndex(ipAddressRows, deviceRows);
+    assertTrue(index.isCurrent(ipAddressRows, deviceRows));
+    // Compared by identity
+    assertFalse(index.isCurrent(new ArrayList<>(ipAddressRows), deviceRows));
+    assertFalse(index.isCurrent(ipAddressRows, new ArrayList<>()));
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.net.reputation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoapps.sql.SQLStreamables;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class ReputationIndexTest {
+
+  private static StreamableInput toInput(ByteArrayOutputStream bout) {
+    return new StreamableInput(new ByteArrayInputStream(bout.toByteArray()));
+  }
+
+  private static Set newSet(int networkPrefix) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (StreamableOutput out = new StreamableOutput(bout)) {
+      Timestamp time = new Timestamp(0);
+      out.writeCompressedInt(1);
+      out.writeCompressedUTF("TEST", 0);
+      out.writeUTF("test");
+      out.writeBoolean(false);
+      out.writeCompressedInt(1000);
+      out.writeShort(50);
+      out.writeShort(100);
+      out.writeShort(networkPrefix);
+      out.writeShort(1000);
+      out.writeCompressedInt(3600);
+      SQLStreamables.writeTimestamp(time, out);
+      out.writeCompressedInt(3600);
+      SQLStreamables.writeTimestamp(time, out);
+      SQLStreamables.writeTimestamp(time, out);
+    }
+    Set set = new Set();
+    try (StreamableInput in = toInput(bout)) {
+      set.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    }
+    return set;
+  }
+
+  private static Host newHost(long pkey, int address) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (StreamableOutput out = new StreamableOutput(bout)) {
+      out.writeLong(pkey);
+      out.writeCompressedInt(1);
+      out.writeInt(address);
+      out.writeShort(0);
+      out.writeShort(0);
+    }
+    Host host = new Host();
+    try (StreamableInput in = toInput(bout)) {
+      host.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    }
+    return host;
+  }
+
+  private static Network newNetwork(long pkey, int network) throws IOException {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (StreamableOutput out = new StreamableOutput(bout)) {
+      out.writeLong(pkey);
+      out.writeCompressedInt(1);
+      out.writeInt(network);
+      out.writeInt(0);
+    }
+    Network net = new Network();
+    try (StreamableInput in = toInput(bout)) {
+      net.read(in, AoservProtocol.Version.CURRENT_VERSION);
+    }
+    return net;
+  }
+
+  private static int address(int a, int b, int c, int d) {
+    return (a << 24) | (b << 16) | (c << 8) | d;
+  }
+
+  private static ReputationIndex newIndex(Set set, List<Host> hosts, List<Network> networks) {
+    return new ReputationIndex(set, hosts, networks, hosts, networks);
+  }
+
+  @Test
+  public void testHosts() throws IOException {
+    // Includes addresses at or above 128.0.0.0, which are negative as int
+    Host h1 = newHost(1, address(192, 168, 1, 1));
+    Host h2 = newHost(2, address(10, 0, 0, 1));
+    Host h3 = newHost(3, address(255, 255, 255, 255));
+    Host h4 = newHost(4, address(0, 0, 0, 0));
+    Host h5 = newHost(5, address(128, 0, 0, 0));
+    ReputationIndex index = newIndex(newSet(24), Arrays.asList(h1, h2, h3, h4, h5), Collections.emptyList());
+    assertEquals(5, index.getHostCount());
+    assertSame(h1, index.getHost(address(192, 168, 1, 1)));
+    assertSame(h2, index.getHost(address(10, 0, 0, 1)));
+    assertSame(h3, index.getHost(address(255, 255, 255, 255)));
+    assertSame(h4, index.getHost(address(0, 0, 0, 0)));
+    assertSame(h5, index.getHost(address(128, 0, 0, 0)));
+    assertNull(index.getHost(address(192, 168, 1, 2)));
+    assertNull(index.getHost(address(127, 255, 255, 255)));
+  }
+
+  @Test
+  public void testNetworkPrefix24() throws IOException {
+    Network n1 = newNetwork(1, address(192, 168, 1, 0));
+    Network n2 = newNetwork(2, address(10, 0, 0, 0));
+    ReputationIndex index = newIndex(newSet(24), Collections.emptyList(), Arrays.asList(n1, n2));
+    assertEquals(2, index.getNetworkCount());
+    assertSame(n1, index.getNetwork(address(192, 168, 1, 0)));
+    assertSame(n1, index.getNetwork(address(192, 168, 1, 255)));
+    assertSame(n2, index.getNetwork(address(10, 0, 0, 77)));
+    assertNull(index.getNetwork(address(192, 168, 2, 1)));
+    assertNull(index.getNetwork(address(10, 0, 1, 0)));
+  }
+
+  @Test
+  public void testNetworkPrefix0() throws IOException {
+    Network n1 = newNetwork(1, 0);
+    ReputationIndex index = newIndex(newSet(0), Collections.emptyList(), Collections.singletonList(n1));
+    // Every address is in the one network
+    assertSame(n1, index.getNetwork(address(192, 168, 1, 1)));
+    assertSame(n1, index.getNetwork(address(255, 255, 255, 255)));
+    assertSame(n1, index.getNetwork(0));
+  }
+
+  @Test
+  public void testNetworkPrefix32() throws IOException {
+    Network n1 = newNetwork(1, address(192, 168, 1, 1));
+    ReputationIndex index = newIndex(newSet(32), Collections.emptyList(), Collections.singletonList(n1));
+    assertSame(n1, index.getNetwork(address(192, 168, 1, 1)));
+    assertNull(index.getNetwork(address(192, 168, 1, 0)));
+  }
+
+  @Test
+  public void testNetworkPrefix1() throws IOException {
+    Network low = newNetwork(1, 0);
+    Network high = newNetwork(2, address(128, 0, 0, 0));
+    ReputationIndex index = newIndex(newSet(1), Collections.emptyList(), Arrays.asList(high, low));
+    assertSame(low, index.getNetwork(address(127, 255, 255, 255)));
+    assertSame(high, index.getNetwork(address(128, 0, 0, 1)));
+    assertSame(high, index.getNetwork(address(255, 255, 255, 255)));
+  }
+
+  @Test
+  public void testRandom() throws IOException {
+    Random random = new Random(12345);
+    for (int prefix : new int[] {0, 1, 8, 16, 20, 24, 31, 32}) {
+      int mask = (int) (0xffffffffL << (Integer.SIZE - prefix));
+      List<Host> hosts = new ArrayList<>();
+      List<Network> networks = new ArrayList<>();
+      List<Integer> addresses = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        // Few distinct high bits so networks are shared
+        int address = (random.nextInt(4) << 30) | (random.nextInt(4) << 8) | random.nextInt(4);
+        addresses.add(address);
+        if (random.nextBoolean()) {
+          boolean exists = false;
+          for (Host host : hosts) {
+            exists |= host.getHost() == address;
+          }
+          if (!exists) {
+            hosts.add(newHost(i, address));
+          }
+        }
+        int network = address & mask;
+        if (random.nextBoolean()) {
+          boolean exists = false;
+          for (Network net : networks) {
+            exists |= net.getNetwork() == network;
+          }
+          if (!exists) {
+            networks.add(newNetwork(i, network));
+          }
+        }
+      }
+      ReputationIndex index = newIndex(newSet(prefix), hosts, networks);
+      for (int address : addresses) {
+        Host expectedHost = null;
+        for (Host host : hosts) {
+          if (host.getHost() == address) {
+            expectedHost = host;
+          }
+        }
+        assertSame(expectedHost, index.getHost(address));
+        Network expectedNetwork = null;
+        for (Network net : networks) {
+          if (net.getNetwork() == (address & mask)) {
+            expectedNetwork = net;
+          }
+        }
+        assertSame(expectedNetwork, index.getNetwork(address));
+      }
+    }
+  }
+
+  @Test
+  public void testIncremental() throws IOException {
+    Set set = newSet(24);
+    Host h1 = newHost(1, address(192, 168, 1, 1));
+    Host h2 = newHost(2, address(10, 0, 0, 1));
+    Host h3 = newHost(3, address(255, 255, 255, 255));
+    Host h4 = newHost(4, address(0, 0, 0, 0));
+    Network n1 = newNetwork(1, address(192, 168, 1, 0));
+    Network n2 = newNetwork(2, address(10, 0, 0, 0));
+    ReputationIndex previous = newIndex(set, Arrays.asList(h1, h2, h3, h4), Arrays.asList(n1, n2));
+    // h2 updated, h4 deleted, h5 inserted, n2 deleted, n3 inserted
+    Host h2Updated = newHost(2, address(10, 0, 0, 1));
+    Host h5 = newHost(5, address(128, 0, 0, 0));
+    Network n3 = newNetwork(3, address(172, 16, 0, 0));
+    List<Host> hosts = Arrays.asList(h1, h2Updated, h3, h5);
+    List<Network> networks = Arrays.asList(n1, n3);
+    ReputationIndex index = new ReputationIndex(previous, set, hosts, networks, hosts, networks);
+    assertEquals(4, index.getHostCount());
+    assertSame(h1, index.getHost(address(192, 168, 1, 1)));
+    assertSame(h2Updated, index.getHost(address(10, 0, 0, 1)));
+    assertSame(h3, index.getHost(address(255, 255, 255, 255)));
+    assertNull(index.getHost(address(0, 0, 0, 0)));
+    assertSame(h5, index.getHost(address(128, 0, 0, 0)));
+    assertEquals(2, index.getNetworkCount());
+    assertSame(n1, index.getNetwork(address(192, 168, 1, 7)));
+    assertNull(index.getNetwork(address(10, 0, 0, 7)));
+    assertSame(n3, index.getNetwork(address(172, 16, 0, 7)));
+  }
+
+  @Test
+  public void testIncrementalUnchanged() throws IOException {
+    Set set = newSet(24);
+    List<Host> hosts = Arrays.asList(newHost(1, address(192, 168, 1, 1)), newHost(2, address(10, 0, 0, 1)));
+    List<Network> networks = Collections.singletonList(newNetwork(1, address(10, 0, 0, 0)));
+    ReputationIndex previous = newIndex(set, hosts, networks);
+    ReputationIndex index = new ReputationIndex(previous, set, new ArrayList<>(hosts), networks, hosts, networks);
+    assertSame(hosts.get(0), index.getHost(address(192, 168, 1, 1)));
+    assertSame(hosts.get(1), index.getHost(address(10, 0, 0, 1)));
+    assertSame(networks.get(0), index.getNetwork(address(10, 0, 0, 1)));
+  }
+
+  @Test
+  public void testIncrementalRandom() throws IOException {
+    Random random = new Random(12345);
+    Set set = newSet(16);
+    List<Host> hosts = new ArrayList<>();
+    List<Network> networks = new ArrayList<>();
+    long pkey = 0;
+    ReputationIndex index = null;
+    for (int generation = 0; generation < 20; generation++) {
+      // Delete, update, and insert a few rows
+      for (int i = 0; i < 10 && !hosts.isEmpty(); i++) {
+        int pos = random.nextInt(hosts.size());
+        if (random.nextBoolean()) {
+          hosts.remove(pos);
+        } else {
+          hosts.set(pos, newHost(hosts.get(pos).getKey(), hosts.get(pos).getHost()));
+        }
+      }
+      for (int i = 0; i < 10 && !networks.isEmpty(); i++) {
+        networks.remove(random.nextInt(networks.size()));
+      }
+      for (int i = 0; i < 20; i++) {
+        int address = random.nextInt();
+        boolean exists = false;
+        for (Host host : hosts) {
+          exists |= host.getHost() == address;
+        }
+        if (!exists) {
+          hosts.add(newHost(++pkey, address));
+        }
+        int network = address & 0xffff0000;
+        exists = false;
+        for (Network net : networks) {
+          exists |= net.getNetwork() == network;
+        }
+        if (!exists) {
+          networks.add(newNetwork(++pkey, network));
+        }
+      }
+      List<Host> hostRows = new ArrayList<>(hosts);
+      List<Network> networkRows = new ArrayList<>(networks);
+      index = new ReputationIndex(index, set, hostRows, networkRows, hostRows, networkRows);
+      ReputationIndex expected = newIndex(set, hostRows, networkRows);
+      assertEquals(expected.getHostCount(), index.getHostCount());
+      assertEquals(expected.getNetworkCount(), index.getNetworkCount());
+      for (Host host : hosts) {
+        assertSame(host, index.getHost(host.getHost()));
+        assertSame(expected.getNetwork(host.getHost()), index.getNetwork(host.getHost()));
+      }
+      for (int i = 0; i < 100; i++) {
+        int address = random.nextInt();
+        assertSame(expected.getHost(address), index.getHost(address));
+        assertSame(expected.getNetwork(address), index.getNetwork(address));
+      }
+    }
+  }
+
+  @Test
+  public void testIsCurrent() throws IOException {
+    Set set = newSet(24);
+    List<Host> hosts = Collections.singletonList(newHost(1, 1));
+    List<Network> networks = Collections.singletonList(newNetwork(1, 0));
+    ReputationIndex index = newIndex(set, hosts, networks);
+    assertTrue(index.isCurrent(set, hosts, networks));
+    assertFalse(index.isCurrent(set, new ArrayList<>(hosts), networks));
+    assertFalse(index.isCurrent(set, hosts, new ArrayList<>(networks)));
+    assertFalse(index.isCurrent(newSet(24), hosts, networks));
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.password;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class DictionaryMatcherTest {
+
+  /**
+   * Finds the longest word by scanning every word with {@link PasswordChecker#indexOfIgnoreCase(java.lang.String, byte[], int, int)},
+   * selecting the word first in the dictionary when the same length.
+   *
+   * @return  the word or {@code null} when none found
+   */
+  private static String scanLongest(byte[] words, String text, int minLength) {
+    String longest = null;
+    int wordslen = words.length;
+    int pos = 0;
+    while (pos < wordslen) {
+      while (pos < wordslen && words[pos] <= ' ') {
+        pos++;
+      }
+      int startpos = pos;
+      while (pos < wordslen && words[pos] > ' ') {
+        pos++;
+      }
+      int wordlen = pos - startpos;
+      if (
+          wordlen > minLength
+              && (longest == null || wordlen > longest.length())
+              && PasswordChecker.indexOfIgnoreCase(text, words, startpos, wordlen) != -1
+      ) {
+        longest = new String(words, startpos, wordlen, StandardCharsets.ISO_8859_1);
+      }
+    }
+    return longest;
+  }
+
+  private static String findLongest(DictionaryMatcher matcher, String text, int minLength) {
+    int node = matcher.findLongest(text, minLength);
+    return node == -1 ? null : matcher.getWord(node);
+  }
+
+  private static void assertSameAsScan(byte[] words, DictionaryMatcher matcher, String text, int minLength) {
+    String backwards = new StringBuilder(text).reverse().toString();
+    assertEquals(text, scanLongest(words, text, minLength), findLongest(matcher, text, minLength));
+    assertEquals(backwards, scanLongest(words, backwards, minLength), findLongest(matcher, backwards, minLength));
+  }
+
+  private static byte[] toBytes(String words) {
+    return words.getBytes(StandardCharsets.ISO_8859_1);
+  }
+
+  @Test
+  public void testEmptyDictionary() {
+    DictionaryMatcher matcher = new DictionaryMatcher(new byte[0]);
+    assertEquals(-1, matcher.findLongest("password", 0));
+    assertEquals(-1, matcher.findLongest("", 0));
+  }
+
+  @Test
+  public void testOverlappingWords() {
+    byte[] words = toBytes("he she his hers\nushers\tshe");
+    DictionaryMatcher matcher = new DictionaryMatcher(words);
+    assertEquals("ushers", findLongest(matcher, "ushers", 0));
+    assertEquals("hers", findLongest(matcher, "xhersx", 3));
+    assertNull(findLongest(matcher, "ushers", 6));
+    assertEquals("she", findLongest(matcher, "ahishe", 2));
+    assertSameAsScan(words, matcher, "ushers", 0);
+    assertSameAsScan(words, matcher, "ahishers", 2);
+  }
+
+  @Test
+  public void testIgnoreCase() {
+    byte[] words = toBytes("Secret SECRETS");
+    DictionaryMatcher matcher = new DictionaryMatcher(words);
+    assertEquals("SECRETS", findLongest(matcher, "mysecrets", 0));
+    assertEquals("Secret", findLongest(matcher, "MYSECRET", 0));
+    assertSameAsScan(words, matcher, "xSeCrEtSx", 0);
+  }
+
+  @Test
+  public void testFirstOfSameLength() {
+    byte[] words = toBytes("abc bcd ABC");
+    DictionaryMatcher matcher = new DictionaryMatcher(words);
+    assertEquals("abc", findLongest(matcher, "xbcdabcx", 0));
+    assertSameAsScan(words, matcher, "xbcdabcx", 0);
+  }
+
+  /**
+   * Non-ASCII bytes separate words, so "café" is the word "caf".
+   */
+  @Test
+  public void testNonAscii() {
+    byte[] words = toBytes("café cafe");
+    DictionaryMatcher matcher = new DictionaryMatcher(words);
+    assertEquals("cafe", findLongest(matcher, "mycafe", 0));
+    assertEquals("caf", findLongest(matcher, "café", 0));
+    assertNull(findLongest(matcher, "café", 3));
+    assertSameAsScan(words, matcher, "cafécafe", 0);
+    assertSameAsScan(words, matcher, "caĀfe", 0);
+  }
+
+  @Test
+  public void testRandom() {
+    Random random = new Random(12345);
+    String alphabet = "abABé";
+    String separators = " \t\n\r";
+    for (int iteration = 0; iteration < 200; iteration++) {
+      StringBuilder sb = new StringBuilder();
+      int wordCount = random.nextInt(20);
+      for (int w = 0; w < wordCount; w++) {
+        for (int i = random.nextInt(3); i >= 0; i--) {
+          sb.append(separators.charAt(random.nextInt(separators.length())));
+        }
+        for (int i = random.nextInt(6); i >= 0; i--) {
+          sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+      }
+      byte[] words = toBytes(sb.toString());
+      DictionaryMatcher matcher = new DictionaryMatcher(words);
+      for (int p = 0; p < 20; p++) {
+        sb.setLength(0);
+        for (int i = random.nextInt(16); i > 0; i--) {
+          sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        assertSameAsScan(words, matcher, sb.toString(), random.nextInt(4));
+      }
+    }
+  }
+
+  @Test
+  public void testDictionary() throws IOException {
+    byte[] words;
+    try (
+        InputStream in = new GZIPInputStream(PasswordChecker.class.getResourceAsStream("linux.words.gz"));
+        ByteArrayOutputStream bout = new ByteArrayOutputStream()
+        ) {
+      byte[] buff = new byte[4096];
+      int count;
+      while ((count = in.read(buff)) != -1) {
+        bout.write(buff, 0, count);
+      }
+      words = bout.toByteArray();
+    }
+    DictionaryMatcher matcher = new DictionaryMatcher(words);
+    for (String password : new String[] {"", "a", "Password123", "drowssaP", "correcthorsebatterystaple", "Tr0ub4dor&3", "x7#Qz!"}) {
+      for (int minLength = 0; minLength <= 6; minLength++) {
+        assertSameAsScan(words, matcher, password, minLength);
+      }
+    }
+  }
+}
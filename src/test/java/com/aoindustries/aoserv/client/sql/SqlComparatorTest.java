@@ -0,0 +1,237 @@
+/*
+ * aoserv-client - Java client for the AOServ Platform.
+ * Copyright (C) 2026  AO Industries, Inc.
+ *     support@aoindustries.com
+ *     7262 Bull Pen Cir
+ *     Mobile, AL 36695
+ *
+ * This file is part of aoserv-client.
+ *
+ * aoserv-client is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * aoserv-client is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with aoserv-client.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.aoindustries.aoserv.client.sql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.aoapps.hodgepodge.io.stream.StreamableInput;
+import com.aoapps.hodgepodge.io.stream.StreamableOutput;
+import com.aoindustries.aoserv.client.AoservConnector;
+import com.aoindustries.aoserv.client.AoservObject;
+import com.aoindustries.aoserv.client.schema.AoservProtocol;
+import com.aoindustries.aoserv.client.schema.Table;
+import com.aoindustries.aoserv.client.schema.Type;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+/**
+ * @author  AO Industries, Inc.
+ */
+public class SqlComparatorTest {
+
+  private static final int COLUMN_ID = 0;
+  private static final int COLUMN_GROUP = 1;
+  private static final int COLUMN_VALUE = 2;
+
+  /**
+   * A row with a unique id, a nullable group, and a value.
+   */
+  private static final class TestRow extends AoservObject<Integer, TestRow> {
+
+    private final int id;
+    private final Integer group;
+    private final int value;
+
+    private TestRow(int id, Integer group, int value) {
+      this.id = id;
+      this.group = group;
+      this.value = value;
+    }
+
+    @Override
+    protected Object getColumnImpl(int i) {
+      switch (i) {
+        case COLUMN_ID:
+          return id;
+        case COLUMN_GROUP:
+          return group;
+        case COLUMN_VALUE:
+          return value;
+        default:
+          throw new IllegalArgumentException("Invalid index: " + i);
+      }
+    }
+
+    @Override
+    public Integer getKey() {
+      return id;
+    }
+
+    @Override
+    public Table.TableId getTableId() {
+      return Table.TableId.SCHEMA_TABLES;
+    }
+
+    @Override
+    public void init(ResultSet results) throws SQLException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void read(StreamableInput in, AoservProtocol.Version protocolVersion) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void write(StreamableOutput out, AoservProtocol.Version protocolVersion) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private static final Type INT_TYPE;
+
+  static {
+    try {
+      ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      try (StreamableOutput out = new StreamableOutput(bout)) {
+        out.writeCompressedInt(Type.INT);
+        out.writeUTF("int");
+        out.writeUTF(AoservProtocol.Version.CURRENT_VERSION.getVersion());
+        out.writeNullUTF(null);
+      }
+      INT_TYPE = new Type();
+      try (StreamableInput in = new StreamableInput(new ByteArrayInputStream(bout.toByteArray()))) {
+        INT_TYPE.read(in, AoservProtocol.Version.CURRENT_VERSION);
+      }
+    } catch (IOException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * Gets a column of a row, counting each evaluation.
+   */
+  private static final class ColumnExpression implements SqlExpression {
+
+    private final int column;
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private ColumnExpression(int column) {
+      this.column = column;
+    }
+
+    @Override
+    public String getColumnName() {
+      return Integer.toString(column);
+    }
+
+    @Override
+    public Object evaluate(AoservConnector conn, AoservObject<?, ?> obj) {
+      evaluations.incrementAndGet();
+      return obj.getColumn(column);
+    }
+
+    @Override
+    public boolean isAggregate() {
+      return false;
+    }
+
+    @Override
+    public Type getType() {
+      return INT_TYPE;
+    }
+  }
+
+  /**
+   * Orders by group ascending, with nulls first, then value descending.
+   */
+  private static final Comparator<TestRow> EXPECTED_ORDER =
+      Comparator.comparing((TestRow row) -> row.group, Comparator.nullsFirst(Comparator.naturalOrder()))
+          .thenComparing(row -> row.value, Comparator.reverseOrder());
+
+  private static SqlOrderByExpression[] newOrderBy(ColumnExpression group, ColumnExpression value) {
+    return new SqlOrderByExpression[] {
+        new SqlOrderByExpression(group, true),
+        new SqlOrderByExpression(value, false)
+    };
+  }
+
+  private static TestRow[] newRows(Random random, int count) {
+    TestRow[] rows = new TestRow[count];
+    for (int i = 0; i < count; i++) {
+      // Few distinct values so the stability of the sort is tested
+      int group = random.nextInt(5);
+      rows[i] = new TestRow(i, group == 0 ? null : group, random.nextInt(5));
+    }
+    return rows;
+  }
+
+  @Test
+  public void testSortArray() throws IOException, SQLException {
+    TestRow[] rows = newRows(new Random(12345), 100);
+    TestRow[] expected = rows.clone();
+    // Stable
+    Arrays.sort(expected, EXPECTED_ORDER);
+    ColumnExpression group = new ColumnExpression(COLUMN_GROUP);
+    ColumnExpression value = new ColumnExpression(COLUMN_VALUE);
+    SqlComparator.sort(null, rows, newOrderBy(group, value));
+    assertArrayEquals(expected, rows);
+    // Each expression evaluated once per row
+    assertEquals(rows.length, group.evaluations.get());
+    assertEquals(rows.length, value.evaluations.get());
+  }
+
+  @Test
+  public void testSortListParallel() throws IOException, SQLException {
+    // Large enough to be sorted in parallel
+    TestRow[] array = newRows(new Random(12345), 20000);
+    List<TestRow> rows = new ArrayList<>(Arrays.asList(array));
+    List<TestRow> expected = new ArrayList<>(rows);
+    // Stable
+    expected.sort(EXPECTED_ORDER);
+    ColumnExpression group = new ColumnExpression(COLUMN_GROUP);
+    ColumnExpression value = new ColumnExpression(COLUMN_VALUE);
+    SqlComparator.sort(null, rows, newOrderBy(group, value));
+    assertEquals(expected, rows);
+    assertEquals(rows.size(), group.evaluations.get());
+    assertEquals(rows.size(), value.evaluations.get());
+  }
+
+  @Test
+  public void testSortEmpty() throws IOException, SQLException {
+    TestRow[] rows = new TestRow[0];
+    SqlComparator.sort(null, rows, newOrderBy(new ColumnExpression(COLUMN_GROUP), new ColumnExpression(COLUMN_VALUE)));
+    assertEquals(0, rows.length);
+  }
+
+  @Test
+  public void testSortNoExpressions() throws IOException, SQLException {
+    TestRow[] rows = newRows(new Random(12345), 10);
+    TestRow[] expected = rows.clone();
+    SqlComparator.sort(null, rows);
+    // Stable, so unchanged
+    assertArrayEquals(expected, rows);
+  }
+}